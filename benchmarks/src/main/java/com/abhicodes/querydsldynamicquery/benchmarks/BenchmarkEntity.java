@@ -0,0 +1,29 @@
+package com.abhicodes.querydsldynamicquery.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Entity with one property per value type handled by CommonPredicate, so every
+ * type branch can be benchmarked.
+ */
+@Entity
+public class BenchmarkEntity {
+
+	@Id
+	private Long id;
+
+	private Integer count;
+
+	private Double score;
+
+	private String name;
+
+	private LocalDate day;
+
+	private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,97 @@
+package com.abhicodes.querydsldynamicquery.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+
+import com.abhicodes.querydsldynamicquery.component.FilterExpressionParser;
+import com.abhicodes.querydsldynamicquery.component.FilterParser;
+import com.abhicodes.querydsldynamicquery.component.PredicateTemplateCache;
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard;
+import com.abhicodes.querydsldynamicquery.config.CommonConfig;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.abhicodes.querydsldynamicquery.entity.QPostComment;
+import com.abhicodes.querydsldynamicquery.entity.QPostType;
+import com.abhicodes.querydsldynamicquery.entity.QUsers;
+import com.abhicodes.querydsldynamicquery.predicate.EntityDescriptorRegistry;
+import com.abhicodes.querydsldynamicquery.predicate.PropertyMetadataRegistry;
+import com.abhicodes.querydsldynamicquery.service.BaseService;
+import com.abhicodes.querydsldynamicquery.utils.PostUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Wires the pipeline components the way the Spring context does, without
+ * starting it.
+ */
+final class BenchmarkSupport {
+
+	static final String[] POST_FILTERS = { "postType:1", "title%post", "createdAt()2022-01-01,2022-12-31",
+			"author_term:abhi", "id>=10", "authorName-andy", "id!=3,4,5", "updatedAt>2022-06-01" };
+
+	static final String[] BUILDER_FILTERS = { "id>=10", "title%post", "createdAt()2022-01-01,2022-12-31",
+			"postType.id:1,2", "author.fullName-andy", "updatedAt>2022-06-01", "id!=3,4,5" };
+
+	private BenchmarkSupport() {
+	}
+
+	static PropertyMetadataRegistry registry() {
+		return PropertyMetadataRegistry.of(QPost.post, QUsers.users, QPostType.postType, QPostComment.postComment,
+				QBenchmarkEntity.benchmarkEntity);
+	}
+
+	static BaseService baseService(int parserCacheSize) {
+		BaseService baseService = new BaseService();
+		DirectFieldAccessor accessor = new DirectFieldAccessor(baseService);
+		accessor.setPropertyValue("filterParser", new FilterParser(parserCacheSize));
+		accessor.setPropertyValue("propertyMetadataRegistry", registry());
+		return baseService;
+	}
+
+	/**
+	 * The posts descriptor of CommonConfig; nothing is queried, so its executor
+	 * rejects every call.
+	 */
+	@SuppressWarnings("unchecked")
+	static EntityDescriptorRegistry entityDescriptorRegistry(PropertyMetadataRegistry registry) {
+		QuerydslPredicateExecutor<Post> executor = (QuerydslPredicateExecutor<Post>) Proxy.newProxyInstance(
+				BenchmarkSupport.class.getClassLoader(), new Class<?>[] { QuerydslPredicateExecutor.class },
+				(proxy, method, args) -> {
+					throw new UnsupportedOperationException(method.getName());
+				});
+		return EntityDescriptorRegistry
+				.of(CommonConfig.postDescriptor().projection(post -> post).executor(executor).build(registry));
+	}
+
+	static QueryCostGuard queryCostGuard() {
+		QueryCostGuard queryCostGuard = new QueryCostGuard("timeout", 3, Duration.ofSeconds(5));
+		new DirectFieldAccessor(queryCostGuard).setPropertyValue("meterRegistry", new SimpleMeterRegistry());
+		return queryCostGuard;
+	}
+
+	static PostUtils postUtils() {
+		PropertyMetadataRegistry registry = registry();
+		PostUtils postUtils = new PostUtils();
+		DirectFieldAccessor accessor = new DirectFieldAccessor(postUtils);
+		accessor.setPropertyValue("propertyMetadataRegistry", registry);
+		accessor.setPropertyValue("predicateTemplateCache", new PredicateTemplateCache(256));
+		accessor.setPropertyValue("entityDescriptorRegistry", entityDescriptorRegistry(registry));
+		accessor.setPropertyValue("queryCostGuard", queryCostGuard());
+		accessor.setPropertyValue("filterExpressionParser",
+				new FilterExpressionParser(new FilterParser(1024), 1024, 8, 64));
+		return postUtils;
+	}
+
+	static String[] filters(String[] source, int count) {
+		List<String> filters = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			filters.add(source[i % source.length]);
+		}
+		return filters.toArray(new String[0]);
+	}
+}
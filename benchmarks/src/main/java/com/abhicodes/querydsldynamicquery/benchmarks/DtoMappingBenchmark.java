@@ -0,0 +1,91 @@
+package com.abhicodes.querydsldynamicquery.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.Conditions;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.domain.UsersDTO;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.PostType;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.mapper.PostMapper;
+import com.abhicodes.querydsldynamicquery.mapper.PostMapperImpl;
+import com.abhicodes.querydsldynamicquery.mapper.UsersMapperImpl;
+
+/**
+ * Per row cost of mapping a listing row: the former ModelMapper based
+ * PostUtils.mapToDTO against the generated PostMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+	private ModelMapper modelMapper;
+
+	private PostMapper postMapper;
+
+	private Post post;
+
+	@Setup
+	public void setUp() {
+		modelMapper = new ModelMapper();
+		modelMapper.getConfiguration().setPropertyCondition(Conditions.isNotNull());
+		postMapper = new PostMapperImpl(new UsersMapperImpl());
+		post = BenchmarkData.post(1);
+	}
+
+	@Benchmark
+	public PostDTO modelMapper() {
+		UsersDTO author = modelMapper.map(post.getAuthor(), UsersDTO.class);
+		return PostDTO.builder().author(author).createdAt(post.getCreatedAt()).id(post.getId()).title(post.getTitle())
+				.postType(post.getPostType().getType()).build();
+	}
+
+	@Benchmark
+	public PostDTO generatedMapper() {
+		return postMapper.toDTO(post);
+	}
+
+	static final class BenchmarkData {
+
+		private BenchmarkData() {
+		}
+
+		static Post post(int id) {
+			Users author = new Users();
+			author.setId(id);
+			author.setUserName("abhi" + id);
+			author.setEmail("abhi" + id + "@example.com");
+			author.setFullName("Abhi " + id);
+			author.setIsActive(true);
+			PostType postType = new PostType();
+			postType.setId(id % 5);
+			postType.setType("type" + id % 5);
+			Post post = new Post();
+			post.setId(id);
+			post.setTitle("post " + id);
+			post.setAuthor(author);
+			post.setPostType(postType);
+			post.setCreatedAt(LocalDateTime.of(2022, 1, 1, 0, 0).plusHours(id));
+			post.setUpdatedAt(post.getCreatedAt());
+			return post;
+		}
+	}
+}
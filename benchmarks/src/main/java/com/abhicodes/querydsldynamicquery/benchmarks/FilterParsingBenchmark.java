@@ -0,0 +1,57 @@
+package com.abhicodes.querydsldynamicquery.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhicodes.querydsldynamicquery.service.BaseService;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+/**
+ * BaseService.formatSearchCriteria with the parser cache warm and disabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterParsingBenchmark {
+
+	@Param({ "1", "5", "20" })
+	int filters;
+
+	private BaseService cached;
+
+	private BaseService uncached;
+
+	private String[] filter;
+
+	@Setup
+	public void setUp() {
+		cached = BenchmarkSupport.baseService(1024);
+		uncached = BenchmarkSupport.baseService(0);
+		filter = BenchmarkSupport.filters(BenchmarkSupport.POST_FILTERS, filters);
+	}
+
+	@Benchmark
+	public List<SearchCriteria> formatSearchCriteriaCached() {
+		return cached.formatSearchCriteria(filter);
+	}
+
+	@Benchmark
+	public List<SearchCriteria> formatSearchCriteriaUncached() {
+		return uncached.formatSearchCriteria(filter);
+	}
+}
@@ -0,0 +1,120 @@
+package com.abhicodes.querydsldynamicquery.benchmarks;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load test of <code>/all-posts</code> against a running server,
+ * mixing fast indexed filters with slow <code>LIKE</code> scans. Compare the
+ * throughput and latencies of the fast queries with
+ * <code>app.web.execution-mode</code> set to platform and to virtual: with
+ * platform threads slow scans hold Tomcat threads the fast queries wait for.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.abhicodes.querydsldynamicquery.benchmarks.ListingLoadTest \
+ *     [base url] [clients] [seconds] [slow percent]
+ * </pre>
+ */
+public final class ListingLoadTest {
+
+	private static final String[] FAST_FILTERS = { "id>1", "postType:1", "createdAt>=2022-01-01" };
+
+	private static final String[] SLOW_FILTERS = { "title-post", "authorName-a", "author_term-ab" };
+
+	private ListingLoadTest() {
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+		int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+		int slowPercent = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		Stats fast = new Stats("fast");
+		Stats slow = new Stats("slow");
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+		for (int i = 0; i < clients; i++) {
+			pool.execute(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				while (System.nanoTime() < deadline) {
+					boolean isSlow = random.nextInt(100) < slowPercent;
+					String[] filters = isSlow ? SLOW_FILTERS : FAST_FILTERS;
+					String query = isSlow ? "count=exact" : "count=none";
+					URI uri = URI.create(baseUrl + "/all-posts?" + query + "&filter="
+							+ URLEncoder.encode(filters[random.nextInt(filters.length)], StandardCharsets.UTF_8));
+					(isSlow ? slow : fast).record(client, uri);
+				}
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+		System.out.printf("%d clients, %d s, %d%% slow%n", clients, seconds, slowPercent);
+		fast.print(seconds);
+		slow.print(seconds);
+	}
+
+	/**
+	 * Latencies and errors of one class of requests.
+	 */
+	private static final class Stats {
+
+		private final String name;
+
+		private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+		private final AtomicInteger errors = new AtomicInteger();
+
+		private Stats(String name) {
+			this.name = name;
+		}
+
+		private void record(HttpClient client, URI uri) {
+			long start = System.nanoTime();
+			try {
+				HttpResponse<Void> response = client.send(
+						HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build(),
+						HttpResponse.BodyHandlers.discarding());
+				if (response.statusCode() != 200) {
+					errors.incrementAndGet();
+					return;
+				}
+				latencies.add(System.nanoTime() - start);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (Exception e) {
+				errors.incrementAndGet();
+			}
+		}
+
+		private void print(int seconds) {
+			List<Long> sorted = new ArrayList<>(latencies);
+			Collections.sort(sorted);
+			System.out.printf("%s: %d ok, %d errors, %.1f req/s, p50 %.1f ms, p95 %.1f ms, p99 %.1f ms%n", name,
+					sorted.size(), errors.get(), sorted.size() / (double) seconds, percentile(sorted, 50),
+					percentile(sorted, 95), percentile(sorted, 99));
+		}
+
+		private static double percentile(List<Long> sorted, int percent) {
+			if (sorted.isEmpty()) {
+				return 0;
+			}
+			int index = Math.min(sorted.size() - 1, (int) Math.ceil(percent / 100.0 * sorted.size()) - 1);
+			return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.abhicodes.querydsldynamicquery.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhicodes.querydsldynamicquery.predicate.CommonPredicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+
+/**
+ * CommonPredicate.getPredicate for each value type branch, single and multi
+ * valued.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateBenchmark {
+
+	@Param({ "count>=10", "count:1,2,3", "id<100", "id()1,100", "score<=2.5", "score:1.5,2.5", "name-abhi",
+			"name:abhi,andy", "day>2022-01-01", "day()2022-01-01,2022-12-31", "createdAt:2022-01-01",
+			"createdAt()2022-01-01,2022-12-31" })
+	String filter;
+
+	private CommonPredicate<BenchmarkEntity> predicate;
+
+	private String key;
+
+	private String operator;
+
+	private String value;
+
+	@Setup
+	public void setUp() {
+		predicate = new CommonPredicate<>(BenchmarkEntity.class, BenchmarkSupport.registry());
+		int opStart = 0;
+		while (Character.isLetterOrDigit(filter.charAt(opStart))) {
+			opStart++;
+		}
+		int valueStart = opStart + 1;
+		while (!Character.isLetterOrDigit(filter.charAt(valueStart))) {
+			valueStart++;
+		}
+		key = filter.substring(0, opStart);
+		operator = filter.substring(opStart, valueStart);
+		value = filter.substring(valueStart);
+	}
+
+	@Benchmark
+	public BooleanExpression getPredicate() {
+		return predicate.getPredicate(key, operator, value);
+	}
+}
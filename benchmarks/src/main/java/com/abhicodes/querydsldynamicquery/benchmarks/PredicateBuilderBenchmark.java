@@ -0,0 +1,91 @@
+package com.abhicodes.querydsldynamicquery.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.abhicodes.querydsldynamicquery.predicate.BoundPredicate;
+import com.abhicodes.querydsldynamicquery.predicate.CommonPredicateBuilder;
+import com.abhicodes.querydsldynamicquery.predicate.PropertyMetadataRegistry;
+import com.abhicodes.querydsldynamicquery.service.BaseService;
+import com.abhicodes.querydsldynamicquery.utils.PostUtils;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+
+/**
+ * Criteria to predicate to JPQL: CommonPredicateBuilder.build, the Post filter
+ * expression in literal and compiled template form, and JPQL serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateBuilderBenchmark {
+
+	@Param({ "1", "5", "10", "50" })
+	int criteria;
+
+	private PropertyMetadataRegistry registry;
+
+	private PostUtils postUtils;
+
+	private List<SearchCriteria> postCriterias;
+
+	private List<SearchCriteria> builderCriterias;
+
+	private BooleanExpression expression;
+
+	@Setup
+	public void setUp() {
+		registry = BenchmarkSupport.registry();
+		postUtils = BenchmarkSupport.postUtils();
+		BaseService baseService = BenchmarkSupport.baseService(1024);
+		postCriterias = baseService
+				.formatSearchCriteria(BenchmarkSupport.filters(BenchmarkSupport.POST_FILTERS, criteria));
+		builderCriterias = baseService
+				.formatSearchCriteria(BenchmarkSupport.filters(BenchmarkSupport.BUILDER_FILTERS, criteria));
+		expression = postUtils.getPCQFilterExp(postCriterias);
+	}
+
+	@Benchmark
+	public BooleanExpression build() {
+		return new CommonPredicateBuilder<>(Post.class, registry).and(builderCriterias).build();
+	}
+
+	@Benchmark
+	public BooleanExpression getPCQFilterExp() {
+		return postUtils.getPCQFilterExp(postCriterias);
+	}
+
+	@Benchmark
+	public BoundPredicate getPCQBoundFilterExp() {
+		return postUtils.getPCQBoundFilterExp(postCriterias);
+	}
+
+	@Benchmark
+	public String serializeJpql() {
+		QPost post = QPost.post;
+		JPAQuery<Post> query = new JPAQuery<Post>().select(post).from(post).where(expression);
+		JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT);
+		serializer.serialize(query.getMetadata(), false, null);
+		return serializer.toString();
+	}
+}
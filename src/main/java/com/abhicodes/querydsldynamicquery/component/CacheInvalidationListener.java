@@ -0,0 +1,81 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener dropping the listing and count caches, and what the
+ * reference data dictionary holds of the entity, whenever an entity a listing
+ * reads is written. Hibernate creates it through the Spring bean container, so
+ * the caches are injected. The caches are dropped again after commit, so a
+ * listing loaded between the flush and the commit is not kept. Bulk JPQL
+ * updates and deletes bypass entity listeners and are not seen.
+ */
+public class CacheInvalidationListener {
+
+	private static final Object PENDING_INVALIDATION = CacheInvalidationListener.class.getName() + ".pending";
+
+	@Autowired
+	ListingCache listingCache;
+
+	@Autowired
+	CountCache countCache;
+
+	@Autowired
+	ObjectProvider<ReferenceDataDictionary> referenceDataDictionary;
+
+	/**
+	 * Invalidates the caches after the entity is written.
+	 *
+	 * @param entity the entity
+	 */
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void onWrite(Object entity) {
+		invalidate(entity);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		@SuppressWarnings("unchecked")
+		List<Object> written = (List<Object>) TransactionSynchronizationManager.getResource(PENDING_INVALIDATION);
+		if (null == written) {
+			List<Object> entities = new ArrayList<>();
+			TransactionSynchronizationManager.bindResource(PENDING_INVALIDATION, entities);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					entities.forEach(CacheInvalidationListener.this::invalidate);
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_INVALIDATION);
+				}
+			});
+			written = entities;
+		}
+		written.add(entity);
+	}
+
+	private void invalidate(Object entity) {
+		if (null != listingCache) {
+			listingCache.invalidateAll();
+		}
+		if (null != countCache) {
+			countCache.invalidateAll();
+		}
+		if (null != referenceDataDictionary) {
+			referenceDataDictionary.ifAvailable(dictionary -> dictionary.invalidate(entity));
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package com.abhicodes.querydsldynamicquery.component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -10,10 +13,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.NullHandling;
 import org.springframework.data.domain.Sort.Order;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Component
@@ -38,4 +43,63 @@ public class CommonComponent {
 		return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(newSort));
 	}
 
+	/**
+	 * Appends the tie-breaker to the sort, in the direction of the last order, so
+	 * that the sort is unique and usable for keyset pagination.
+	 *
+	 * @param sort       the sort
+	 * @param tieBreaker the unique tie-breaker property
+	 * @return the sort
+	 */
+	public Sort getKeysetSort(Sort sort, String tieBreaker) {
+		if (null != sort.getOrderFor(tieBreaker)) {
+			return sort;
+		}
+		Direction direction = sort.stream().reduce((first, second) -> second).map(Order::getDirection)
+				.orElse(Direction.DESC);
+		return sort.and(Sort.by(new Order(direction, tieBreaker)));
+	}
+
+	/**
+	 * Encodes the sort key values of the last row into an opaque cursor.
+	 *
+	 * @param sort   the sort
+	 * @param values the values
+	 * @return the cursor
+	 */
+	public String encodeCursor(Sort sort, List<String> values) {
+		Map<String, Object> token = new HashMap<>();
+		token.put("s", sort.toString());
+		token.put("v", values);
+		try {
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(token));
+		} catch (Exception e) {
+			throw new RuntimeException("Unable to encode cursor", e);
+		}
+	}
+
+	/**
+	 * Decodes a cursor into the sort key values it was created with. The cursor
+	 * is rejected if it was created for a different sort.
+	 *
+	 * @param sort   the sort
+	 * @param cursor the cursor
+	 * @return the values
+	 */
+	public List<String> decodeCursor(Sort sort, String cursor) {
+		Map<String, Object> token;
+		try {
+			token = objectMapper.readValue(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8),
+					new TypeReference<Map<String, Object>>() {
+					});
+		} catch (Exception e) {
+			throw new RuntimeException("Invalid cursor", e);
+		}
+		if (!sort.toString().equals(token.get("s")) || !(token.get("v") instanceof List)) {
+			throw new RuntimeException("Invalid cursor");
+		}
+		return objectMapper.convertValue(token.get("v"), new TypeReference<List<String>>() {
+		});
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abhicodes.querydsldynamicquery.utils.LruCache;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+/**
+ * Bounded cache of listing counts keyed by entity and normalized filter, with
+ * a time to live.
+ */
+@Component
+public class CountCache {
+
+	private final LruCache<String, CachedCount> cache;
+
+	private final long ttlMillis;
+
+	/**
+	 * Instantiates a new count cache.
+	 *
+	 * @param cacheSize the maximum number of cached counts
+	 * @param ttl       the time to live of a count
+	 */
+	public CountCache(@Value("${app.query.count-cache-size:1024}") int cacheSize,
+			@Value("${app.query.count-cache-ttl:60s}") Duration ttl) {
+		this.cache = new LruCache<>(cacheSize);
+		this.ttlMillis = ttl.toMillis();
+	}
+
+	/**
+	 * Gets the cached count of the filter, counting on a miss or once expired.
+	 *
+	 * @param entity    the entity
+	 * @param criterias the criterias
+	 * @param counter   the counter
+	 * @return the count
+	 */
+	public long get(Class<?> entity, List<SearchCriteria> criterias, LongSupplier counter) {
+		String key = entity.getName() + ':' + normalize(criterias);
+		long now = System.currentTimeMillis();
+		CachedCount cached = cache.getIfPresent(key);
+		if (null != cached && cached.expiresAt > now) {
+			return cached.count;
+		}
+		long count = counter.getAsLong();
+		cache.put(key, new CachedCount(count, now + ttlMillis));
+		return count;
+	}
+
+	/**
+	 * Drops every cached count.
+	 */
+	public void invalidateAll() {
+		cache.clear();
+	}
+
+	/**
+	 * Normalizes the criterias, independent of their order.
+	 *
+	 * @param criterias the criterias
+	 * @return the normalized filter
+	 */
+	static String normalize(List<SearchCriteria> criterias) {
+		return criterias.stream().map(c -> c.getKey() + c.getOperator() + c.getValue()).sorted()
+				.collect(Collectors.joining("|"));
+	}
+
+	private static final class CachedCount {
+
+		private final long count;
+
+		private final long expiresAt;
+
+		private CachedCount(long count, long expiresAt) {
+			this.count = count;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
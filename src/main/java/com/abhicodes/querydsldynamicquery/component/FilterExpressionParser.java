@@ -0,0 +1,213 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abhicodes.querydsldynamicquery.predicate.FilterExpression;
+import com.abhicodes.querydsldynamicquery.utils.LruCache;
+
+/**
+ * Parses a boolean filter expression into a {@link FilterExpression}. The
+ * grammar, by increasing precedence:
+ *
+ * <pre>
+ * expression := conjunction ( OR conjunction )*
+ * conjunction := unary ( AND unary )*
+ * unary := NOT unary | ( expression ) | filter
+ * </pre>
+ *
+ * where <code>filter</code> is a single filter as read by {@link FilterParser}.
+ * Keywords are upper case and separated by white space. A filter value runs up
+ * to the next keyword or the parenthesis closing its group, so values keep
+ * their balanced parentheses. Nesting depth and node count are bounded, which
+ * bounds parsing, compiling and the size of the generated SQL. Parsed
+ * expressions are kept in a bounded LRU cache keyed by the raw expression.
+ */
+@Component
+public class FilterExpressionParser {
+
+	private final FilterParser filterParser;
+
+	private final LruCache<String, FilterExpression> cache;
+
+	private final int maxDepth;
+
+	private final int maxNodes;
+
+	/**
+	 * Instantiates a new filter expression parser.
+	 *
+	 * @param filterParser the parser of single filters
+	 * @param cacheSize    the maximum number of cached expressions
+	 * @param maxDepth     the maximum nesting of groups and negations
+	 * @param maxNodes     the maximum number of filters and operators
+	 */
+	public FilterExpressionParser(FilterParser filterParser,
+			@Value("${app.filter.parser-cache-size:1024}") int cacheSize,
+			@Value("${app.filter.expression.max-depth:8}") int maxDepth,
+			@Value("${app.filter.expression.max-nodes:64}") int maxNodes) {
+		this.filterParser = filterParser;
+		this.cache = new LruCache<>(cacheSize);
+		this.maxDepth = maxDepth;
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * Parses the expression, using the cached expression when available.
+	 *
+	 * @param expression the expression
+	 * @return the filter expression
+	 */
+	public FilterExpression parse(String expression) {
+		if (null == expression) {
+			throw new RuntimeException("Invalid Filter expression");
+		}
+		return cache.get(expression, e -> new Parser(e).parse());
+	}
+
+	/**
+	 * A recursive descent parser over one expression.
+	 */
+	private final class Parser {
+
+		private final String input;
+
+		private int pos;
+
+		private int nodes;
+
+		private Parser(String input) {
+			this.input = input;
+		}
+
+		private FilterExpression parse() {
+			FilterExpression expression = disjunction(0);
+			skipWhitespace();
+			if (pos != input.length()) {
+				throw new RuntimeException("Invalid Filter expression at position " + pos);
+			}
+			return expression;
+		}
+
+		private FilterExpression disjunction(int depth) {
+			List<FilterExpression> operands = new ArrayList<>();
+			operands.add(conjunction(depth));
+			while (keyword("OR")) {
+				operands.add(conjunction(depth));
+			}
+			return operands.size() == 1 ? operands.get(0) : node(FilterExpression.or(operands));
+		}
+
+		private FilterExpression conjunction(int depth) {
+			List<FilterExpression> operands = new ArrayList<>();
+			operands.add(unary(depth));
+			while (keyword("AND")) {
+				operands.add(unary(depth));
+			}
+			return operands.size() == 1 ? operands.get(0) : node(FilterExpression.and(operands));
+		}
+
+		private FilterExpression unary(int depth) {
+			skipWhitespace();
+			if (keyword("NOT")) {
+				return node(FilterExpression.not(unary(nested(depth))));
+			}
+			if (pos < input.length() && input.charAt(pos) == '(') {
+				pos++;
+				FilterExpression expression = disjunction(nested(depth));
+				skipWhitespace();
+				if (pos == input.length() || input.charAt(pos) != ')') {
+					throw new RuntimeException("Invalid Filter expression, missing ) at position " + pos);
+				}
+				pos++;
+				return expression;
+			}
+			return node(FilterExpression.of(filterParser.parse(filter())));
+		}
+
+		/**
+		 * Reads a single filter, up to the next keyword, the unbalanced closing
+		 * parenthesis of the enclosing group or the end of the input.
+		 *
+		 * @return the filter
+		 */
+		private String filter() {
+			int start = pos;
+			int balance = 0;
+			while (pos < input.length()) {
+				char c = input.charAt(pos);
+				if (c == '(') {
+					balance++;
+				} else if (c == ')') {
+					if (balance == 0) {
+						break;
+					}
+					balance--;
+				} else if (Character.isWhitespace(c) && balance == 0 && keywordAhead(pos)) {
+					break;
+				}
+				pos++;
+			}
+			return input.substring(start, pos).trim();
+		}
+
+		/**
+		 * Checks whether white space at the index is followed by AND or OR.
+		 *
+		 * @param index the index of the white space
+		 * @return true, if a keyword follows
+		 */
+		private boolean keywordAhead(int index) {
+			while (index < input.length() && Character.isWhitespace(input.charAt(index))) {
+				index++;
+			}
+			return isKeyword(index, "AND") || isKeyword(index, "OR");
+		}
+
+		/**
+		 * Consumes the keyword if it is next, after white space.
+		 *
+		 * @param keyword the keyword
+		 * @return true, if consumed
+		 */
+		private boolean keyword(String keyword) {
+			int start = pos;
+			skipWhitespace();
+			if (isKeyword(pos, keyword)) {
+				pos += keyword.length();
+				return true;
+			}
+			pos = start;
+			return false;
+		}
+
+		private boolean isKeyword(int index, String keyword) {
+			int end = index + keyword.length();
+			return input.startsWith(keyword, index) && (end == input.length()
+					|| Character.isWhitespace(input.charAt(end)) || input.charAt(end) == '(');
+		}
+
+		private void skipWhitespace() {
+			while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+				pos++;
+			}
+		}
+
+		private int nested(int depth) {
+			if (depth + 1 > maxDepth) {
+				throw new RuntimeException("Filter expression nested deeper than " + maxDepth);
+			}
+			return depth + 1;
+		}
+
+		private FilterExpression node(FilterExpression expression) {
+			if (++nodes > maxNodes) {
+				throw new RuntimeException("Filter expression has more than " + maxNodes + " nodes");
+			}
+			return expression;
+		}
+	}
+}
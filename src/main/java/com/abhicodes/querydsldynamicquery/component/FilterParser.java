@@ -0,0 +1,127 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abhicodes.querydsldynamicquery.utils.LruCache;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+/**
+ * Parses a single <code>key op value</code> filter into a {@link SearchCriteria}.
+ * Parsed criteria are kept in a bounded LRU cache keyed by the raw filter
+ * string, so repeated filters skip tokenizing entirely.
+ */
+@Component
+public class FilterParser {
+
+	private final LruCache<String, SearchCriteria> cache;
+
+	/**
+	 * Instantiates a new filter parser.
+	 *
+	 * @param cacheSize the maximum number of cached filters
+	 */
+	public FilterParser(@Value("${app.filter.parser-cache-size:1024}") int cacheSize) {
+		this.cache = new LruCache<>(cacheSize);
+	}
+
+	/**
+	 * Parses the filter, using the cached criteria when available.
+	 *
+	 * @param filter the filter
+	 * @return the search criteria
+	 */
+	public SearchCriteria parse(String filter) {
+		return cache.get(filter, FilterParser::tokenize);
+	}
+
+	/**
+	 * Tokenizes the filter. The key is <code>[\w.]+</code>, the operator is the
+	 * longest match of <code>: &lt; &gt; &lt;= &gt;= != % - () ~</code> and the value
+	 * is <code>[\w\s(),.:-]+</code> up to the end of the filter.
+	 *
+	 * @param filter the filter
+	 * @return the search criteria
+	 */
+	static SearchCriteria tokenize(String filter) {
+		if (null == filter) {
+			throw new RuntimeException("Invalid Filter format");
+		}
+		int length = filter.length();
+		int keyEnd = 0;
+		while (keyEnd < length && isKeyChar(filter.charAt(keyEnd))) {
+			keyEnd++;
+		}
+		if (keyEnd == 0 || keyEnd == length) {
+			throw new RuntimeException("Invalid Filter format");
+		}
+		int operatorLength = operatorLength(filter, keyEnd);
+		int valueStart = keyEnd + operatorLength;
+		if (operatorLength == 0 || valueStart == length) {
+			throw new RuntimeException("Invalid Filter format");
+		}
+		for (int i = valueStart; i < length; i++) {
+			if (!isValueChar(filter.charAt(i))) {
+				throw new RuntimeException("Invalid Filter format");
+			}
+		}
+		return SearchCriteria.builder().key(filter.substring(0, keyEnd))
+				.operator(filter.substring(keyEnd, valueStart)).value(filter.substring(valueStart)).build();
+	}
+
+	/**
+	 * Length of the operator starting at the index, or 0 if there is none.
+	 *
+	 * @param filter the filter
+	 * @param index  the index
+	 * @return the operator length
+	 */
+	private static int operatorLength(String filter, int index) {
+		char c = filter.charAt(index);
+		char next = index + 1 < filter.length() ? filter.charAt(index + 1) : 0;
+		switch (c) {
+		case '<':
+		case '>':
+			return next == '=' ? 2 : 1;
+		case '!':
+			return next == '=' ? 2 : 0;
+		case '(':
+			return next == ')' ? 2 : 0;
+		case ':':
+		case '%':
+		case '-':
+		case '~':
+			return 1;
+		default:
+			return 0;
+		}
+	}
+
+	private static boolean isWordChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	private static boolean isKeyChar(char c) {
+		return isWordChar(c) || c == '.';
+	}
+
+	private static boolean isValueChar(char c) {
+		switch (c) {
+		case ' ':
+		case '\t':
+		case '\n':
+		case '\u000B':
+		case '\f':
+		case '\r':
+		case '(':
+		case ')':
+		case ',':
+		case '.':
+		case ':':
+		case '-':
+			return true;
+		default:
+			return isWordChar(c);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.abhicodes.querydsldynamicquery.predicate.FullTextExpressions;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tells whether the full-text indexes behind the <code>~</code> operator exist.
+ * Indexes are only used when the configured dialect registers the full-text
+ * match functions, so other databases keep the LIKE fallback. The indexes are
+ * created by the <code>db/mysql/V1__fulltext_indexes.sql</code> migration,
+ * never by the application.
+ */
+@Slf4j
+@Component
+public class FullTextIndexInitializer {
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Value("${app.search.fulltext.enabled:true}")
+	boolean enabled;
+
+	/**
+	 * Checks whether the full-text index exists, reading the schema only.
+	 *
+	 * @param table     the table
+	 * @param indexName the index name
+	 * @param columns   the columns, in index order
+	 * @return true, if the index can be used
+	 */
+	public boolean hasIndex(String table, String indexName, String... columns) {
+		if (!enabled || !isSupported(columns.length)) {
+			return false;
+		}
+		try {
+			Integer count = jdbcTemplate.queryForObject(
+					"select count(*) from information_schema.statistics where table_schema = database() "
+							+ "and table_name = ? and index_name = ?",
+					Integer.class, table, indexName);
+			if (count != null && count > 0) {
+				return true;
+			}
+			log.info("Full-text index {} on {} is missing, falling back to LIKE until db/mysql/V1__fulltext_indexes.sql "
+					+ "is applied", indexName, table);
+		} catch (DataAccessException e) {
+			log.warn("Full-text index {} on {} is unavailable, falling back to LIKE: {}", indexName, table,
+					e.getMessage());
+		}
+		return false;
+	}
+
+	private boolean isSupported(int columns) {
+		return columns <= FullTextExpressions.MAX_COLUMNS
+				&& entityManagerFactory.unwrap(SessionFactoryImplementor.class).getSqlFunctionRegistry()
+						.findSQLFunction(FullTextExpressions.FUNCTION_PREFIX + columns) != null;
+	}
+}
@@ -0,0 +1,549 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.MappingException;
+import org.hibernate.QueryException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.stereotype.Component;
+
+import com.abhicodes.querydsldynamicquery.predicate.EntityDescriptor;
+import com.abhicodes.querydsldynamicquery.predicate.EntityDescriptorRegistry;
+import com.abhicodes.querydsldynamicquery.predicate.FilterExpression;
+import com.abhicodes.querydsldynamicquery.predicate.FilterOperator;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.abhicodes.querydsldynamicquery.vo.IndexProposal;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Derives recommended indexes from the listings actually run. Each listing is
+ * reduced to its shape: the properties it requires to be equal, the properties
+ * it requires to be in a range and its sort, without values. Shapes are
+ * counted with their latency in a Space-Saving sketch of bounded size: when it
+ * is full, the least frequent shape is replaced and the newcomer inherits its
+ * count, so frequent shapes are never lost and counts are upper bounds.
+ * <p>
+ * A shape becomes a candidate index on the listed table with its equality
+ * columns first, then its sort columns, then one range column, then the
+ * primary key as the sort tie-breaker. Only columns of the listed table
+ * qualify, so filters on joined entities or through terms do not contribute.
+ * Candidates are ranked by the total time of their listings and checked
+ * against the existing indexes. With <code>app.query.index-advisor.explain</code>
+ * the slowest select of each candidate is sampled with its parameters and its
+ * plan shown by <code>EXPLAIN</code>; run that against a local copy of the
+ * database, not production. Recording takes a lock shared by all listings, so
+ * it only runs with <code>app.query.index-advisor.enabled</code>.
+ */
+@Slf4j
+@Component
+public class IndexAdvisor {
+
+	@Autowired
+	EntityDescriptorRegistry entityDescriptorRegistry;
+
+	@Autowired
+	FilterExpressionParser filterExpressionParser;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	DataSource dataSource;
+
+	private final boolean enabled;
+
+	private final int capacity;
+
+	private final boolean explain;
+
+	private final Map<Shape, Stats> shapes = new HashMap<>();
+
+	/**
+	 * Instantiates a new index advisor.
+	 *
+	 * @param enabled  whether listings are recorded
+	 * @param capacity the number of listing shapes tracked
+	 * @param explain  whether candidates are checked with EXPLAIN
+	 */
+	public IndexAdvisor(@Value("${app.query.index-advisor.enabled:false}") boolean enabled,
+			@Value("${app.query.index-advisor.capacity:256}") int capacity,
+			@Value("${app.query.index-advisor.explain:false}") boolean explain) {
+		this.enabled = enabled;
+		this.capacity = capacity;
+		this.explain = enabled && explain;
+	}
+
+	/**
+	 * Checks whether candidates are checked with EXPLAIN, so listings sample
+	 * their select.
+	 *
+	 * @return true, if explaining
+	 */
+	public boolean isExplain() {
+		return explain;
+	}
+
+	/**
+	 * Records a finished listing. Listings rejected before their filter was
+	 * parsed have no shape and are ignored, as are all listings while the advisor
+	 * is disabled.
+	 *
+	 * @param trace the listing trace
+	 */
+	void record(ListingTrace trace) {
+		if (!enabled || null == trace.getCriterias()) {
+			return;
+		}
+		Shape shape;
+		try {
+			shape = shape(trace.getEntity(), trace.getCriterias(), trace.getSort());
+		} catch (RuntimeException e) {
+			// an invalid filter fails the listing itself, it is no shape to index for
+			return;
+		}
+		long elapsed = trace.getElapsed();
+		synchronized (shapes) {
+			Stats stats = shapes.get(shape);
+			if (null == stats) {
+				long count = 0;
+				if (shapes.size() >= capacity) {
+					Shape evicted = Collections.min(shapes.entrySet(),
+							Comparator.comparingLong(e -> e.getValue().count)).getKey();
+					count = shapes.remove(evicted).count;
+				}
+				stats = new Stats(count);
+				shapes.put(shape, stats);
+			}
+			stats.add(elapsed, trace.getStatement(), trace.getParameters());
+		}
+	}
+
+	/**
+	 * Forgets all recorded listings.
+	 */
+	public void reset() {
+		synchronized (shapes) {
+			shapes.clear();
+		}
+	}
+
+	/**
+	 * Gets the proposed indexes, by the total time of the listings they would
+	 * serve, slowest first.
+	 *
+	 * @return the index proposals
+	 */
+	public List<IndexProposal> getProposals() {
+		Map<Shape, Stats> snapshot = new HashMap<>();
+		synchronized (shapes) {
+			shapes.forEach((shape, stats) -> snapshot.put(shape, stats.copy()));
+		}
+		SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+		Map<String, Candidate> candidates = new LinkedHashMap<>();
+		for (Map.Entry<Shape, Stats> entry : snapshot.entrySet()) {
+			Candidate candidate = candidate(sessionFactory, entry.getKey());
+			if (null != candidate) {
+				candidates.merge(candidate.getKey(), candidate, (a, b) -> a).add(entry.getKey(), entry.getValue());
+			}
+		}
+		List<Candidate> ranked = new ArrayList<>(candidates.values());
+		ranked.sort(Comparator.comparingLong((Candidate c) -> c.stats.total).reversed());
+		Map<String, List<List<String>>> existingIndexes = new HashMap<>();
+		List<IndexProposal> proposals = new ArrayList<>(ranked.size());
+		for (Candidate candidate : ranked) {
+			List<List<String>> existing = existingIndexes.computeIfAbsent(candidate.table, this::getIndexes);
+			proposals.add(candidate.toProposal(existing, explain ? this::explain : null));
+		}
+		return proposals;
+	}
+
+	private Shape shape(Class<?> entity, List<SearchCriteria> criterias, Sort sort) {
+		EntityDescriptor<?> descriptor = entityDescriptorRegistry.contains(entity)
+				? entityDescriptorRegistry.get(entity)
+				: null;
+		Set<String> equality = new TreeSet<>();
+		Set<String> range = new TreeSet<>();
+		for (SearchCriteria criteria : criterias) {
+			if (FilterExpression.KEY.equals(criteria.getKey())) {
+				// only criteria every match satisfies narrow an index scan
+				filterExpressionParser.parse(criteria.getValue()).forEachCriteria((c, required) -> {
+					if (required) {
+						classify(descriptor, c, equality, range);
+					}
+				});
+			} else {
+				classify(descriptor, criteria, equality, range);
+			}
+		}
+		List<String> orders = new ArrayList<>();
+		for (Order order : sort) {
+			orders.add(order.getProperty() + " " + order.getDirection());
+		}
+		return new Shape(entity, new ArrayList<>(equality), new ArrayList<>(range), orders);
+	}
+
+	private static void classify(EntityDescriptor<?> descriptor, SearchCriteria criteria, Set<String> equality,
+			Set<String> range) {
+		if (null != descriptor && null != descriptor.getTerm(criteria.getKey())) {
+			return;
+		}
+		String path = null == descriptor ? criteria.getKey() : descriptor.resolve(criteria.getKey());
+		switch (FilterOperator.of(criteria.getOperator())) {
+		case EQ:
+			equality.add(path);
+			break;
+		case GT:
+		case GOE:
+		case LT:
+		case LOE:
+		case BETWEEN:
+			range.add(path);
+			break;
+		default:
+			// like, full-text and exclusion matches are not served by a B-tree prefix
+		}
+	}
+
+	private static Candidate candidate(SessionFactoryImplementor sessionFactory, Shape shape) {
+		EntityPersister entityPersister = sessionFactory.getMetamodel().entityPersister(shape.entity);
+		if (!(entityPersister instanceof AbstractEntityPersister)) {
+			return null;
+		}
+		AbstractEntityPersister persister = (AbstractEntityPersister) entityPersister;
+		String id = persister.getIdentifierColumnNames()[0];
+		Set<String> columns = new LinkedHashSet<>();
+		for (String path : shape.equality) {
+			String column = column(sessionFactory, persister, path);
+			if (null != column) {
+				columns.add(column);
+			}
+		}
+		for (String order : shape.sort) {
+			String column = column(sessionFactory, persister, order.substring(0, order.indexOf(' ')));
+			if (null == column) {
+				// later sort columns are of no use once one is not in the index
+				break;
+			}
+			columns.add(column);
+		}
+		for (String path : shape.range) {
+			String column = column(sessionFactory, persister, path);
+			if (null != column) {
+				columns.add(column);
+				break;
+			}
+		}
+		if (!shape.sort.isEmpty()) {
+			columns.add(id);
+		}
+		if (columns.isEmpty() || Collections.singleton(id).equals(columns)) {
+			return null;
+		}
+		return new Candidate(persister.getTableName(), new ArrayList<>(columns));
+	}
+
+	/**
+	 * Gets the column of a property path of the entity table: a basic property,
+	 * or the id of a to-one association, which is its foreign key column.
+	 *
+	 * @param sessionFactory the session factory
+	 * @param persister      the persister of the entity
+	 * @param path           the property path
+	 * @return the column, or null if the path is not a column of the table
+	 */
+	private static String column(SessionFactoryImplementor sessionFactory, AbstractEntityPersister persister,
+			String path) {
+		String[] parts = path.split("\\.");
+		try {
+			if (1 == parts.length && parts[0].equals(persister.getIdentifierPropertyName())) {
+				return persister.getIdentifierColumnNames()[0];
+			}
+			Type type = persister.getPropertyType(parts[0]);
+			if (1 == parts.length && !type.isAssociationType() && !type.isComponentType()) {
+				String[] columns = persister.getPropertyColumnNames(parts[0]);
+				return 1 == columns.length ? columns[0] : null;
+			}
+			if (2 == parts.length && type.isEntityType()) {
+				EntityPersister target = sessionFactory.getMetamodel()
+						.entityPersister(((EntityType) type).getAssociatedEntityName());
+				String[] columns = persister.getPropertyColumnNames(parts[0]);
+				return parts[1].equals(target.getIdentifierPropertyName()) && 1 == columns.length ? columns[0]
+						: null;
+			}
+		} catch (QueryException | MappingException e) {
+			return null;
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the column lists of the existing indexes of the table, lower case.
+	 *
+	 * @param table the table
+	 * @return the indexes
+	 */
+	private List<List<String>> getIndexes(String table) {
+		Map<String, Map<Short, String>> indexes = new TreeMap<>();
+		try (Connection connection = dataSource.getConnection()) {
+			DatabaseMetaData metaData = connection.getMetaData();
+			String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+			try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, name, false, true)) {
+				while (rs.next()) {
+					String column = rs.getString("COLUMN_NAME");
+					if (null != rs.getString("INDEX_NAME") && null != column) {
+						indexes.computeIfAbsent(rs.getString("INDEX_NAME"), k -> new TreeMap<>())
+								.put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+					}
+				}
+			}
+		} catch (SQLException e) {
+			log.warn("Unable to read the indexes of {}: {}", table, e.getMessage());
+		}
+		List<List<String>> columns = new ArrayList<>();
+		indexes.values().forEach(index -> columns.add(new ArrayList<>(index.values())));
+		return columns;
+	}
+
+	/**
+	 * Runs EXPLAIN on a sampled select.
+	 *
+	 * @param statement  the select
+	 * @param parameters the parameter values
+	 * @return the plan rows, column label to value
+	 * @throws SQLException if the statement cannot be explained
+	 */
+	private List<Map<String, Object>> explain(String statement, List<Object> parameters) throws SQLException {
+		if (!statement.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+			throw new SQLException("Only selects are explained");
+		}
+		List<Map<String, Object>> rows = new ArrayList<>();
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement ps = connection.prepareStatement("explain " + statement)) {
+			for (int i = 0; i < parameters.size(); i++) {
+				ps.setObject(i + 1, parameters.get(i));
+			}
+			try (ResultSet rs = ps.executeQuery()) {
+				ResultSetMetaData metaData = rs.getMetaData();
+				while (rs.next()) {
+					Map<String, Object> row = new LinkedHashMap<>();
+					for (int i = 1; i <= metaData.getColumnCount(); i++) {
+						row.put(metaData.getColumnLabel(i), rs.getObject(i));
+					}
+					rows.add(row);
+				}
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Checks a MySQL plan for a full table scan or a filesort. Plans of other
+	 * databases have neither column and are not judged.
+	 *
+	 * @param rows the plan rows
+	 * @return true if any, false if none, null if unknown
+	 */
+	static Boolean isFullScanOrFilesort(List<Map<String, Object>> rows) {
+		Boolean scan = null;
+		for (Map<String, Object> row : rows) {
+			Map<String, Object> columns = new HashMap<>();
+			row.forEach((k, v) -> columns.put(k.toLowerCase(Locale.ROOT), v));
+			if (!columns.containsKey("type") || !columns.containsKey("extra")) {
+				continue;
+			}
+			scan = Boolean.TRUE.equals(scan) || "ALL".equals(columns.get("type"))
+					|| String.valueOf(columns.get("extra")).contains("filesort");
+		}
+		return scan;
+	}
+
+	/**
+	 * The values free shape of a listing.
+	 */
+	private static final class Shape {
+
+		private final Class<?> entity;
+
+		private final List<String> equality;
+
+		private final List<String> range;
+
+		private final List<String> sort;
+
+		private Shape(Class<?> entity, List<String> equality, List<String> range, List<String> sort) {
+			this.entity = entity;
+			this.equality = equality;
+			this.range = range;
+			this.sort = sort;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Shape)) {
+				return false;
+			}
+			Shape other = (Shape) o;
+			return entity == other.entity && equality.equals(other.equality) && range.equals(other.range)
+					&& sort.equals(other.sort);
+		}
+
+		@Override
+		public int hashCode() {
+			return ((entity.hashCode() * 31 + equality.hashCode()) * 31 + range.hashCode()) * 31 + sort.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return entity.getSimpleName() + " eq" + equality + " range" + range + " sort" + sort;
+		}
+	}
+
+	/**
+	 * The counters of one shape. The count is the sketch estimate, the timings
+	 * cover the listings actually observed since the shape entered the sketch.
+	 */
+	private static final class Stats {
+
+		private long count;
+
+		private long observed;
+
+		private long total;
+
+		private long max;
+
+		private String statement;
+
+		private List<Object> parameters;
+
+		private Stats(long count) {
+			this.count = count;
+		}
+
+		private void add(long elapsed, String statement, List<Object> parameters) {
+			count++;
+			observed++;
+			total += elapsed;
+			if (elapsed >= max) {
+				max = elapsed;
+				if (null != statement) {
+					this.statement = statement;
+					this.parameters = parameters;
+				}
+			}
+		}
+
+		private Stats copy() {
+			Stats copy = new Stats(count);
+			copy.observed = observed;
+			copy.total = total;
+			copy.max = max;
+			copy.statement = statement;
+			copy.parameters = parameters;
+			return copy;
+		}
+	}
+
+	/**
+	 * Runs EXPLAIN on a select with its parameters.
+	 */
+	@FunctionalInterface
+	private interface Explainer {
+
+		List<Map<String, Object>> explain(String statement, List<Object> parameters) throws SQLException;
+	}
+
+	/**
+	 * A candidate index and the shapes it would serve.
+	 */
+	private static final class Candidate {
+
+		private final String table;
+
+		private final List<String> columns;
+
+		private final List<String> signatures = new ArrayList<>();
+
+		private final Stats stats = new Stats(0);
+
+		private Candidate(String table, List<String> columns) {
+			this.table = table;
+			this.columns = columns;
+		}
+
+		private String getKey() {
+			return table + columns;
+		}
+
+		private Candidate add(Shape shape, Stats shapeStats) {
+			signatures.add(shape.toString());
+			stats.count += shapeStats.count;
+			stats.observed += shapeStats.observed;
+			stats.total += shapeStats.total;
+			if (shapeStats.max >= stats.max) {
+				stats.max = shapeStats.max;
+				if (null != shapeStats.statement) {
+					stats.statement = shapeStats.statement;
+					stats.parameters = shapeStats.parameters;
+				}
+			}
+			return this;
+		}
+
+		private IndexProposal toProposal(List<List<String>> existing, Explainer explainer) {
+			List<String> lowerColumns = new ArrayList<>(columns.size());
+			columns.forEach(c -> lowerColumns.add(c.toLowerCase(Locale.ROOT)));
+			String name = ("ix_" + table + "_" + String.join("_", columns)).toLowerCase(Locale.ROOT);
+			IndexProposal.IndexProposalBuilder proposal = IndexProposal.builder().table(table).columns(columns)
+					.ddl("create index " + name.substring(0, Math.min(64, name.length())) + " on " + table + " ("
+							+ String.join(", ", columns) + ")")
+					.existing(existing.stream().anyMatch(index -> index.size() >= lowerColumns.size()
+							&& index.subList(0, lowerColumns.size()).equals(lowerColumns)))
+					.count(stats.count).meanMillis(0 == stats.observed ? null : millis(stats.total) / stats.observed)
+					.maxMillis(millis(stats.max)).totalMillis(millis(stats.total)).signatures(signatures);
+			if (null != explainer && null != stats.statement) {
+				try {
+					List<Map<String, Object>> plan = explainer.explain(stats.statement, stats.parameters);
+					proposal.explain(plan).fullScanOrFilesort(isFullScanOrFilesort(plan));
+				} catch (SQLException e) {
+					proposal.explainError(e.getMessage());
+				}
+			}
+			return proposal.build();
+		}
+
+		private static double millis(long nanos) {
+			return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+		}
+	}
+}
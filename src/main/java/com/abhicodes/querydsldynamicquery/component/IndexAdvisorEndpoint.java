@@ -0,0 +1,35 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.abhicodes.querydsldynamicquery.vo.IndexProposal;
+
+/**
+ * Exposes the {@link IndexAdvisor} under <code>/actuator/indexadvisor</code>:
+ * GET lists the proposed indexes, DELETE forgets the recorded listings. Meant
+ * for local or diagnostic use, it is not exposed over HTTP unless added to
+ * <code>management.endpoints.web.exposure.include</code>.
+ */
+@Component
+@Endpoint(id = "indexadvisor")
+public class IndexAdvisorEndpoint {
+
+	@Autowired
+	IndexAdvisor indexAdvisor;
+
+	@ReadOperation
+	public List<IndexProposal> proposals() {
+		return indexAdvisor.getProposals();
+	}
+
+	@DeleteOperation
+	public void reset() {
+		indexAdvisor.reset();
+	}
+}
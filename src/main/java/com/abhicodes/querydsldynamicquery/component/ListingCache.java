@@ -0,0 +1,137 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Opt-in cache of listing results keyed by entity, normalized filter, page
+ * request and result variant. Entries are evicted by size and time to live and
+ * dropped wholesale by {@link CacheInvalidationListener} on any write to the
+ * entities a listing reads.
+ */
+@Component
+public class ListingCache {
+
+	private final boolean enabled;
+
+	private final Cache<String, Object> cache;
+
+	/**
+	 * Instantiates a new listing cache.
+	 *
+	 * @param enabled   whether results are cached at all
+	 * @param cacheSize the maximum number of cached results
+	 * @param ttl       the time to live of a result
+	 */
+	public ListingCache(@Value("${app.query.result-cache.enabled:false}") boolean enabled,
+			@Value("${app.query.result-cache.size:1000}") long cacheSize,
+			@Value("${app.query.result-cache.ttl:30s}") Duration ttl) {
+		this.enabled = enabled;
+		this.cache = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(ttl).build();
+	}
+
+	/**
+	 * Gets the cached result, loading it on a miss. When the cache is disabled
+	 * the loader is always called.
+	 *
+	 * @param <V>       the result type
+	 * @param entity    the entity
+	 * @param criterias the criterias
+	 * @param pageable  the page request, as customized for the entity
+	 * @param variant   what else shapes the result, e.g. the count strategy
+	 * @param loader    the loader
+	 * @return the result
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V get(Class<?> entity, List<SearchCriteria> criterias, Pageable pageable, Object variant,
+			Supplier<V> loader) {
+		if (!enabled) {
+			return loader.get();
+		}
+		return (V) cache.get(key(entity, criterias, pageable, variant), k -> loader.get());
+	}
+
+	/**
+	 * Gets the cached result without loading it.
+	 *
+	 * @param <V>       the result type
+	 * @param entity    the entity
+	 * @param criterias the criterias
+	 * @param pageable  the page request, as customized for the entity
+	 * @param variant   what else shapes the result
+	 * @return the result, or null on a miss or when the cache is disabled
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V getIfPresent(Class<?> entity, List<SearchCriteria> criterias, Pageable pageable, Object variant) {
+		return enabled ? (V) cache.getIfPresent(key(entity, criterias, pageable, variant)) : null;
+	}
+
+	/**
+	 * Caches a result loaded outside {@link #get}.
+	 *
+	 * @param entity    the entity
+	 * @param criterias the criterias
+	 * @param pageable  the page request, as customized for the entity
+	 * @param variant   what else shapes the result
+	 * @param result    the result
+	 */
+	public void put(Class<?> entity, List<SearchCriteria> criterias, Pageable pageable, Object variant,
+			Object result) {
+		if (enabled) {
+			cache.put(key(entity, criterias, pageable, variant), result);
+		}
+	}
+
+	/**
+	 * Gets the cached unpaged result, e.g. an aggregate, without loading it.
+	 *
+	 * @param <V>       the result type
+	 * @param entity    the entity
+	 * @param criterias the criterias
+	 * @param variant   what else shapes the result
+	 * @return the result, or null on a miss or when the cache is disabled
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V getIfPresent(Class<?> entity, List<SearchCriteria> criterias, Object variant) {
+		return enabled ? (V) cache.getIfPresent(key(entity, criterias, variant)) : null;
+	}
+
+	/**
+	 * Caches an unpaged result.
+	 *
+	 * @param entity    the entity
+	 * @param criterias the criterias
+	 * @param variant   what else shapes the result
+	 * @param result    the result
+	 */
+	public void put(Class<?> entity, List<SearchCriteria> criterias, Object variant, Object result) {
+		if (enabled) {
+			cache.put(key(entity, criterias, variant), result);
+		}
+	}
+
+	private static String key(Class<?> entity, List<SearchCriteria> criterias, Object variant) {
+		return entity.getName() + ':' + CountCache.normalize(criterias) + "::" + variant;
+	}
+
+	private static String key(Class<?> entity, List<SearchCriteria> criterias, Pageable pageable, Object variant) {
+		return entity.getName() + ':' + CountCache.normalize(criterias) + ':' + pageable.getPageNumber() + ':'
+				+ pageable.getPageSize() + ':' + pageable.getSort() + ':' + variant;
+	}
+
+	/**
+	 * Drops every cached result.
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+}
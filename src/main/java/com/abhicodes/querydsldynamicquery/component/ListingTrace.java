@@ -0,0 +1,214 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.Sort;
+
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+/**
+ * The phase timings and statement count of one listing, bound to the thread
+ * running it so the repository and the datasource proxy can report into it
+ * without passing it along. When sampling, the first statement of the select
+ * phase is kept with its parameters for the {@link IndexAdvisor}. Opened by
+ * {@link QueryMetrics#start} and recorded on close.
+ */
+public class ListingTrace implements AutoCloseable {
+
+	/**
+	 * The phases of a listing.
+	 */
+	public enum Phase {
+
+		/** Parsing, validating and optimizing the filter. */
+		PARSE,
+
+		/** Building the predicate. */
+		BUILD,
+
+		/** The data query. */
+		SELECT,
+
+		/** The count query. */
+		COUNT,
+
+		/** Mapping the entities to DTOs, including lazy loads. */
+		MAP
+	}
+
+	private static final ThreadLocal<ListingTrace> CURRENT = new ThreadLocal<>();
+
+	private final QueryMetrics metrics;
+
+	private final Class<?> entity;
+
+	private final boolean sampling;
+
+	private final ListingTrace previous;
+
+	private final long start = System.nanoTime();
+
+	private final Map<Phase, Long> durations = new EnumMap<>(Phase.class);
+
+	private List<SearchCriteria> criterias;
+
+	private Object predicate;
+
+	private int statements;
+
+	private Sort sort = Sort.unsorted();
+
+	private Phase phase;
+
+	private String statement;
+
+	private List<Object> parameters;
+
+	ListingTrace(QueryMetrics metrics, Class<?> entity, boolean sampling) {
+		this.metrics = metrics;
+		this.entity = entity;
+		this.sampling = sampling;
+		this.previous = CURRENT.get();
+		CURRENT.set(this);
+	}
+
+	/**
+	 * Times the work as a phase of the listing running on this thread. Without
+	 * one the work just runs.
+	 *
+	 * @param <V>   the result type
+	 * @param phase the phase
+	 * @param work  the work
+	 * @return the result
+	 */
+	public static <V> V time(Phase phase, Supplier<V> work) {
+		ListingTrace trace = CURRENT.get();
+		if (null == trace) {
+			return work.get();
+		}
+		long phaseStart = System.nanoTime();
+		Phase previousPhase = trace.phase;
+		trace.phase = phase;
+		try {
+			return work.get();
+		} finally {
+			trace.phase = previousPhase;
+			trace.durations.merge(phase, System.nanoTime() - phaseStart, Long::sum);
+		}
+	}
+
+	/**
+	 * Records the predicate of the listing running on this thread, for the slow
+	 * query log.
+	 *
+	 * @param predicate the predicate
+	 */
+	public static void describe(Object predicate) {
+		ListingTrace trace = CURRENT.get();
+		if (null != trace) {
+			trace.predicate = predicate;
+		}
+	}
+
+	/**
+	 * Counts a statement executed by the listing running on this thread.
+	 */
+	public static void statementExecuted() {
+		ListingTrace trace = CURRENT.get();
+		if (null != trace) {
+			trace.statements++;
+		}
+	}
+
+	/**
+	 * Checks whether the listing running on this thread wants the statement
+	 * being executed as its sample: the first one of its select phase.
+	 *
+	 * @return true, if sampling
+	 */
+	public static boolean isSampling() {
+		ListingTrace trace = CURRENT.get();
+		return null != trace && trace.sampling && Phase.SELECT == trace.phase && null == trace.statement;
+	}
+
+	/**
+	 * Keeps the statement as the sample of the listing running on this thread.
+	 *
+	 * @param statement  the SQL
+	 * @param parameters the parameter values, in order
+	 */
+	public static void sample(String statement, List<Object> parameters) {
+		ListingTrace trace = CURRENT.get();
+		if (null != trace) {
+			trace.statement = statement;
+			trace.parameters = parameters;
+		}
+	}
+
+	/**
+	 * Sets the sort the listing runs with, as property paths.
+	 *
+	 * @param sort the sort
+	 */
+	public void setSort(Sort sort) {
+		this.sort = sort;
+	}
+
+	/**
+	 * Sets the criterias the listing runs with, which tag its metrics.
+	 *
+	 * @param criterias the criterias
+	 */
+	public void setCriterias(List<SearchCriteria> criterias) {
+		this.criterias = criterias;
+	}
+
+	Class<?> getEntity() {
+		return entity;
+	}
+
+	List<SearchCriteria> getCriterias() {
+		return criterias;
+	}
+
+	Sort getSort() {
+		return sort;
+	}
+
+	String getStatement() {
+		return statement;
+	}
+
+	List<Object> getParameters() {
+		return parameters;
+	}
+
+	Object getPredicate() {
+		return predicate;
+	}
+
+	Map<Phase, Long> getDurations() {
+		return durations;
+	}
+
+	int getStatements() {
+		return statements;
+	}
+
+	long getElapsed() {
+		return System.nanoTime() - start;
+	}
+
+	@Override
+	public void close() {
+		if (null == previous) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+		metrics.record(this);
+	}
+}
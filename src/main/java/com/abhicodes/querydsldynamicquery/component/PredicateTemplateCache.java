@@ -0,0 +1,45 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abhicodes.querydsldynamicquery.predicate.PredicateTemplate;
+import com.abhicodes.querydsldynamicquery.utils.LruCache;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+/**
+ * Bounded cache of compiled {@link PredicateTemplate}s keyed by entity and
+ * filter signature.
+ */
+@Component
+public class PredicateTemplateCache {
+
+	private final LruCache<String, PredicateTemplate> cache;
+
+	/**
+	 * Instantiates a new predicate template cache.
+	 *
+	 * @param cacheSize the maximum number of cached templates
+	 */
+	public PredicateTemplateCache(@Value("${app.query.template-cache-size:256}") int cacheSize) {
+		this.cache = new LruCache<>(cacheSize);
+	}
+
+	/**
+	 * Gets the template for the signature of the criterias, compiling it on a
+	 * miss.
+	 *
+	 * @param entity    the entity
+	 * @param criterias the criterias
+	 * @param compiler  the compiler
+	 * @return the predicate template
+	 */
+	public PredicateTemplate get(Class<?> entity, List<SearchCriteria> criterias,
+			Function<List<SearchCriteria>, PredicateTemplate> compiler) {
+		String key = entity.getName() + ':' + PredicateTemplate.signature(criterias);
+		return cache.get(key, k -> compiler.apply(criterias));
+	}
+}
@@ -0,0 +1,172 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.servlet.http.HttpServletResponse;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.abhicodes.querydsldynamicquery.predicate.CriterionCost;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decides whether a filter may run, from the costs of its criteria. Filters
+ * without an expensive criterion always run; for the others the policy
+ * decides:
+ * <ul>
+ * <li><code>off</code>, run them as they are,</li>
+ * <li><code>timeout</code>, run them under a JDBC query timeout,</li>
+ * <li><code>require-indexed</code>, run them only with a co-filter served by an
+ * index, and reject them otherwise,</li>
+ * <li><code>reject</code>, reject them.</li>
+ * </ul>
+ * Each decision is counted as <code>listing.cost_guard</code> and reported in
+ * the <code>X-Query-Cost</code> response header.
+ */
+@Component
+public class QueryCostGuard {
+
+	public static final String HEADER = "X-Query-Cost";
+
+	/**
+	 * The decision on a filter.
+	 */
+	public enum Decision {
+
+		/** Run as is. */
+		ALLOW,
+
+		/** Run, narrowed by an indexed co-filter. */
+		COFILTERED,
+
+		/** Run under the query timeout. */
+		TIMEOUT,
+
+		/** Not run. */
+		REJECT
+	}
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	private final String policy;
+
+	private final int minTermLength;
+
+	private final Duration timeout;
+
+	/**
+	 * Instantiates a new query cost guard.
+	 *
+	 * @param policy        the policy for expensive filters
+	 * @param minTermLength the shortest selective prefix
+	 * @param timeout       the query timeout of the timeout policy
+	 */
+	public QueryCostGuard(@Value("${app.query.cost-guard.policy:timeout}") String policy,
+			@Value("${app.query.cost-guard.min-term-length:3}") int minTermLength,
+			@Value("${app.query.cost-guard.timeout:5s}") Duration timeout) {
+		this.policy = policy.trim().toLowerCase();
+		this.minTermLength = minTermLength;
+		this.timeout = timeout;
+		decide(List.of(CriterionCost.EXPENSIVE));
+	}
+
+	/**
+	 * Gets the shortest selective prefix.
+	 *
+	 * @return the min term length
+	 */
+	public int getMinTermLength() {
+		return minTermLength;
+	}
+
+	/**
+	 * Decides on a filter, throwing a bad request if it is rejected.
+	 *
+	 * @param entity the entity
+	 * @param costs  the costs of the filter criteria
+	 * @return the decision
+	 */
+	public Decision check(Class<?> entity, List<CriterionCost> costs) {
+		Decision decision = decide(costs);
+		meterRegistry.counter("listing.cost_guard", "entity", entity.getSimpleName(), "decision",
+				decision.name().toLowerCase()).increment();
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes instanceof ServletRequestAttributes) {
+			HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+			if (null != response) {
+				response.addHeader(HEADER, decision.name().toLowerCase());
+			}
+		}
+		if (Decision.REJECT == decision) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"Filter too expensive: add a filter on an indexed property, a full-text match or a prefix of at least "
+							+ minTermLength + " characters");
+		}
+		return decision;
+	}
+
+	/**
+	 * Applies the decision to the queries of the current transaction.
+	 *
+	 * @param decision the decision
+	 */
+	public void apply(Decision decision) {
+		if (Decision.TIMEOUT == decision) {
+			entityManager.setProperty(QueryHints.SPEC_HINT_TIMEOUT, (int) timeout.toMillis());
+		}
+	}
+
+	/**
+	 * Applies the decision to the queries of the current transaction, which must
+	 * also finish by the deadline: they run under a JDBC query timeout of the time
+	 * left, at least the one second JDBC can express.
+	 *
+	 * @param decision the decision
+	 * @param deadline the deadline, in {@link System#nanoTime()} units
+	 */
+	public void apply(Decision decision, long deadline) {
+		long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+		if (remaining <= 0) {
+			throw new RuntimeException("Query deadline passed");
+		}
+		if (Decision.TIMEOUT == decision) {
+			remaining = Math.min(remaining, timeout.toMillis());
+		}
+		entityManager.setProperty(QueryHints.SPEC_HINT_TIMEOUT, (int) Math.max(remaining, 1000));
+	}
+
+	Decision decide(List<CriterionCost> costs) {
+		if (!costs.contains(CriterionCost.EXPENSIVE)) {
+			return Decision.ALLOW;
+		}
+		switch (policy) {
+		case "off":
+			return Decision.ALLOW;
+		case "reject":
+			return Decision.REJECT;
+		case "require-indexed":
+			return costs.contains(CriterionCost.INDEXED) ? Decision.COFILTERED : Decision.REJECT;
+		case "timeout":
+			return Decision.TIMEOUT;
+		default:
+			throw new RuntimeException("Unsupported cost guard policy " + policy);
+		}
+	}
+}
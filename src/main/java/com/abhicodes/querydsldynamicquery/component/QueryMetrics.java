@@ -0,0 +1,138 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abhicodes.querydsldynamicquery.component.ListingTrace.Phase;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records listing traces as Micrometer meters, exposed through the Actuator
+ * metrics endpoint:
+ * <ul>
+ * <li><code>listing.phase</code>, a timer per phase,</li>
+ * <li><code>listing.duration</code>, a timer of the whole listing,</li>
+ * <li><code>listing.statements</code>, the statements executed per
+ * listing.</li>
+ * </ul>
+ * All are tagged by entity and filter signature, the sorted keys and operators
+ * without values. Only the first signatures seen get their own tag, later ones
+ * are tagged <code>other</code>, so clients cannot grow the registry without
+ * bound. Listings slower than the threshold are logged with their predicate.
+ * Every listing is also reported to the {@link IndexAdvisor}.
+ */
+@Slf4j
+@Component
+public class QueryMetrics {
+
+	static final String OTHER_SIGNATURE = "other";
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Autowired
+	IndexAdvisor indexAdvisor;
+
+	private final Duration slowThreshold;
+
+	private final int maxSignatures;
+
+	private final Set<String> signatures = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Instantiates a new query metrics.
+	 *
+	 * @param slowThreshold the duration from which a listing is logged as slow
+	 * @param maxSignatures the number of filter signatures tagged individually
+	 */
+	public QueryMetrics(@Value("${app.metrics.listing.slow-threshold:1s}") Duration slowThreshold,
+			@Value("${app.metrics.listing.max-signatures:200}") int maxSignatures) {
+		this.slowThreshold = slowThreshold;
+		this.maxSignatures = maxSignatures;
+	}
+
+	/**
+	 * Starts tracing a listing on this thread.
+	 *
+	 * @param entity the listed entity
+	 * @return the listing trace, to be closed when the listing is done
+	 */
+	public ListingTrace start(Class<?> entity) {
+		return new ListingTrace(this, entity, indexAdvisor.isExplain());
+	}
+
+	/**
+	 * Records the meters of a finished listing.
+	 *
+	 * @param trace the listing trace
+	 */
+	void record(ListingTrace trace) {
+		long elapsed = trace.getElapsed();
+		String entity = trace.getEntity().getSimpleName();
+		String signature = tag(signature(trace.getCriterias()));
+		for (Map.Entry<Phase, Long> phase : trace.getDurations().entrySet()) {
+			Timer.builder("listing.phase").tag("entity", entity).tag("signature", signature)
+					.tag("phase", phase.getKey().name().toLowerCase()).register(meterRegistry)
+					.record(phase.getValue(), TimeUnit.NANOSECONDS);
+		}
+		Timer.builder("listing.duration").tag("entity", entity).tag("signature", signature)
+				.register(meterRegistry).record(elapsed, TimeUnit.NANOSECONDS);
+		DistributionSummary.builder("listing.statements").tag("entity", entity).tag("signature", signature)
+				.register(meterRegistry).record(trace.getStatements());
+		indexAdvisor.record(trace);
+		if (elapsed >= slowThreshold.toNanos()) {
+			log.warn("Slow {} listing took {} ms with {} statements, phases {} ms, predicate: {}", entity,
+					TimeUnit.NANOSECONDS.toMillis(elapsed), trace.getStatements(),
+					trace.getDurations().entrySet().stream()
+							.collect(Collectors.toMap(e -> e.getKey().name().toLowerCase(),
+									e -> TimeUnit.NANOSECONDS.toMillis(e.getValue()))),
+					trace.getPredicate());
+		}
+	}
+
+	/**
+	 * Gets the filter signature: the sorted, distinct keys and operators.
+	 *
+	 * @param criterias the criterias, null if the filter was rejected
+	 * @return the signature
+	 */
+	static String signature(List<SearchCriteria> criterias) {
+		if (null == criterias) {
+			return "invalid";
+		}
+		if (criterias.isEmpty()) {
+			return "none";
+		}
+		Set<String> parts = new TreeSet<>();
+		for (SearchCriteria criteria : criterias) {
+			parts.add(criteria.getKey() + criteria.getOperator());
+		}
+		return String.join("&", parts);
+	}
+
+	private String tag(String signature) {
+		if (signatures.contains(signature)) {
+			return signature;
+		}
+		if (signatures.size() < maxSignatures) {
+			signatures.add(signature);
+			return signature;
+		}
+		return OTHER_SIGNATURE;
+	}
+}
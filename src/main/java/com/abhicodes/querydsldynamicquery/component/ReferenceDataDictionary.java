@@ -0,0 +1,163 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abhicodes.querydsldynamicquery.domain.UsersDTO;
+import com.abhicodes.querydsldynamicquery.entity.PostType;
+import com.abhicodes.querydsldynamicquery.entity.QPostType;
+import com.abhicodes.querydsldynamicquery.entity.QUsers;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.mapper.UsersMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.querydsl.jpa.impl.JPAQuery;
+
+/**
+ * Read-mostly, in-memory copy of the reference data a post listing shows. All
+ * post types are held in one immutable snapshot, reloaded on the first read
+ * after any post type changes. User summaries are held in a bounded cache and
+ * loaded in batches. Both are invalidated by {@link CacheInvalidationListener}.
+ */
+@Component
+public class ReferenceDataDictionary {
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Autowired
+	UsersMapper usersMapper;
+
+	private final boolean enabled;
+
+	private final Cache<Integer, UsersDTO> users;
+
+	private volatile Map<Integer, String> postTypes;
+
+	/**
+	 * Instantiates a new reference data dictionary.
+	 *
+	 * @param enabled   whether listings read references from the dictionary
+	 * @param usersSize the maximum number of cached user summaries
+	 * @param usersTtl  the time to live of a user summary
+	 */
+	public ReferenceDataDictionary(@Value("${app.query.reference-dictionary.enabled:false}") boolean enabled,
+			@Value("${app.query.reference-dictionary.users-size:10000}") long usersSize,
+			@Value("${app.query.reference-dictionary.users-ttl:10m}") Duration usersTtl) {
+		this.enabled = enabled;
+		this.users = Caffeine.newBuilder().maximumSize(usersSize).expireAfterWrite(usersTtl).build();
+	}
+
+	/**
+	 * Checks whether listings read references from the dictionary.
+	 *
+	 * @return true, if enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Gets the type name of the post type.
+	 *
+	 * @param id the post type id
+	 * @return the type, or null if unknown
+	 */
+	public String getPostType(Integer id) {
+		return postTypes().get(id);
+	}
+
+	/**
+	 * Gets the ids of the post types. A single type matches ignoring case and
+	 * several types match exactly, as the string equality filters do.
+	 *
+	 * @param types the types
+	 * @return the post type ids, empty if none match
+	 */
+	public List<Integer> getPostTypeIds(String... types) {
+		List<Integer> ids = new ArrayList<>();
+		postTypes().forEach((id, type) -> {
+			for (String candidate : types) {
+				if (types.length == 1 ? candidate.equalsIgnoreCase(type) : candidate.equals(type)) {
+					ids.add(id);
+					break;
+				}
+			}
+		});
+		return ids;
+	}
+
+	/**
+	 * Gets the user summaries, loading the missing ones in one query.
+	 *
+	 * @param ids the user ids
+	 * @return the user summaries by id
+	 */
+	public Map<Integer, UsersDTO> getUsers(Collection<Integer> ids) {
+		return users.getAll(ids, this::loadUsers);
+	}
+
+	/**
+	 * Gets the user summary.
+	 *
+	 * @param id the user id
+	 * @return the user summary, or null if unknown
+	 */
+	public UsersDTO getUser(Integer id) {
+		return getUsers(Collections.singleton(id)).get(id);
+	}
+
+	/**
+	 * Drops whatever the dictionary holds of the written entity.
+	 *
+	 * @param entity the entity
+	 */
+	public void invalidate(Object entity) {
+		if (entity instanceof PostType) {
+			postTypes = null;
+		} else if (entity instanceof Users) {
+			Integer id = ((Users) entity).getId();
+			if (null != id) {
+				users.invalidate(id);
+			}
+		}
+	}
+
+	private Map<Integer, String> postTypes() {
+		Map<Integer, String> snapshot = postTypes;
+		if (null == snapshot) {
+			QPostType postType = QPostType.postType;
+			Map<Integer, String> typesById = new HashMap<>();
+			for (PostType type : new JPAQuery<PostType>(entityManager).select(postType).from(postType).fetch()) {
+				typesById.put(type.getId(), type.getType());
+			}
+			snapshot = Collections.unmodifiableMap(typesById);
+			postTypes = snapshot;
+		}
+		return snapshot;
+	}
+
+	private Map<Integer, UsersDTO> loadUsers(Iterable<? extends Integer> ids) {
+		List<Integer> missing = new ArrayList<>();
+		ids.forEach(missing::add);
+		QUsers qusers = QUsers.users;
+		Map<Integer, UsersDTO> loaded = new HashMap<>();
+		for (Users user : new JPAQuery<Users>(entityManager).select(qusers).from(qusers)
+				.where(qusers.id.in(missing)).fetch()) {
+			loaded.put(user.getId(), usersMapper.toDTO(user));
+		}
+		return loaded;
+	}
+}
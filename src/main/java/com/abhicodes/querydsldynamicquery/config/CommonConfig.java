@@ -1,11 +1,28 @@
 package com.abhicodes.querydsldynamicquery.config;
 
-import org.modelmapper.Conditions;
-import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import com.abhicodes.querydsldynamicquery.component.FullTextIndexInitializer;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.PostComment;
+import com.abhicodes.querydsldynamicquery.entity.PostType;
+import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.abhicodes.querydsldynamicquery.entity.QPostComment;
+import com.abhicodes.querydsldynamicquery.entity.QPostType;
+import com.abhicodes.querydsldynamicquery.entity.QUsers;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.mapper.PostCommentMapper;
+import com.abhicodes.querydsldynamicquery.mapper.PostMapper;
+import com.abhicodes.querydsldynamicquery.mapper.UsersMapper;
+import com.abhicodes.querydsldynamicquery.predicate.EntityDescriptor;
+import com.abhicodes.querydsldynamicquery.predicate.EntityDescriptorRegistry;
+import com.abhicodes.querydsldynamicquery.predicate.PropertyMetadataRegistry;
+import com.abhicodes.querydsldynamicquery.repository.PostCommentRepository;
+import com.abhicodes.querydsldynamicquery.repository.PostRepository;
+import com.abhicodes.querydsldynamicquery.repository.UsersRepository;
+
 @Configuration
 public class CommonConfig {
 
@@ -15,10 +32,51 @@ public class CommonConfig {
 	}
 
 	@Bean
-	ModelMapper modelMapper() {
-		ModelMapper modelMapper = new ModelMapper();
-		modelMapper.getConfiguration().setPropertyCondition(Conditions.isNotNull());
-		return modelMapper;
+	PropertyMetadataRegistry propertyMetadataRegistry(FullTextIndexInitializer fullTextIndexInitializer) {
+		// primary keys, and the foreign keys MySQL indexes
+		PropertyMetadataRegistry registry = PropertyMetadataRegistry
+				.of(QPost.post, QUsers.users, QPostType.postType, QPostComment.postComment)
+				.withIndex(Post.class, "id", "author.id", "postType.id").withIndex(Users.class, "id")
+				.withIndex(PostType.class, "id").withIndex(PostComment.class, "id", "post.id");
+		if (fullTextIndexInitializer.hasIndex("abhi_posts", "ft_posts_title", "title")) {
+			registry = registry.withFullTextIndex(Post.class, "title");
+		}
+		if (fullTextIndexInitializer.hasIndex("abhi_users", "ft_users_term", "user_name", "email", "full_name")) {
+			registry = registry.withFullTextIndex(Users.class, "userName", "email", "fullName");
+		}
+		return registry;
+	}
+
+	@Bean
+	EntityDescriptorRegistry entityDescriptorRegistry(PropertyMetadataRegistry registry, PostRepository pr,
+			UsersRepository ur, PostCommentRepository pcr, PostMapper postMapper, UsersMapper usersMapper,
+			PostCommentMapper postCommentMapper) {
+		// the entities of /search/{entity}
+		QUsers users = QUsers.users;
+		return EntityDescriptorRegistry.of(postDescriptor().projection(postMapper::toDTO).executor(pr).build(registry),
+				EntityDescriptor.builder("users", Users.class).term("term", users.userName, users.email, users.fullName)
+						.filterable("id", "userName", "email", "fullName", "isActive")
+						.sortable("id", "userName", "fullName").projection(usersMapper::toDTO).executor(ur)
+						.build(registry),
+				EntityDescriptor.builder("comments", PostComment.class).alias("post", "post.id")
+						.filterable("id", "comments", "post", "post.title").sortable("id", "post")
+						.projection(postCommentMapper::toDTO).executor(pcr).build(registry));
+	}
+
+	/**
+	 * Gets the descriptor of posts as the hand-written listing sees them, without
+	 * projection and executor, so the benchmarks wire the same one.
+	 *
+	 * @return the builder
+	 */
+	public static EntityDescriptor.Builder<Post> postDescriptor() {
+		QPost post = QPost.post;
+		return EntityDescriptor.builder("posts", Post.class).alias("postType", "postType.id")
+				.alias("authorName", "author.fullName")
+				.term("author_term", post.author.userName, post.author.email, post.author.fullName)
+				.filterable("id", "title", "postType", "postType.type", "authorName", "author.userName",
+						"author.email", "author.fullName", "createdAt", "updatedAt", "comments.comments")
+				.sortable("id", "title", "authorName", "createdAt", "updatedAt");
 	}
 
 }
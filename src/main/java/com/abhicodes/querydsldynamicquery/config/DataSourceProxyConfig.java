@@ -0,0 +1,74 @@
+package com.abhicodes.querydsldynamicquery.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.abhicodes.querydsldynamicquery.component.ListingTrace;
+import com.zaxxer.hikari.HikariDataSource;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps every connection pool in a datasource-proxy that counts the statements
+ * of the listing running on the thread, hands it its select when it samples one
+ * for the index advisor and logs each statement at debug level
+ * under <code>net.ttddyy.dsproxy.listener</code>. Only the pools are wrapped,
+ * not the routing data sources in front of them, so no statement is counted
+ * twice.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.proxy.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+	@Bean
+	static BeanPostProcessor dataSourceProxyPostProcessor() {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof HikariDataSource)) {
+					return bean;
+				}
+				DataSource proxy = ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+						.logQueryBySlf4j(SLF4JLogLevel.DEBUG)
+						.afterQuery((execution, queries) -> {
+							ListingTrace.statementExecuted();
+							if (!queries.isEmpty() && ListingTrace.isSampling()) {
+								ListingTrace.sample(queries.get(0).getQuery(), getParameters(queries.get(0)));
+							}
+						}).build();
+				return proxy;
+			}
+		};
+	}
+
+	/**
+	 * Gets the values of the first parameter set of a query, by index.
+	 *
+	 * @param query the query
+	 * @return the values
+	 */
+	static List<Object> getParameters(QueryInfo query) {
+		List<Object> values = new ArrayList<>();
+		if (query.getParametersList().isEmpty()) {
+			return values;
+		}
+		List<ParameterSetOperation> operations = new ArrayList<>(query.getParametersList().get(0));
+		operations.sort(Comparator.comparing(o -> (Integer) o.getArgs()[0]));
+		for (ParameterSetOperation operation : operations) {
+			values.add(ParameterSetOperation.isSetNullParameterOperation(operation) ? null : operation.getArgs()[1]);
+		}
+		return values;
+	}
+}
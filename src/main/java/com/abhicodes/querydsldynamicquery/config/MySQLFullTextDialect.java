@@ -0,0 +1,27 @@
+package com.abhicodes.querydsldynamicquery.config;
+
+import org.hibernate.dialect.MySQL8Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+import com.abhicodes.querydsldynamicquery.predicate.FullTextExpressions;
+
+/**
+ * MySQL 8 dialect with <code>MATCH ... AGAINST</code> registered as
+ * <code>fulltext_match_N</code> for full-text indexes of N columns.
+ */
+public class MySQLFullTextDialect extends MySQL8Dialect {
+
+	public MySQLFullTextDialect() {
+		super();
+		for (int columns = 1; columns <= FullTextExpressions.MAX_COLUMNS; columns++) {
+			StringBuilder template = new StringBuilder("match(");
+			for (int i = 1; i <= columns; i++) {
+				template.append(i > 1 ? ", " : "").append('?').append(i);
+			}
+			template.append(") against (?").append(columns + 1).append(" in boolean mode)");
+			registerFunction(FullTextExpressions.FUNCTION_PREFIX + columns,
+					new SQLFunctionTemplate(StandardBasicTypes.DOUBLE, template.toString()));
+		}
+	}
+}
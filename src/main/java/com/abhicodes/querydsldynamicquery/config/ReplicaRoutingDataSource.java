@@ -0,0 +1,157 @@
+package com.abhicodes.querydsldynamicquery.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Routes connections of read-only transactions to the replica and everything
+ * else to the primary. The replica is only used while its last health check
+ * passed: it answered and, if a lag query is set, lagged no more than the
+ * tolerance. A replica that fails to hand out a connection is marked down and
+ * the primary is used instead. Wrap it in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so
+ * the connection is only taken once the transaction is marked read-only.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+	/** Lookup key of the primary data source. */
+	public static final String PRIMARY = "primary";
+
+	/** Lookup key of the replica data source. */
+	public static final String REPLICA = "replica";
+
+	private final DataSource replica;
+
+	private final Duration maxLag;
+
+	private final String lagQuery;
+
+	private final Duration checkInterval;
+
+	private ScheduledExecutorService checker;
+
+	private volatile boolean replicaAvailable;
+
+	/**
+	 * Instantiates a new replica routing data source.
+	 *
+	 * @param primary       the primary
+	 * @param replica       the replica
+	 * @param maxLag        the largest tolerated replica lag
+	 * @param lagQuery      the query returning the replica lag in seconds, or
+	 *                      empty to only check the replica answers
+	 * @param checkInterval the interval between health checks
+	 */
+	public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, String lagQuery,
+			Duration checkInterval) {
+		this.replica = replica;
+		this.maxLag = maxLag;
+		this.lagQuery = lagQuery;
+		this.checkInterval = checkInterval;
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(PRIMARY, primary);
+		targets.put(REPLICA, replica);
+		setTargetDataSources(targets);
+		setDefaultTargetDataSource(primary);
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		checkReplica();
+		checker = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "replica-health-check");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = checkInterval.toMillis();
+		checker.scheduleWithFixedDelay(this::checkReplica, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (null != checker) {
+			checker.shutdownNow();
+		}
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return replicaAvailable && TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA
+				: PRIMARY;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (REPLICA.equals(determineCurrentLookupKey())) {
+			try {
+				return replica.getConnection();
+			} catch (SQLException e) {
+				markReplicaDown(e.getMessage());
+			}
+		}
+		return getResolvedDefaultDataSource().getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return getResolvedDefaultDataSource().getConnection(username, password);
+	}
+
+	/**
+	 * Checks whether the replica answers within the lag tolerance.
+	 *
+	 * @return true, if the replica is used for read-only transactions
+	 */
+	public boolean checkReplica() {
+		try {
+			if (StringUtils.hasText(lagQuery)) {
+				Number lag = new JdbcTemplate(replica).queryForObject(lagQuery, Number.class);
+				if (null == lag || lag.doubleValue() * 1000 > maxLag.toMillis()) {
+					markReplicaDown("lag of " + lag + "s");
+					return false;
+				}
+			} else {
+				new JdbcTemplate(replica).execute((Connection con) -> con.isValid(1));
+			}
+			replicaAvailable = true;
+		} catch (DataAccessException e) {
+			markReplicaDown(e.getMessage());
+		}
+		return replicaAvailable;
+	}
+
+	/**
+	 * Checks whether read-only transactions are currently routed to the replica.
+	 *
+	 * @return true, if the replica is available
+	 */
+	public boolean isReplicaAvailable() {
+		return replicaAvailable;
+	}
+
+	private void markReplicaDown(String reason) {
+		if (replicaAvailable) {
+			log.warn("Routing reads to the primary, replica unavailable: {}", reason);
+		}
+		replicaAvailable = false;
+	}
+}
@@ -0,0 +1,81 @@
+package com.abhicodes.querydsldynamicquery.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs every request, and the blocking JPA calls it makes, on its own virtual
+ * thread instead of Tomcat's platform thread pool, with MVC async work such as
+ * exports on virtual threads as well. Tomcat's thread limit then no longer
+ * caps concurrent requests: the Hikari pool does, with requests waiting up to
+ * its connection timeout for a connection. Needs a Java 21 runtime; the
+ * executor is looked up reflectively so the build stays on Java 17, and on an
+ * older runtime the platform thread pool is kept with a warning.
+ * <p>
+ * A virtual thread blocking inside a {@code synchronized} block pins its
+ * carrier thread, and there are only as many carriers as processors.
+ * mysql-connector-java 8.0.x guards its socket reads and writes with
+ * synchronized monitors, and Hibernate 5 synchronizes parts of its session
+ * factory and statistics, so every running query can pin a carrier: under load
+ * the carriers, not the Hikari pool, become the cap. Check with
+ * {@code -Djdk.tracePinnedThreads=full}, which prints the stack of each pinned
+ * thread, before relying on this mode.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.web.execution-mode", havingValue = "virtual")
+public class VirtualThreadConfig implements WebMvcConfigurer, DisposableBean {
+
+	private final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+
+	@Bean
+	TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+		return protocolHandler -> {
+			if (null != executor) {
+				log.info("Running requests on virtual threads");
+				protocolHandler.setExecutor(executor);
+			}
+		};
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		if (null != executor) {
+			configurer.setTaskExecutor(new TaskExecutorAdapter(executor));
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (null != executor) {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Creates the virtual thread per task executor of the running JVM.
+	 *
+	 * @return the executor service, or null if the runtime has no virtual threads
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | UnsupportedOperationException e) {
+			log.warn("The virtual execution mode needs a Java 21 or later runtime, running on {}, keeping the platform "
+					+ "thread pool", System.getProperty("java.version"));
+			return null;
+		}
+	}
+}
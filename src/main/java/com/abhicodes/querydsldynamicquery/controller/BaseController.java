@@ -2,10 +2,13 @@ package com.abhicodes.querydsldynamicquery.controller;
 
 import org.springframework.beans.propertyeditors.StringArrayPropertyEditor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+import com.abhicodes.querydsldynamicquery.vo.CursorSlice;
 import com.abhicodes.querydsldynamicquery.vo.PageableResponse;
 
 /**
@@ -31,4 +34,35 @@ public class BaseController {
 				.build();
 	}
 
+	/**
+	 * Format page response, reporting the count strategy used. Slices fetched
+	 * without a count report whether there is a next page instead of totals.
+	 *
+	 * @param slice         the slice
+	 * @param countStrategy the count strategy
+	 * @return the pageable response
+	 */
+	public PageableResponse formatPageResponse(Slice<?> slice, CountStrategy countStrategy) {
+		if (slice instanceof Page) {
+			Page<?> page = (Page<?>) slice;
+			return PageableResponse.builder().currentPage(page.getNumber() + 1).pageSize(page.getSize())
+					.totalPages(page.getTotalPages()).totalElements(page.getTotalElements())
+					.countStrategy(countStrategy.name().toLowerCase()).results(page.getContent()).build();
+		}
+		return PageableResponse.builder().currentPage(slice.getNumber() + 1).pageSize(slice.getSize())
+				.hasNext(slice.hasNext()).countStrategy(countStrategy.name().toLowerCase())
+				.results(slice.getContent()).build();
+	}
+
+	/**
+	 * Format keyset page response.
+	 *
+	 * @param slice the slice
+	 * @return the pageable response
+	 */
+	public PageableResponse formatCursorResponse(CursorSlice<?> slice) {
+		return PageableResponse.builder().pageSize(slice.getSize()).hasNext(slice.isHasNext())
+				.nextCursor(slice.getNextCursor()).results(slice.getContent()).build();
+	}
+
 }
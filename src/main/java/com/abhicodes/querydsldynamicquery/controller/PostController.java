@@ -1,16 +1,35 @@
 package com.abhicodes.querydsldynamicquery.controller;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard.Decision;
 import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.repository.PostProjection;
+import com.abhicodes.querydsldynamicquery.serviceimpl.PostBatchService;
+import com.abhicodes.querydsldynamicquery.serviceimpl.PostFacetService;
 import com.abhicodes.querydsldynamicquery.serviceimpl.PostService;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+import com.abhicodes.querydsldynamicquery.utils.ExportFormat;
+import com.abhicodes.querydsldynamicquery.utils.PostUtils;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.abhicodes.querydsldynamicquery.vo.BatchQuery;
+import com.abhicodes.querydsldynamicquery.vo.FacetResult;
 import com.abhicodes.querydsldynamicquery.vo.PageableResponse;
 
 @RestController
@@ -19,12 +38,113 @@ public class PostController extends BaseController {
 	@Autowired
 	PostService ps;
 
+	@Autowired
+	PostBatchService pbs;
+
+	@Autowired
+	PostFacetService pfs;
+
+	/**
+	 * Gets the posts. When the cursor parameter is present (empty for the first
+	 * page) keyset pagination is used and the page number is ignored. Otherwise
+	 * the count parameter selects exact, none or cached counting. The where
+	 * parameter takes a boolean filter expression, e.g.
+	 * <code>(postType:1 OR postType:2) AND NOT title%draft</code>, ANDed with the
+	 * filters. The fields parameter selects a sparse fieldset, e.g.
+	 * <code>id,title,author</code>, of page listings.
+	 *
+	 * @param pageable the pageable
+	 * @param filter   the filter
+	 * @param where    the boolean filter expression
+	 * @param fields   the fields
+	 * @param cursor   the cursor
+	 * @param count    the count strategy
+	 * @return the pageable response
+	 */
 	@GetMapping("/all-posts")
-	public PageableResponse getAllPosts(@SortDefault(sort = "updatedAt", direction = Direction.DESC) Pageable pageable,
-			@RequestParam(required = false) String[] filter) {
+	public PageableResponse getAllPosts(
+			@SortDefault(sort = PostUtils.DEFAULT_SORT, direction = Direction.DESC) Pageable pageable,
+			@RequestParam(required = false) String[] filter, @RequestParam(required = false) String where,
+			@RequestParam(required = false) String[] fields, @RequestParam(required = false) String cursor,
+			@RequestParam(required = false) String count) {
+
+		PostProjection projection = PostProjection.of(fields);
+		if (null != cursor) {
+			if (null != projection) {
+				throw new RuntimeException("Fields are not supported with cursor pagination");
+			}
+			return formatCursorResponse(ps.getPostKeysetListing(filter, where, pageable, cursor));
+		}
+		CountStrategy countStrategy = ps.getCountStrategy(CountStrategy.of(count));
+		if (null != projection) {
+			return formatPageResponse(ps.getPostListing(filter, where, projection, pageable, countStrategy),
+					countStrategy);
+		}
+		Slice<PostDTO> pcq = ps.getPostListing(filter, where, pageable, countStrategy);
+		return formatPageResponse(pcq, countStrategy);
+
+	}
+
+	/**
+	 * Gets several named post listings in one request. The listings run
+	 * concurrently and are returned by name, each formatted as by
+	 * {@link #getAllPosts}. Keyset cursors are not supported here.
+	 *
+	 * @param queries the queries
+	 * @return the pageable responses by query name
+	 */
+	@PostMapping("/batch-posts")
+	public Map<String, PageableResponse> getBatchPosts(@RequestBody List<BatchQuery> queries) {
+
+		Map<String, Slice<PostDTO>> listings = pbs.getPostListings(queries);
+		Map<String, PageableResponse> response = new LinkedHashMap<>();
+		for (BatchQuery query : queries) {
+			response.put(query.getName(), formatPageResponse(listings.get(query.getName()),
+					ps.getCountStrategy(CountStrategy.of(query.getCount()))));
+		}
+		return response;
+	}
+
+	/**
+	 * Gets facet counts of the posts matching the filter, e.g.
+	 * <code>facet=postType,author,month</code>, optionally with the minimum,
+	 * maximum and average of numeric properties per bucket, e.g.
+	 * <code>stat=id</code>.
+	 *
+	 * @param filter the filter
+	 * @param where  the boolean filter expression
+	 * @param facet  the facets
+	 * @param stat   the numeric properties to aggregate
+	 * @return the buckets by facet
+	 */
+	@GetMapping("/post-facets")
+	public Map<String, FacetResult> getPostFacets(@RequestParam(required = false) String[] filter,
+			@RequestParam(required = false) String where, @RequestParam String[] facet,
+			@RequestParam(required = false) String[] stat) {
+
+		return pfs.getPostFacets(filter, where, facet, stat);
+	}
 
-		Page<PostDTO> pcq = ps.getPostListing(filter, pageable);
-		return formatPageResponse(pcq);
+	/**
+	 * Streams all posts matching the filter as NDJSON or CSV.
+	 *
+	 * @param pageable the pageable, for the sort only
+	 * @param filter   the filter
+	 * @param where    the boolean filter expression
+	 * @param format   the format, ndjson or csv
+	 * @return the response entity
+	 */
+	@GetMapping("/export-posts")
+	public ResponseEntity<StreamingResponseBody> exportPosts(
+			@SortDefault(sort = PostUtils.DEFAULT_SORT, direction = Direction.DESC) Pageable pageable,
+			@RequestParam(required = false) String[] filter, @RequestParam(required = false) String where,
+			@RequestParam(defaultValue = "ndjson") String format) {
 
+		ExportFormat exportFormat = ExportFormat.of(format);
+		List<SearchCriteria> criteria = ps.getSearchCriteria(filter, where);
+		Decision decision = ps.guard(criteria);
+		return ResponseEntity.ok().contentType(exportFormat.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=posts." + exportFormat.getExtension())
+				.body(out -> ps.exportPosts(criteria, pageable, exportFormat, decision, out));
 	}
 }
@@ -0,0 +1,45 @@
+package com.abhicodes.querydsldynamicquery.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.web.SortDefault;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.abhicodes.querydsldynamicquery.serviceimpl.SearchService;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+import com.abhicodes.querydsldynamicquery.vo.PageableResponse;
+
+@RestController
+public class SearchController extends BaseController {
+
+	@Autowired
+	SearchService ss;
+
+	/**
+	 * Searches an entity, <code>posts</code>, <code>users</code> or
+	 * <code>comments</code>, with the filter and where parameters of
+	 * {@link PostController#getAllPosts}. Only the keys the entity whitelists can
+	 * be filtered and sorted on. The count parameter selects exact, none or
+	 * cached counting of posts; the other entities are always counted.
+	 *
+	 * @param entity   the entity name
+	 * @param pageable the pageable
+	 * @param filter   the filter
+	 * @param where    the boolean filter expression
+	 * @param count    the count strategy
+	 * @return the pageable response
+	 */
+	@GetMapping("/search/{entity}")
+	public PageableResponse search(@PathVariable String entity,
+			@SortDefault(sort = "id", direction = Direction.DESC) Pageable pageable,
+			@RequestParam(required = false) String[] filter, @RequestParam(required = false) String where,
+			@RequestParam(required = false) String count) {
+
+		CountStrategy countStrategy = ss.getCountStrategy(entity, CountStrategy.of(count));
+		return formatPageResponse(ss.search(entity, filter, where, pageable, countStrategy), countStrategy);
+	}
+}
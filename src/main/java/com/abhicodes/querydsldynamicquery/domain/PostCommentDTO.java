@@ -0,0 +1,15 @@
+package com.abhicodes.querydsldynamicquery.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.Data;
+
+@Data
+@JsonInclude(Include.NON_NULL)
+public class PostCommentDTO {
+
+	private Long id;
+	private String comments;
+	private Integer postId;
+}
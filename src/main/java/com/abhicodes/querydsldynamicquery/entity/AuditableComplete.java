@@ -12,12 +12,13 @@ import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import com.abhicodes.querydsldynamicquery.component.CacheInvalidationListener;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import lombok.Data;
 
 @MappedSuperclass
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({ AuditingEntityListener.class, CacheInvalidationListener.class })
 @Data
 public class AuditableComplete {
 
@@ -0,0 +1,20 @@
+package com.abhicodes.querydsldynamicquery.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import com.abhicodes.querydsldynamicquery.domain.PostCommentDTO;
+import com.abhicodes.querydsldynamicquery.entity.PostComment;
+
+/**
+ * Compile time generated {@link PostComment} to {@link PostCommentDTO} mapper.
+ * The post is referenced by id only, leaving its proxy uninitialized.
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface PostCommentMapper {
+
+	@Mapping(target = "postId", source = "post.id")
+	PostCommentDTO toDTO(PostComment postComment);
+
+}
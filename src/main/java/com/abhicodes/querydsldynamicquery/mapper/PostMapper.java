@@ -0,0 +1,32 @@
+package com.abhicodes.querydsldynamicquery.mapper;
+
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+
+/**
+ * Compile time generated {@link Post} to {@link PostDTO} mapper. The DTO is
+ * always new, so null source properties are left null in it.
+ */
+@Mapper(componentModel = "spring", uses = UsersMapper.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface PostMapper {
+
+	@Mapping(target = "postType", source = "postType.type")
+	PostDTO toDTO(Post post);
+
+	/**
+	 * Maps the post without author and post type, leaving their proxies
+	 * uninitialized. They are filled from the reference data dictionary.
+	 *
+	 * @param post the post
+	 * @return the post DTO
+	 */
+	@Mapping(target = "author", ignore = true)
+	@Mapping(target = "postType", ignore = true)
+	PostDTO toListingDTO(Post post);
+
+}
@@ -0,0 +1,18 @@
+package com.abhicodes.querydsldynamicquery.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import com.abhicodes.querydsldynamicquery.domain.UsersDTO;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+
+/**
+ * Compile time generated {@link Users} to {@link UsersDTO} mapper. The DTO is
+ * always new, so null source properties are left null in it.
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface UsersMapper {
+
+	UsersDTO toDTO(Users users);
+
+}
@@ -0,0 +1,54 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.querydsl.core.support.FetchableQueryBase;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A cached {@link PredicateTemplate} expression with the values of the
+ * current request bound to its parameters.
+ */
+@Getter
+@AllArgsConstructor
+public class BoundPredicate {
+
+	private final BooleanExpression expression;
+
+	private final Map<Param<?>, Object> bindings;
+
+	/**
+	 * Wraps an expression without parameters.
+	 *
+	 * @param expression the expression
+	 * @return the bound predicate
+	 */
+	public static BoundPredicate of(BooleanExpression expression) {
+		return new BoundPredicate(expression, Collections.emptyMap());
+	}
+
+	/**
+	 * Sets the bound values on the query.
+	 *
+	 * @param <Q>   the query type
+	 * @param query the query
+	 * @return the query
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public <Q extends FetchableQueryBase<?, ?>> Q bind(Q query) {
+		for (Map.Entry<Param<?>, Object> binding : bindings.entrySet()) {
+			((FetchableQueryBase) query).set((Param) binding.getKey(), binding.getValue());
+		}
+		return query;
+	}
+
+	@Override
+	public String toString() {
+		return bindings.isEmpty() ? String.valueOf(expression) : expression + " " + bindings;
+	}
+}
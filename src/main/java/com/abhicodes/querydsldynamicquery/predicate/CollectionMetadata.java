@@ -0,0 +1,46 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.EntityPathBase;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.JPAExpressions;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A <code>@OneToMany</code> collection of an entity, filtered through a
+ * correlated <code>EXISTS</code> subquery on its elements rather than a join,
+ * so a parent matches once however many of its elements match.
+ */
+@Getter
+@AllArgsConstructor
+public class CollectionMetadata {
+
+	/** The collection property of the parent. */
+	private final String key;
+
+	/** The parent root path. */
+	private final EntityPathBase<?> root;
+
+	/** The element root path. */
+	private final EntityPathBase<?> elementRoot;
+
+	/** The path from an element back to its parent, the mapped by side. */
+	private final Path<?> backReference;
+
+	/**
+	 * Gets the predicate matching parents with at least one element satisfying
+	 * the element predicate.
+	 *
+	 * @param elementPredicate the predicate on the element root
+	 * @return the boolean expression
+	 */
+	public BooleanExpression exists(Predicate elementPredicate) {
+		return JPAExpressions.selectOne().from(elementRoot)
+				.where(Expressions.booleanOperation(Ops.EQ, backReference, root), elementPredicate).exists();
+	}
+}
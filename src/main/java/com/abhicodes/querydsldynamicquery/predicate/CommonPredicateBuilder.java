@@ -10,6 +10,7 @@ import java.util.stream.Collectors;
 import org.springframework.util.CollectionUtils;
 
 import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.Expressions;
 
@@ -22,7 +23,7 @@ public class CommonPredicateBuilder<T> {
 
 	private final Class<T> t;
 
-	private final String entityVariable;
+	private final PropertyMetadataRegistry registry;
 
 	private List<SearchCriteria> criterias;
 
@@ -31,11 +32,12 @@ public class CommonPredicateBuilder<T> {
 	/**
 	 * Instantiates a new common predicate builder.
 	 *
-	 * @param t the t
+	 * @param t        the t
+	 * @param registry the property metadata registry
 	 */
-	public CommonPredicateBuilder(Class<T> t) {
+	public CommonPredicateBuilder(Class<T> t, PropertyMetadataRegistry registry) {
 		this.t = t;
-		this.entityVariable = getEntityVariable(t.getSimpleName());
+		this.registry = registry;
 		this.criterias = new ArrayList<>();
 		this.replaceKeyMap = new HashMap<>();
 	}
@@ -78,34 +80,36 @@ public class CommonPredicateBuilder<T> {
 	}
 
 	/**
-	 * Builds the.
+	 * Classifies the cost of each criterion, in criteria order, for the cost
+	 * guard that runs before the predicate is built.
+	 *
+	 * @param minTermLength the shortest selective prefix
+	 * @return the criterion costs
+	 */
+	public List<CriterionCost> classify(int minTermLength) {
+		return criterias.stream()
+				.map(c -> CriterionCost.classify(registry, t, replaceKeyMap.getOrDefault(c.getKey(), c.getKey()),
+						FilterOperator.of(c.getOperator()), c.getValue(), minTermLength))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Builds the predicate, the criteria ANDed as a balanced tree without any
+	 * seed. With nothing to filter on the result is the always true expression.
 	 *
 	 * @return the boolean expression
 	 */
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public BooleanExpression build() {
-		BooleanExpression booleanExpression = Expressions.asBoolean(true).isTrue();
 		if (!CollectionUtils.isEmpty(criterias)) {
 			List<BooleanExpression> predicates = criterias.stream()
-					.map(c -> new CommonPredicate(t, entityVariable).getPredicate(
+					.map(c -> new CommonPredicate(t, registry).getPredicate(
 							replaceKeyMap.getOrDefault(c.getKey(), c.getKey()), c.getOperator(), c.getValue()))
 					.filter(Objects::nonNull).collect(Collectors.toList());
-			for (BooleanExpression predicate : predicates) {
-				booleanExpression = booleanExpression.and(predicate);
+			if (!predicates.isEmpty()) {
+				return FilterExpression.balanced(Ops.AND, predicates);
 			}
 		}
-		return booleanExpression;
-	}
-
-	/**
-	 * Gets the entity variable.
-	 *
-	 * @param simpleClassName the simple class name
-	 * @return the entity variable
-	 */
-	private static String getEntityVariable(String simpleClassName) {
-		char[] c = simpleClassName.toCharArray();
-		c[0] = Character.toLowerCase(c[0]);
-		return new String(c);
+		return Expressions.asBoolean(true).isTrue();
 	}
-}
\ No newline at end of file
+}
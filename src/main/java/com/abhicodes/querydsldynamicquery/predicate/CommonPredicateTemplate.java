@@ -0,0 +1,87 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.core.types.dsl.StringPath;
+
+/**
+ * Compiles a criterion shape (key, operator, value arity) into a
+ * {@link CriterionTemplate}. Mirrors {@link CommonPredicate}, but with bind
+ * parameters in place of the literal values.
+ *
+ * @param <T> the generic type
+ */
+public class CommonPredicateTemplate<T> {
+
+	private final Class<? extends T> type;
+	private final PropertyMetadataRegistry registry;
+
+	/**
+	 * Instantiates a new common predicate template.
+	 *
+	 * @param type     the type
+	 * @param registry the property metadata registry
+	 */
+	public CommonPredicateTemplate(Class<? extends T> type, PropertyMetadataRegistry registry) {
+		this.type = type;
+		this.registry = registry;
+	}
+
+	/**
+	 * Gets the criterion template.
+	 *
+	 * @param key      the key
+	 * @param operator the operator
+	 * @param arity    the number of comma separated values
+	 * @return the criterion template
+	 */
+	public CriterionTemplate getTemplate(String key, String operator, int arity) {
+		return getTemplate(key, FilterOperator.of(operator), arity);
+	}
+
+	/**
+	 * Gets the criterion template. Values bound to LIKE parameters are escaped, as
+	 * QueryDSL only escapes literal constants. Operators matching the whole value
+	 * bind it as one term, commas included.
+	 *
+	 * @param key      the key
+	 * @param operator the operator
+	 * @param arity    the number of comma separated values
+	 * @return the criterion template
+	 */
+	public CriterionTemplate getTemplate(String key, FilterOperator operator, int arity) {
+		PropertyMetadata metadata = registry.get(type, key);
+		TypeHandler<?> handler = metadata.getHandler(key);
+		int count = operator.isLike() ? 1 : arity;
+		handler.checkSupported(key, operator, count);
+		if (FilterOperator.MATCH == operator && registry.hasFullTextIndex(type, key)) {
+			Param<String> term = new Param<>(String.class);
+			return new CriterionTemplate(
+					metadata.wrap(FullTextExpressions.match(term, (StringPath) metadata.getPath())),
+					new Param<?>[] { term }, v -> new Object[] { FullTextExpressions.toBooleanMode(v) });
+		}
+		Param<?>[] params = new Param<?>[handler.getBindCount(operator, count)];
+		for (int i = 0; i < params.length; i++) {
+			params[i] = new Param<>(handler.getValueType());
+		}
+		return new CriterionTemplate(metadata.wrap(handler.create(metadata.getPath(), operator, params)), params,
+				operator.isLike() ? v -> new Object[] { escapeLike(v) } : v -> handler.bind(key, operator, v));
+	}
+
+	/**
+	 * Escapes LIKE wildcards with the JPQL escape character used by QueryDSL.
+	 *
+	 * @param value the value
+	 * @return the escaped value
+	 */
+	public static String escapeLike(String value) {
+		StringBuilder sb = new StringBuilder(value.length() + 4);
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '!' || c == '%' || c == '_') {
+				sb.append('!');
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+}
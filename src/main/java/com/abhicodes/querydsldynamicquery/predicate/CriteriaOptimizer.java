@@ -0,0 +1,359 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+/**
+ * Rewrites the criteria of one filter into an equivalent, canonical form before
+ * predicates are built. Criteria are ANDed, so per key:
+ * <ul>
+ * <li>exact duplicates are dropped,</li>
+ * <li>equality filters are intersected into one IN list,</li>
+ * <li>ranges are intersected into one bound or BETWEEN, and equality and
+ * exclusion values are checked against them,</li>
+ * <li>an empty intersection marks the whole filter unsatisfiable.</li>
+ * </ul>
+ * Keys, operators and values come out sorted, so equal filters produce equal
+ * queries whatever order they were given in. Values are parsed, compared and
+ * written back by the {@link TypeHandler} of the property type. Keys of unknown
+ * type and operators a type does not support are passed through unchanged.
+ */
+public class CriteriaOptimizer {
+
+	private static final Comparator<SearchCriteria> CANONICAL_ORDER = Comparator
+			.comparing(SearchCriteria::getKey).thenComparing(SearchCriteria::getOperator)
+			.thenComparing(SearchCriteria::getValue);
+
+	/** Successors of the discrete value types, null past the largest value. */
+	private static final Map<Class<?>, UnaryOperator<?>> NEXT = Map.of(
+			Integer.class, (UnaryOperator<Integer>) v -> v == Integer.MAX_VALUE ? null : v + 1,
+			Long.class, (UnaryOperator<Long>) v -> v == Long.MAX_VALUE ? null : v + 1,
+			LocalDate.class, (UnaryOperator<LocalDate>) v -> v.plusDays(1),
+			LocalDateTime.class, (UnaryOperator<LocalDateTime>) v -> v.plusDays(1));
+
+	/** Predecessors of the discrete value types, null past the smallest value. */
+	private static final Map<Class<?>, UnaryOperator<?>> PREVIOUS = Map.of(
+			Integer.class, (UnaryOperator<Integer>) v -> v == Integer.MIN_VALUE ? null : v - 1,
+			Long.class, (UnaryOperator<Long>) v -> v == Long.MIN_VALUE ? null : v - 1,
+			LocalDate.class, (UnaryOperator<LocalDate>) v -> v.minusDays(1),
+			LocalDateTime.class, (UnaryOperator<LocalDateTime>) v -> v.minusDays(1));
+
+	private final Function<String, Class<?>> typeResolver;
+
+	/**
+	 * Instantiates a new criteria optimizer.
+	 *
+	 * @param typeResolver resolves a key to its property type, or null if unknown
+	 */
+	public CriteriaOptimizer(Function<String, Class<?>> typeResolver) {
+		this.typeResolver = typeResolver;
+	}
+
+	/**
+	 * Optimizes the criterias.
+	 *
+	 * @param criterias the criterias
+	 * @return the optimized criteria
+	 */
+	public OptimizedCriteria optimize(List<SearchCriteria> criterias) {
+		Map<String, List<SearchCriteria>> byKey = new TreeMap<>();
+		for (SearchCriteria criteria : criterias) {
+			byKey.computeIfAbsent(criteria.getKey(), k -> new ArrayList<>()).add(criteria);
+		}
+		List<SearchCriteria> optimized = new ArrayList<>(criterias.size());
+		for (Map.Entry<String, List<SearchCriteria>> entry : byKey.entrySet()) {
+			List<SearchCriteria> merged = merge(entry.getKey(), distinct(entry.getValue()));
+			if (null == merged) {
+				return OptimizedCriteria.unsatisfiable();
+			}
+			optimized.addAll(merged);
+		}
+		return OptimizedCriteria.of(optimized);
+	}
+
+	/**
+	 * Merges the criteria of one key.
+	 *
+	 * @param key       the key
+	 * @param criterias the distinct criterias of the key, in canonical order
+	 * @return the merged criterias, or null if they cannot all hold
+	 */
+	private List<SearchCriteria> merge(String key, List<SearchCriteria> criterias) {
+		Class<?> type = typeResolver.apply(key);
+		TypeHandler<?> handler = null == type ? null : TypeHandlerRegistry.get(type);
+		if (null == handler) {
+			return criterias;
+		}
+		try {
+			if (String.class == handler.getValueType()) {
+				// a single equality value matches ignoring case, so values are compared lower cased
+				return allOperators(criterias, ":") && criterias.stream().noneMatch(c -> c.getValue().contains(","))
+						&& criterias.stream().map(c -> c.getValue().toLowerCase()).distinct().count() > 1 ? null
+								: criterias;
+			}
+			if (!Comparable.class.isAssignableFrom(handler.getValueType())) {
+				return criterias;
+			}
+			return mergeRange(key, handler, criterias);
+		} catch (RuntimeException e) {
+			// malformed values are left for the predicate builder to report
+			return criterias;
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static List<SearchCriteria> mergeRange(String key, TypeHandler<?> handler,
+			List<SearchCriteria> criterias) {
+		Class<?> valueType = handler.getValueType();
+		return new RangeMerger(key, handler, NEXT.get(valueType), PREVIOUS.get(valueType),
+				handler instanceof LocalDateTimeTypeHandler).merge(criterias);
+	}
+
+	private static boolean allOperators(List<SearchCriteria> criterias, String operator) {
+		return criterias.stream().allMatch(c -> operator.equals(c.getOperator()));
+	}
+
+	private static List<SearchCriteria> distinct(List<SearchCriteria> criterias) {
+		Set<SearchCriteria> distinct = new TreeSet<>(CANONICAL_ORDER);
+		distinct.addAll(criterias);
+		return new ArrayList<>(distinct);
+	}
+
+	private static SearchCriteria criteria(String key, String operator, String value) {
+		return SearchCriteria.builder().key(key).operator(operator).value(value).build();
+	}
+
+	/**
+	 * Intersects equality, exclusion and range criteria over an ordered value
+	 * type. Discrete types turn exclusive bounds into inclusive ones, so two
+	 * bounds always collapse into a BETWEEN.
+	 *
+	 * @param <V> the value type
+	 */
+	private static final class RangeMerger<V extends Comparable<? super V>> {
+
+		private final String key;
+
+		private final TypeHandler<V> handler;
+
+		private final UnaryOperator<V> next;
+
+		private final UnaryOperator<V> previous;
+
+		private final boolean dayGranular;
+
+		private V lower;
+
+		private boolean lowerInclusive = true;
+
+		private V upper;
+
+		private boolean upperInclusive = true;
+
+		private Set<V> equal;
+
+		private final Set<V> notEqual = new TreeSet<>();
+
+		/**
+		 * Instantiates a new range merger.
+		 *
+		 * @param key         the key
+		 * @param handler     the type handler, parsing, checking and formatting the
+		 *                    values
+		 * @param next        the successor of a value, null for continuous types
+		 * @param previous    the predecessor of a value, null for continuous types
+		 * @param dayGranular whether equality matches a whole day, as for date time
+		 *                    properties, rather than a value
+		 */
+		private RangeMerger(String key, TypeHandler<V> handler, UnaryOperator<V> next, UnaryOperator<V> previous,
+				boolean dayGranular) {
+			this.key = key;
+			this.handler = handler;
+			this.next = next;
+			this.previous = previous;
+			this.dayGranular = dayGranular;
+		}
+
+		/**
+		 * Merges the criterias.
+		 *
+		 * @param criterias the criterias
+		 * @return the merged criterias, or null if they cannot all hold
+		 */
+		private List<SearchCriteria> merge(List<SearchCriteria> criterias) {
+			for (SearchCriteria criteria : criterias) {
+				if (!add(criteria)) {
+					return criterias;
+				}
+			}
+			if (null != lower && null != upper) {
+				int cmp = lower.compareTo(upper);
+				if (cmp > 0 || cmp == 0 && !(lowerInclusive && upperInclusive)) {
+					return null;
+				}
+			}
+			List<SearchCriteria> merged = new ArrayList<>(2);
+			if (null != equal) {
+				List<V> values = equal.stream().filter(v -> inRange(v) && !notEqual.contains(v))
+						.collect(Collectors.toList());
+				if (values.isEmpty()) {
+					return null;
+				}
+				merged.add(criteria(key, ":", join(values)));
+				return merged;
+			}
+			if (null != lower && null != upper && lowerInclusive && upperInclusive) {
+				if (lower.compareTo(upper) == 0) {
+					if (notEqual.contains(lower)) {
+						return null;
+					}
+					merged.add(criteria(key, ":", handler.format(lower)));
+				} else {
+					merged.add(criteria(key, "()", handler.format(lower) + "," + handler.format(upper)));
+				}
+			} else {
+				if (null != lower) {
+					merged.add(criteria(key, lowerInclusive ? ">=" : ">", handler.format(lower)));
+				}
+				if (null != upper) {
+					merged.add(criteria(key, upperInclusive ? "<=" : "<", handler.format(upper)));
+				}
+			}
+			List<V> excluded = notEqual.stream().filter(this::inRange).collect(Collectors.toList());
+			if (!excluded.isEmpty()) {
+				merged.add(criteria(key, "!=", join(excluded)));
+			}
+			merged.sort(CANONICAL_ORDER);
+			return merged;
+		}
+
+		/**
+		 * Adds the criteria to the intersection.
+		 *
+		 * @param criteria the criteria
+		 * @return false, if the operator is not supported for this type
+		 */
+		private boolean add(SearchCriteria criteria) {
+			FilterOperator operator = FilterOperator.of(criteria.getOperator());
+			String[] values = operator.split(criteria.getValue());
+			if (!handler.supports(operator, values.length)) {
+				return false;
+			}
+			switch (operator) {
+			case EQ:
+				if (dayGranular) {
+					if (values.length != 1) {
+						return false;
+					}
+					V day = handler.parse(values[0]);
+					return lower(day, true) && upper(day, true);
+				}
+				Set<V> parsed = parse(values);
+				if (null == equal) {
+					equal = parsed;
+				} else {
+					equal.retainAll(parsed);
+				}
+				return true;
+			case NE:
+				notEqual.addAll(parse(values));
+				return true;
+			case BETWEEN:
+				return lower(handler.parse(values[0]), true) && upper(handler.parse(values[1]), true);
+			case GT:
+				return lower(handler.parse(values[0]), false);
+			case GOE:
+				return lower(handler.parse(values[0]), true);
+			case LT:
+				return upper(handler.parse(values[0]), false);
+			case LOE:
+				return upper(handler.parse(values[0]), true);
+			default:
+				return false;
+			}
+		}
+
+		private boolean lower(V value, boolean inclusive) {
+			if (!inclusive && null != next) {
+				value = next.apply(value);
+				inclusive = true;
+				if (null == value) {
+					// past the largest value, left for the database to answer
+					return false;
+				}
+			}
+			if (null == lower) {
+				lower = value;
+				lowerInclusive = inclusive;
+			} else {
+				int cmp = value.compareTo(lower);
+				if (cmp > 0 || cmp == 0 && !inclusive) {
+					lower = value;
+					lowerInclusive = inclusive;
+				}
+			}
+			return true;
+		}
+
+		private boolean upper(V value, boolean inclusive) {
+			if (!inclusive && null != previous) {
+				value = previous.apply(value);
+				inclusive = true;
+				if (null == value) {
+					return false;
+				}
+			}
+			if (null == upper) {
+				upper = value;
+				upperInclusive = inclusive;
+			} else {
+				int cmp = value.compareTo(upper);
+				if (cmp < 0 || cmp == 0 && !inclusive) {
+					upper = value;
+					upperInclusive = inclusive;
+				}
+			}
+			return true;
+		}
+
+		private boolean inRange(V value) {
+			if (null != lower) {
+				int cmp = value.compareTo(lower);
+				if (cmp < 0 || cmp == 0 && !lowerInclusive) {
+					return false;
+				}
+			}
+			if (null != upper) {
+				int cmp = value.compareTo(upper);
+				if (cmp > 0 || cmp == 0 && !upperInclusive) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private Set<V> parse(String[] values) {
+			Set<V> parsed = new TreeSet<>();
+			for (String value : values) {
+				parsed.add(handler.parse(value));
+			}
+			return parsed;
+		}
+
+		private String join(List<V> values) {
+			return values.stream().map(handler::format).collect(Collectors.joining(","));
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+/**
+ * How a criterion is expected to be evaluated by the database, from the
+ * indexes the {@link PropertyMetadataRegistry} knows of.
+ */
+public enum CriterionCost {
+
+	/** Served by a B-tree or full-text index. */
+	INDEXED,
+
+	/** Checked row by row, but cheaply, e.g. equality on an unindexed column. */
+	SCAN,
+
+	/**
+	 * A scan of every row with a costly match per row: a leading wildcard LIKE,
+	 * or a prefix too short to be selective.
+	 */
+	EXPENSIVE;
+
+	/**
+	 * Classifies a criterion.
+	 *
+	 * @param registry      the property metadata registry
+	 * @param entity        the entity
+	 * @param key           the property
+	 * @param operator      the operator
+	 * @param value         the value
+	 * @param minTermLength the shortest selective prefix
+	 * @return the criterion cost
+	 */
+	public static CriterionCost classify(PropertyMetadataRegistry registry, Class<?> entity, String key,
+			FilterOperator operator, String value, int minTermLength) {
+		boolean indexed = registry.isIndexed(entity, key);
+		boolean string = String.class == registry.get(entity, key).getType();
+		switch (operator) {
+		case MATCH:
+			return registry.hasFullTextIndex(entity, key) ? INDEXED : EXPENSIVE;
+		case CONTAINS:
+			return EXPENSIVE;
+		case STARTS_WITH:
+			// the prefix is matched as lower(column) like lower(?), an index on the column is of no use
+			return value.trim().length() < minTermLength ? EXPENSIVE : SCAN;
+		case NE:
+			return SCAN;
+		case EQ:
+			// a single string value is compared ignoring case, which no plain index serves
+			return indexed && !(string && FilterOperator.EQ.split(value).length == 1) ? INDEXED : SCAN;
+		default:
+			return indexed ? INDEXED : SCAN;
+		}
+	}
+}
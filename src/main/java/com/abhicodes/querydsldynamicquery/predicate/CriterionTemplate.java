@@ -0,0 +1,24 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.util.function.Function;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A single criterion compiled against bind parameters, together with the
+ * conversion of a raw filter value into the values of those parameters.
+ */
+@Getter
+@AllArgsConstructor
+public class CriterionTemplate {
+
+	private final BooleanExpression expression;
+
+	private final Param<?>[] params;
+
+	private final Function<String, Object[]> binder;
+}
@@ -0,0 +1,474 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.core.types.dsl.StringPath;
+
+/**
+ * Everything the generic search needs to know of one entity: filter key
+ * aliases, virtual term keys matching several string columns, the filterable
+ * and sortable whitelists, the projection of results and the repository that
+ * runs the queries. Descriptors are immutable and checked against the
+ * {@link PropertyMetadataRegistry} when built, so a misconfigured key fails at
+ * startup and resolving a key per request is a hash lookup.
+ *
+ * @param <T> the entity type
+ */
+public class EntityDescriptor<T> {
+
+	private final String name;
+
+	private final Class<T> type;
+
+	private final PropertyMetadataRegistry registry;
+
+	private final Map<String, String> aliases;
+
+	private final Map<String, Term> terms;
+
+	private final Set<String> filterable;
+
+	private final Set<String> sortable;
+
+	private final Function<? super T, ?> projection;
+
+	private final QuerydslPredicateExecutor<T> executor;
+
+	private final CommonPredicate<T> predicate;
+
+	private EntityDescriptor(Builder<T> builder, PropertyMetadataRegistry registry) {
+		this.name = builder.name;
+		this.type = builder.type;
+		this.registry = registry;
+		this.aliases = Collections.unmodifiableMap(builder.aliases);
+		this.terms = Collections.unmodifiableMap(builder.terms);
+		this.filterable = Collections.unmodifiableSet(builder.filterable);
+		this.sortable = Collections.unmodifiableSet(builder.sortable);
+		this.projection = builder.projection;
+		this.executor = builder.executor;
+		this.predicate = new CommonPredicate<>(type, registry);
+	}
+
+	/**
+	 * Starts a descriptor of the entity.
+	 *
+	 * @param <T>  the entity type
+	 * @param name the name the entity is searched by
+	 * @param type the entity type
+	 * @return the builder
+	 */
+	public static <T> Builder<T> builder(String name, Class<T> type) {
+		return new Builder<>(name, type);
+	}
+
+	/**
+	 * Gets the name.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the entity type.
+	 *
+	 * @return the type
+	 */
+	public Class<T> getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the filter and sort key aliases, key to property path.
+	 *
+	 * @return the aliases
+	 */
+	public Map<String, String> getAliases() {
+		return aliases;
+	}
+
+	/**
+	 * Gets the term of the key.
+	 *
+	 * @param key the key
+	 * @return the term, or null if the key is not a term
+	 */
+	public Term getTerm(String key) {
+		return terms.get(key);
+	}
+
+	/**
+	 * Gets the projection of an entity into its response.
+	 *
+	 * @return the projection
+	 */
+	public Function<? super T, ?> getProjection() {
+		return projection;
+	}
+
+	/**
+	 * Gets the executor of the search queries.
+	 *
+	 * @return the executor
+	 */
+	public QuerydslPredicateExecutor<T> getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Resolves an alias to its property path.
+	 *
+	 * @param key the key
+	 * @return the property path
+	 */
+	public String resolve(String key) {
+		return aliases.getOrDefault(key, key);
+	}
+
+	/**
+	 * Gets the type of the property a filter key stands for, as the
+	 * {@link CriteriaOptimizer} types keys. Terms, collection elements and
+	 * unknown keys are untyped.
+	 *
+	 * @param key the key
+	 * @return the type, or null
+	 */
+	public Class<?> getPropertyType(String key) {
+		String path = resolve(key);
+		if (terms.containsKey(key) || !registry.contains(type, path)) {
+			return null;
+		}
+		PropertyMetadata metadata = registry.get(type, path);
+		return null == metadata.getCollection() ? metadata.getType() : null;
+	}
+
+	/**
+	 * Validates a criteria against the whitelist and the type of its property.
+	 *
+	 * @param criteria the criteria
+	 */
+	public void validate(SearchCriteria criteria) {
+		FilterOperator operator = FilterOperator.of(criteria.getOperator());
+		Term term = terms.get(criteria.getKey());
+		if (null != term) {
+			term.validate(operator, criteria.getValue());
+			return;
+		}
+		if (!filterable.contains(criteria.getKey())) {
+			throw new RuntimeException("Unsupported filter key " + criteria.getKey() + " for " + name);
+		}
+		String key = resolve(criteria.getKey());
+		registry.get(type, key).getHandler(key).bind(key, operator, criteria.getValue());
+	}
+
+	/**
+	 * Validates the sort against the sortable whitelist.
+	 *
+	 * @param sort the sort
+	 */
+	public void validate(Sort sort) {
+		for (Order order : sort) {
+			if (!sortable.contains(order.getProperty())) {
+				throw new RuntimeException("Unsupported sort key " + order.getProperty() + " for " + name);
+			}
+		}
+	}
+
+	/**
+	 * Gets the predicate of a validated criteria.
+	 *
+	 * @param criteria the criteria
+	 * @return the predicate
+	 */
+	public BooleanExpression getPredicate(SearchCriteria criteria) {
+		FilterOperator operator = FilterOperator.of(criteria.getOperator());
+		Term term = terms.get(criteria.getKey());
+		if (null != term) {
+			return term.getPredicate(operator, criteria.getValue(), registry);
+		}
+		return predicate.getPredicate(resolve(criteria.getKey()), operator, criteria.getValue());
+	}
+
+	/**
+	 * Classifies the cost of a validated criteria for the cost guard.
+	 *
+	 * @param criteria      the criteria
+	 * @param minTermLength the shortest selective prefix
+	 * @return the criterion cost
+	 */
+	public CriterionCost classify(SearchCriteria criteria, int minTermLength) {
+		FilterOperator operator = FilterOperator.of(criteria.getOperator());
+		Term term = terms.get(criteria.getKey());
+		if (null != term) {
+			return term.classify(operator, registry);
+		}
+		return CriterionCost.classify(registry, type, resolve(criteria.getKey()), operator, criteria.getValue(),
+				minTermLength);
+	}
+
+	/**
+	 * A virtual filter key matching any of several string columns, e.g. a
+	 * search term over the user name, email and full name of the author. The
+	 * columns are matched with a full-text index when the registry knows of one
+	 * on exactly them, otherwise each with a contains match.
+	 */
+	public static final class Term {
+
+		private static final Set<FilterOperator> OPERATORS = EnumSet.of(FilterOperator.EQ, FilterOperator.CONTAINS,
+				FilterOperator.MATCH);
+
+		private final String key;
+
+		private final StringPath[] paths;
+
+		private final Class<?> indexEntity;
+
+		private final String[] indexKeys;
+
+		private Term(String key, StringPath[] paths) {
+			if (0 == paths.length) {
+				throw new RuntimeException("Term " + key + " has no columns");
+			}
+			Path<?> parent = paths[0].getMetadata().getParent();
+			this.key = key;
+			this.paths = paths;
+			this.indexEntity = parent.getType();
+			this.indexKeys = new String[paths.length];
+			for (int i = 0; i < paths.length; i++) {
+				if (!parent.equals(paths[i].getMetadata().getParent())) {
+					throw new RuntimeException("Term " + key + " spans several entities");
+				}
+				indexKeys[i] = paths[i].getMetadata().getName();
+			}
+		}
+
+		/**
+		 * Gets the matched columns.
+		 *
+		 * @return the paths
+		 */
+		public StringPath[] getPaths() {
+			return paths.clone();
+		}
+
+		/**
+		 * Checks whether the operator is a full-text search backed by an index on
+		 * all columns of the term.
+		 *
+		 * @param operator the operator
+		 * @param registry the property metadata registry
+		 * @return true, if full-text
+		 */
+		public boolean isFullText(FilterOperator operator, PropertyMetadataRegistry registry) {
+			return FilterOperator.MATCH == operator && registry.hasFullTextIndex(indexEntity, indexKeys);
+		}
+
+		/**
+		 * Validates the operator, a term is only matched as a whole, and the value,
+		 * a full-text term must hold a word.
+		 *
+		 * @param operator the operator
+		 * @param value    the value
+		 */
+		public void validate(FilterOperator operator, String value) {
+			if (!OPERATORS.contains(operator)) {
+				throw new RuntimeException(
+						"Unsupported operator " + operator.getSymbol() + " for filter key " + key);
+			}
+			if (FilterOperator.MATCH == operator && FullTextExpressions.toBooleanMode(value).isEmpty()) {
+				throw new RuntimeException("Invalid value " + value + " for filter key " + key);
+			}
+		}
+
+		/**
+		 * Gets the predicate.
+		 *
+		 * @param operator the operator
+		 * @param value    the value
+		 * @param registry the property metadata registry
+		 * @return the predicate
+		 */
+		public BooleanExpression getPredicate(FilterOperator operator, String value,
+				PropertyMetadataRegistry registry) {
+			if (isFullText(operator, registry)) {
+				return FullTextExpressions.match(value, paths);
+			}
+			BooleanExpression predicate = paths[0].containsIgnoreCase(value);
+			for (int i = 1; i < paths.length; i++) {
+				predicate = predicate.or(paths[i].containsIgnoreCase(value));
+			}
+			return predicate;
+		}
+
+		/**
+		 * Gets the predicate as a template with the term as its parameter.
+		 *
+		 * @param operator the operator
+		 * @param registry the property metadata registry
+		 * @return the criterion template
+		 */
+		public CriterionTemplate getTemplate(FilterOperator operator, PropertyMetadataRegistry registry) {
+			Param<String> term = new Param<>(String.class);
+			if (isFullText(operator, registry)) {
+				return new CriterionTemplate(FullTextExpressions.match(term, paths), new Param<?>[] { term },
+						v -> new Object[] { FullTextExpressions.toBooleanMode(v) });
+			}
+			BooleanExpression predicate = paths[0].containsIgnoreCase(term);
+			for (int i = 1; i < paths.length; i++) {
+				predicate = predicate.or(paths[i].containsIgnoreCase(term));
+			}
+			return new CriterionTemplate(predicate, new Param<?>[] { term },
+					v -> new Object[] { CommonPredicateTemplate.escapeLike(v) });
+		}
+
+		/**
+		 * Classifies the cost: a contains match on every column unless their
+		 * full-text index serves it.
+		 *
+		 * @param operator the operator
+		 * @param registry the property metadata registry
+		 * @return the criterion cost
+		 */
+		public CriterionCost classify(FilterOperator operator, PropertyMetadataRegistry registry) {
+			return isFullText(operator, registry) ? CriterionCost.INDEXED : CriterionCost.EXPENSIVE;
+		}
+	}
+
+	/**
+	 * The builder of an entity descriptor.
+	 *
+	 * @param <T> the entity type
+	 */
+	public static final class Builder<T> {
+
+		private final String name;
+
+		private final Class<T> type;
+
+		private final Map<String, String> aliases = new LinkedHashMap<>();
+
+		private final Map<String, Term> terms = new LinkedHashMap<>();
+
+		private final Set<String> filterable = new LinkedHashSet<>();
+
+		private final Set<String> sortable = new LinkedHashSet<>();
+
+		private Function<? super T, ?> projection;
+
+		private QuerydslPredicateExecutor<T> executor;
+
+		private Builder(String name, Class<T> type) {
+			this.name = name;
+			this.type = type;
+		}
+
+		/**
+		 * Adds a filter and sort key standing for a property path.
+		 *
+		 * @param key  the key
+		 * @param path the property path
+		 * @return the builder
+		 */
+		public Builder<T> alias(String key, String path) {
+			aliases.put(key, path);
+			return this;
+		}
+
+		/**
+		 * Adds a term key matching any of the columns, which must belong to one
+		 * entity.
+		 *
+		 * @param key   the key
+		 * @param paths the columns
+		 * @return the builder
+		 */
+		public Builder<T> term(String key, StringPath... paths) {
+			terms.put(key, new Term(key, paths));
+			return this;
+		}
+
+		/**
+		 * Whitelists filter keys, property paths or aliases.
+		 *
+		 * @param keys the keys
+		 * @return the builder
+		 */
+		public Builder<T> filterable(String... keys) {
+			filterable.addAll(Arrays.asList(keys));
+			return this;
+		}
+
+		/**
+		 * Whitelists sort keys, property paths or aliases.
+		 *
+		 * @param keys the keys
+		 * @return the builder
+		 */
+		public Builder<T> sortable(String... keys) {
+			sortable.addAll(Arrays.asList(keys));
+			return this;
+		}
+
+		/**
+		 * Sets the projection of an entity into its response.
+		 *
+		 * @param projection the projection
+		 * @return the builder
+		 */
+		public Builder<T> projection(Function<? super T, ?> projection) {
+			this.projection = projection;
+			return this;
+		}
+
+		/**
+		 * Sets the executor of the search queries.
+		 *
+		 * @param executor the executor
+		 * @return the builder
+		 */
+		public Builder<T> executor(QuerydslPredicateExecutor<T> executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Builds the descriptor, checking every key against the registry.
+		 *
+		 * @param registry the property metadata registry
+		 * @return the entity descriptor
+		 */
+		public EntityDescriptor<T> build(PropertyMetadataRegistry registry) {
+			if (null == projection || null == executor) {
+				throw new RuntimeException("Entity " + name + " has no projection or executor");
+			}
+			for (String key : filterable) {
+				if (terms.containsKey(key) || !registry.contains(type, aliases.getOrDefault(key, key))) {
+					throw new RuntimeException("Unknown filter key " + key + " for " + name);
+				}
+			}
+			for (String key : sortable) {
+				String path = aliases.getOrDefault(key, key);
+				if (!registry.contains(type, path) || null != registry.get(type, path).getCollection()) {
+					throw new RuntimeException("Unknown sort key " + key + " for " + name);
+				}
+			}
+			return new EntityDescriptor<>(this, registry);
+		}
+	}
+}
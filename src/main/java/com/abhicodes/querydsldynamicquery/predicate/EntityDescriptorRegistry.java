@@ -0,0 +1,91 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable registry of the searchable entities, by name and by type, see
+ * {@link EntityDescriptor}.
+ */
+public class EntityDescriptorRegistry {
+
+	private final Map<String, EntityDescriptor<?>> byName;
+
+	private final Map<Class<?>, EntityDescriptor<?>> byType;
+
+	private EntityDescriptorRegistry(Map<String, EntityDescriptor<?>> byName,
+			Map<Class<?>, EntityDescriptor<?>> byType) {
+		this.byName = byName;
+		this.byType = byType;
+	}
+
+	/**
+	 * Builds the registry of the descriptors.
+	 *
+	 * @param descriptors the entity descriptors
+	 * @return the entity descriptor registry
+	 */
+	public static EntityDescriptorRegistry of(EntityDescriptor<?>... descriptors) {
+		Map<String, EntityDescriptor<?>> byName = new LinkedHashMap<>();
+		Map<Class<?>, EntityDescriptor<?>> byType = new HashMap<>();
+		for (EntityDescriptor<?> descriptor : descriptors) {
+			if (null != byName.put(descriptor.getName(), descriptor)
+					|| null != byType.put(descriptor.getType(), descriptor)) {
+				throw new RuntimeException("Entity " + descriptor.getName() + " is described twice");
+			}
+		}
+		return new EntityDescriptorRegistry(Collections.unmodifiableMap(byName), Collections.unmodifiableMap(byType));
+	}
+
+	/**
+	 * Gets the descriptor of the entity name.
+	 *
+	 * @param name the name
+	 * @return the entity descriptor
+	 */
+	public EntityDescriptor<?> get(String name) {
+		EntityDescriptor<?> descriptor = byName.get(name);
+		if (null == descriptor) {
+			throw new RuntimeException("Unsupported entity " + name);
+		}
+		return descriptor;
+	}
+
+	/**
+	 * Gets the descriptor of the entity type.
+	 *
+	 * @param <T>  the entity type
+	 * @param type the type
+	 * @return the entity descriptor
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> EntityDescriptor<T> get(Class<T> type) {
+		EntityDescriptor<?> descriptor = byType.get(type);
+		if (null == descriptor) {
+			throw new RuntimeException("Unsupported entity " + type.getSimpleName());
+		}
+		return (EntityDescriptor<T>) descriptor;
+	}
+
+	/**
+	 * Checks whether the entity type is described.
+	 *
+	 * @param type the type
+	 * @return true, if described
+	 */
+	public boolean contains(Class<?> type) {
+		return byType.containsKey(type);
+	}
+
+	/**
+	 * Gets the entity names.
+	 *
+	 * @return the names
+	 */
+	public Set<String> getNames() {
+		return byName.keySet();
+	}
+}
@@ -0,0 +1,273 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+
+/**
+ * A boolean filter expression: criteria combined with <code>AND</code>,
+ * <code>OR</code> and <code>NOT</code>. Expressions are immutable, and the
+ * operands of <code>AND</code> and <code>OR</code> are kept in canonical
+ * order, so equal expressions render equally whatever order they were written
+ * in.
+ * <p>
+ * In a criteria list an expression that is not a plain conjunction of criteria
+ * travels as one pseudo criterion, with {@link #KEY} as key, {@link #OPERATOR}
+ * as operator and the rendered expression as value.
+ */
+public final class FilterExpression {
+
+	public static final String KEY = "where";
+
+	public static final String OPERATOR = "?";
+
+	/**
+	 * The kind of an expression node.
+	 */
+	public enum Kind {
+		CRITERIA, AND, OR, NOT
+	}
+
+	private final Kind kind;
+
+	private final SearchCriteria criteria;
+
+	private final List<FilterExpression> operands;
+
+	private final String rendered;
+
+	private FilterExpression(Kind kind, SearchCriteria criteria, List<FilterExpression> operands) {
+		this.kind = kind;
+		this.criteria = criteria;
+		this.operands = operands;
+		this.rendered = render();
+	}
+
+	/**
+	 * Creates the expression of one criteria.
+	 *
+	 * @param criteria the criteria
+	 * @return the filter expression
+	 */
+	public static FilterExpression of(SearchCriteria criteria) {
+		return new FilterExpression(Kind.CRITERIA, criteria, Collections.emptyList());
+	}
+
+	/**
+	 * Creates the conjunction of the operands. Nested conjunctions are flattened.
+	 *
+	 * @param operands the operands
+	 * @return the filter expression, the operand itself if there is only one
+	 */
+	public static FilterExpression and(List<FilterExpression> operands) {
+		return group(Kind.AND, operands);
+	}
+
+	/**
+	 * Creates the disjunction of the operands. Nested disjunctions are flattened.
+	 *
+	 * @param operands the operands
+	 * @return the filter expression, the operand itself if there is only one
+	 */
+	public static FilterExpression or(List<FilterExpression> operands) {
+		return group(Kind.OR, operands);
+	}
+
+	/**
+	 * Creates the negation of the operand. A double negation cancels out.
+	 *
+	 * @param operand the operand
+	 * @return the filter expression
+	 */
+	public static FilterExpression not(FilterExpression operand) {
+		return Kind.NOT == operand.kind ? operand.operands.get(0)
+				: new FilterExpression(Kind.NOT, null, List.of(operand));
+	}
+
+	private static FilterExpression group(Kind kind, List<FilterExpression> operands) {
+		List<FilterExpression> flattened = new ArrayList<>(operands.size());
+		for (FilterExpression operand : operands) {
+			if (kind == operand.kind) {
+				flattened.addAll(operand.operands);
+			} else {
+				flattened.add(operand);
+			}
+		}
+		if (flattened.size() == 1) {
+			return flattened.get(0);
+		}
+		flattened.sort(Comparator.comparing(FilterExpression::toString));
+		return new FilterExpression(kind, null, Collections.unmodifiableList(flattened));
+	}
+
+	/**
+	 * Gets the kind.
+	 *
+	 * @return the kind
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * Gets the criteria of a {@link Kind#CRITERIA} node.
+	 *
+	 * @return the criteria, null for the other kinds
+	 */
+	public SearchCriteria getCriteria() {
+		return criteria;
+	}
+
+	/**
+	 * Gets the operands, empty for a {@link Kind#CRITERIA} node.
+	 *
+	 * @return the operands
+	 */
+	public List<FilterExpression> getOperands() {
+		return operands;
+	}
+
+	/**
+	 * Gets the criterias of the expression, in rendering order.
+	 *
+	 * @return the criterias
+	 */
+	public List<SearchCriteria> getCriterias() {
+		List<SearchCriteria> criterias = new ArrayList<>();
+		forEachCriteria((c, required) -> criterias.add(c));
+		return criterias;
+	}
+
+	/**
+	 * Visits the criterias of the expression. A criteria is required when every
+	 * match of the expression satisfies it, i.e. it is reached through
+	 * conjunctions only.
+	 *
+	 * @param visitor the visitor of each criteria and whether it is required
+	 */
+	public void forEachCriteria(BiConsumer<SearchCriteria, Boolean> visitor) {
+		forEachCriteria(visitor, true);
+	}
+
+	private void forEachCriteria(BiConsumer<SearchCriteria, Boolean> visitor, boolean required) {
+		if (Kind.CRITERIA == kind) {
+			visitor.accept(criteria, required);
+			return;
+		}
+		for (FilterExpression operand : operands) {
+			operand.forEachCriteria(visitor, required && Kind.AND == kind);
+		}
+	}
+
+	/**
+	 * Rewrites every criteria of the expression.
+	 *
+	 * @param mapper the criteria mapper
+	 * @return the rewritten expression
+	 */
+	public FilterExpression map(UnaryOperator<SearchCriteria> mapper) {
+		switch (kind) {
+		case CRITERIA:
+			return of(mapper.apply(criteria));
+		case NOT:
+			return not(operands.get(0).map(mapper));
+		default:
+			return group(kind, operands.stream().map(o -> o.map(mapper)).collect(Collectors.toList()));
+		}
+	}
+
+	/**
+	 * Gets the expression as a criteria list, ANDed as filters are: the operands
+	 * of a top level conjunction each become one entry, criteria as they are and
+	 * any other expression as a {@link #KEY} pseudo criterion.
+	 *
+	 * @return the criterias
+	 */
+	public List<SearchCriteria> toCriterias() {
+		List<FilterExpression> conjuncts = Kind.AND == kind ? operands : List.of(this);
+		List<SearchCriteria> criterias = new ArrayList<>(conjuncts.size());
+		for (FilterExpression conjunct : conjuncts) {
+			criterias.add(Kind.CRITERIA == conjunct.kind ? conjunct.criteria
+					: SearchCriteria.builder().key(KEY).operator(OPERATOR).value(conjunct.toString()).build());
+		}
+		return criterias;
+	}
+
+	/**
+	 * Compiles the expression into a predicate. Operands of a conjunction or
+	 * disjunction are combined as a balanced tree, so its depth grows with the
+	 * logarithm of the operand count rather than with the count.
+	 *
+	 * @param compiler the compiler of one criteria
+	 * @return the boolean expression
+	 */
+	public BooleanExpression compile(Function<SearchCriteria, BooleanExpression> compiler) {
+		switch (kind) {
+		case CRITERIA:
+			return compiler.apply(criteria);
+		case NOT:
+			return operands.get(0).compile(compiler).not();
+		default:
+			return balanced(Kind.AND == kind ? Ops.AND : Ops.OR,
+					operands.stream().map(o -> o.compile(compiler)).collect(Collectors.toList()));
+		}
+	}
+
+	/**
+	 * Combines the predicates with the operator as a balanced tree.
+	 *
+	 * @param operator the operator, {@link Ops#AND} or {@link Ops#OR}
+	 * @param predicates the predicates, not empty
+	 * @return the boolean expression
+	 */
+	public static BooleanExpression balanced(Ops operator, List<BooleanExpression> predicates) {
+		return balanced(operator, predicates, 0, predicates.size());
+	}
+
+	private static BooleanExpression balanced(Ops operator, List<BooleanExpression> predicates, int from, int to) {
+		if (to - from == 1) {
+			return predicates.get(from);
+		}
+		int mid = (from + to) >>> 1;
+		return Expressions.booleanOperation(operator, balanced(operator, predicates, from, mid),
+				balanced(operator, predicates, mid, to));
+	}
+
+	private String render() {
+		switch (kind) {
+		case CRITERIA:
+			return criteria.getKey() + criteria.getOperator() + criteria.getValue();
+		case NOT:
+			FilterExpression operand = operands.get(0);
+			return Kind.CRITERIA == operand.kind ? "NOT " + operand : "NOT (" + operand + ")";
+		default:
+			return operands.stream().map(o -> Kind.CRITERIA == o.kind || Kind.NOT == o.kind ? o.toString()
+					: "(" + o + ")").collect(Collectors.joining(" " + kind + " "));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return rendered;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof FilterExpression && rendered.equals(((FilterExpression) obj).rendered);
+	}
+
+	@Override
+	public int hashCode() {
+		return rendered.hashCode();
+	}
+}
@@ -0,0 +1,124 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The filter operators, resolved once from their symbol so predicate building
+ * switches on the constant rather than on strings.
+ */
+public enum FilterOperator {
+
+	/** Equal to the value, or to any of the comma separated values. */
+	EQ(":", Arity.ANY),
+
+	/** Equal to none of the comma separated values. */
+	NE("!=", Arity.ANY),
+
+	/** Greater than the value. */
+	GT(">", Arity.ONE),
+
+	/** Greater than or equal to the value. */
+	GOE(">=", Arity.ONE),
+
+	/** Less than the value. */
+	LT("<", Arity.ONE),
+
+	/** Less than or equal to the value. */
+	LOE("<=", Arity.ONE),
+
+	/** Between the two comma separated values, inclusive. */
+	BETWEEN("()", Arity.TWO),
+
+	/** Starts with the value, ignoring case. */
+	STARTS_WITH("%", Arity.WHOLE),
+
+	/** Contains the value, ignoring case. */
+	CONTAINS("-", Arity.WHOLE),
+
+	/** Full-text match of the value, falling back to contains. */
+	MATCH("~", Arity.WHOLE);
+
+	private static final Map<String, FilterOperator> BY_SYMBOL = new HashMap<>();
+
+	static {
+		for (FilterOperator operator : values()) {
+			BY_SYMBOL.put(operator.symbol, operator);
+		}
+	}
+
+	private final String symbol;
+
+	private final Arity arity;
+
+	FilterOperator(String symbol, Arity arity) {
+		this.symbol = symbol;
+		this.arity = arity;
+	}
+
+	/**
+	 * Gets the operator of the symbol.
+	 *
+	 * @param symbol the symbol
+	 * @return the filter operator
+	 */
+	public static FilterOperator of(String symbol) {
+		FilterOperator operator = BY_SYMBOL.get(symbol);
+		if (null == operator) {
+			throw new RuntimeException("Unsupported operator " + symbol);
+		}
+		return operator;
+	}
+
+	/**
+	 * Gets the symbol.
+	 *
+	 * @return the symbol
+	 */
+	public String getSymbol() {
+		return symbol;
+	}
+
+	/**
+	 * Splits the filter value into the values of this operator. Operators taking
+	 * the whole value keep commas as part of it.
+	 *
+	 * @param value the value
+	 * @return the values
+	 */
+	public String[] split(String value) {
+		return Arity.WHOLE == arity ? new String[] { value } : value.split(",", -1);
+	}
+
+	/**
+	 * Checks whether the operator takes this many values.
+	 *
+	 * @param count the number of values
+	 * @return true, if accepted
+	 */
+	public boolean accepts(int count) {
+		switch (arity) {
+		case ONE:
+		case WHOLE:
+			return count == 1;
+		case TWO:
+			return count == 2;
+		default:
+			return count >= 1;
+		}
+	}
+
+	/**
+	 * Checks whether the value is matched with LIKE, so bound values need their
+	 * wildcards escaped.
+	 *
+	 * @return true, if LIKE
+	 */
+	public boolean isLike() {
+		return Arity.WHOLE == arity;
+	}
+
+	private enum Arity {
+		ONE, TWO, ANY, WHOLE
+	}
+}
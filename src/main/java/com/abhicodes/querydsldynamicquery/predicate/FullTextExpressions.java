@@ -0,0 +1,77 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.StringPath;
+
+/**
+ * Full-text search expressions, compiled to <code>MATCH ... AGAINST</code>
+ * through the functions registered by
+ * {@link com.abhicodes.querydsldynamicquery.config.MySQLFullTextDialect}.
+ */
+public final class FullTextExpressions {
+
+	/** Name prefix of the registered functions, suffixed by the column count. */
+	public static final String FUNCTION_PREFIX = "fulltext_match_";
+
+	/** Largest supported number of columns in one full-text index. */
+	public static final int MAX_COLUMNS = 3;
+
+	private FullTextExpressions() {
+	}
+
+	/**
+	 * Matches the columns against the search expression.
+	 *
+	 * @param term  the boolean mode search expression, see {@link #toBooleanMode}
+	 * @param paths the columns of one full-text index, in index order
+	 * @return the boolean expression
+	 */
+	public static BooleanExpression match(Expression<String> term, StringPath... paths) {
+		StringBuilder template = new StringBuilder("function('").append(FUNCTION_PREFIX).append(paths.length)
+				.append('\'');
+		Object[] args = new Object[paths.length + 1];
+		for (int i = 0; i < paths.length; i++) {
+			template.append(", {").append(i).append('}');
+			args[i] = paths[i];
+		}
+		template.append(", {").append(paths.length).append("})");
+		args[paths.length] = term;
+		return Expressions.numberTemplate(Double.class, template.toString(), args).gt(0.0);
+	}
+
+	/**
+	 * Matches the columns against the term.
+	 *
+	 * @param term  the raw filter term
+	 * @param paths the columns of one full-text index, in index order
+	 * @return the boolean expression
+	 */
+	public static BooleanExpression match(String term, StringPath... paths) {
+		return match(Expressions.constant(toBooleanMode(term)), paths);
+	}
+
+	/**
+	 * Turns a filter term into a boolean mode search expression where every word
+	 * is a required prefix, the closest full-text analogue of a contains filter.
+	 * Words shorter than the server's minimum token size are ignored by MySQL.
+	 * Unlike the LIKE fallback, <code>spring boot</code> matches "boot for
+	 * spring" but not "springboot", and words only match at their start.
+	 *
+	 * @param term the term
+	 * @return the search expression
+	 */
+	public static String toBooleanMode(String term) {
+		StringBuilder sb = new StringBuilder(term.length() + 8);
+		for (String word : term.split("[^\\w]+")) {
+			if (!word.isEmpty()) {
+				if (sb.length() > 0) {
+					sb.append(' ');
+				}
+				sb.append('+').append(word).append('*');
+			}
+		}
+		return sb.toString();
+	}
+}
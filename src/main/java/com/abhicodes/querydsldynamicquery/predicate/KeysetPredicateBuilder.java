@@ -0,0 +1,142 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.NullValueInNestedPathException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.NullHandling;
+import org.springframework.data.domain.Sort.Order;
+
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+
+/**
+ * Builds the seek predicate for keyset pagination: the rows strictly after a
+ * given sort key tuple, for the order and null handling of the sort.
+ *
+ * @param <T> the generic type
+ */
+public class KeysetPredicateBuilder<T> {
+
+	private final Class<T> t;
+
+	private final PropertyMetadataRegistry registry;
+
+	/**
+	 * Instantiates a new keyset predicate builder.
+	 *
+	 * @param t        the t
+	 * @param registry the property metadata registry
+	 */
+	public KeysetPredicateBuilder(Class<T> t, PropertyMetadataRegistry registry) {
+		this.t = t;
+		this.registry = registry;
+	}
+
+	/**
+	 * Builds the seek predicate. For orders o1..on and values v1..vn this is the
+	 * OR over i of (o1 = v1 and ... and o(i-1) = v(i-1) and oi after vi).
+	 *
+	 * @param sort   the sort, ending with a unique tie-breaker
+	 * @param values the sort key values of the last row, as strings
+	 * @return the boolean expression
+	 */
+	public BooleanExpression build(Sort sort, List<String> values) {
+		List<Order> orders = sort.toList();
+		if (orders.size() != values.size()) {
+			throw new RuntimeException("Invalid cursor");
+		}
+		BooleanExpression seek = null;
+		BooleanExpression equalPrefix = null;
+		for (int i = 0; i < orders.size(); i++) {
+			Order order = orders.get(i);
+			PropertyMetadata metadata = registry.get(t, order.getProperty());
+			Path<?> path = metadata.getPath();
+			Object value = convert(metadata.getType(), values.get(i));
+
+			BooleanExpression after = after(path, order, value);
+			if (null != after) {
+				BooleanExpression term = null == equalPrefix ? after : equalPrefix.and(after);
+				seek = null == seek ? term : seek.or(term);
+			}
+			BooleanExpression equal = null == value ? Expressions.booleanOperation(Ops.IS_NULL, path)
+					: Expressions.booleanOperation(Ops.EQ, path, Expressions.constant(value));
+			equalPrefix = null == equalPrefix ? equal : equalPrefix.and(equal);
+		}
+		return null == seek ? Expressions.asBoolean(true).isFalse() : seek;
+	}
+
+	/**
+	 * Gets the sort key values of the row, as strings. A nested key is null when
+	 * a property on its path is, without creating the missing objects on the row.
+	 *
+	 * @param sort the sort
+	 * @param row  the row
+	 * @return the values
+	 */
+	public List<String> values(Sort sort, T row) {
+		BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+		List<String> values = new ArrayList<>();
+		for (Order order : sort) {
+			Object value;
+			try {
+				value = wrapper.getPropertyValue(order.getProperty());
+			} catch (NullValueInNestedPathException e) {
+				value = null;
+			}
+			values.add(null == value ? null : value.toString());
+		}
+		return values;
+	}
+
+	/**
+	 * Predicate for the rows after the value on a single sort key, or null if no
+	 * row can follow on this key alone. Native null handling is treated as a non
+	 * nullable key, such as the id tie-breaker.
+	 *
+	 * @param path  the path
+	 * @param order the order
+	 * @param value the value
+	 * @return the boolean expression
+	 */
+	private BooleanExpression after(Path<?> path, Order order, Object value) {
+		NullHandling nullHandling = order.getNullHandling();
+		if (null == value) {
+			return nullHandling == NullHandling.NULLS_FIRST ? Expressions.booleanOperation(Ops.IS_NOT_NULL, path)
+					: null;
+		}
+		BooleanExpression compare = Expressions.booleanOperation(order.isAscending() ? Ops.GT : Ops.LT, path,
+				Expressions.constant(value));
+		return nullHandling == NullHandling.NULLS_LAST
+				? compare.or(Expressions.booleanOperation(Ops.IS_NULL, path))
+				: compare;
+	}
+
+	/**
+	 * Converts a cursor value to the property type, see
+	 * {@link TypeHandler#parseSortKey(String)}.
+	 *
+	 * @param type  the type
+	 * @param value the value
+	 * @return the object
+	 */
+	private static Object convert(Class<?> type, String value) {
+		if (null == value) {
+			return null;
+		}
+		TypeHandler<?> handler = TypeHandlerRegistry.get(type);
+		if (null == handler) {
+			throw new RuntimeException("Unsupported sort key type " + type.getSimpleName());
+		}
+		try {
+			return handler.parseSortKey(value);
+		} catch (RuntimeException e) {
+			throw new RuntimeException("Invalid cursor");
+		}
+	}
+}
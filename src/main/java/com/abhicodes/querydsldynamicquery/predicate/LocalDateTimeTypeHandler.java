@@ -0,0 +1,80 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+
+/**
+ * Date time properties filtered by date: values are days, widened to the start
+ * or end of the day so every bound covers whole days. Equality matches any
+ * time within one of the days.
+ */
+public class LocalDateTimeTypeHandler extends TypeHandler<LocalDateTime> {
+
+	/**
+	 * Instantiates a new local date time type handler.
+	 */
+	public LocalDateTimeTypeHandler() {
+		super(LocalDateTime.class, v -> LocalDate.parse(v).atStartOfDay(),
+				EnumSet.of(FilterOperator.EQ, FilterOperator.GT, FilterOperator.GOE, FilterOperator.LT,
+						FilterOperator.LOE, FilterOperator.BETWEEN));
+	}
+
+	@Override
+	public String format(LocalDateTime value) {
+		return value.toLocalDate().toString();
+	}
+
+	@Override
+	public LocalDateTime parseSortKey(String value) {
+		return LocalDateTime.parse(value);
+	}
+
+	@Override
+	public int getBindCount(FilterOperator operator, int count) {
+		return FilterOperator.EQ == operator ? 2 * count : count;
+	}
+
+	@Override
+	public Object[] bind(FilterOperator operator, String value) {
+		String[] values = operator.split(value);
+		switch (operator) {
+		case EQ:
+			Object[] days = new Object[2 * values.length];
+			for (int i = 0; i < values.length; i++) {
+				LocalDate day = LocalDate.parse(values[i]);
+				days[2 * i] = day.atStartOfDay();
+				days[2 * i + 1] = day.atTime(LocalTime.MAX);
+			}
+			return days;
+		case GT:
+		case LOE:
+			return new Object[] { LocalDate.parse(values[0]).atTime(LocalTime.MAX) };
+		case BETWEEN:
+			return new Object[] { LocalDate.parse(values[0]).atStartOfDay(),
+					LocalDate.parse(values[1]).atTime(LocalTime.MAX) };
+		default:
+			return new Object[] { LocalDate.parse(values[0]).atStartOfDay() };
+		}
+	}
+
+	@Override
+	public BooleanExpression create(Path<?> path, FilterOperator operator, Expression<?>[] args) {
+		if (FilterOperator.EQ != operator) {
+			return super.create(path, operator, args);
+		}
+		BooleanExpression days = null;
+		for (int i = 0; i < args.length; i += 2) {
+			BooleanExpression day = Expressions.booleanOperation(Ops.BETWEEN, path, args[i], args[i + 1]);
+			days = null == days ? day : days.or(day);
+		}
+		return days;
+	}
+}
@@ -0,0 +1,42 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The outcome of {@link CriteriaOptimizer}: the canonical criterias, or the
+ * knowledge that no row can match them.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class OptimizedCriteria {
+
+	private final List<SearchCriteria> criterias;
+
+	private final boolean unsatisfiable;
+
+	/**
+	 * Creates the optimized criteria.
+	 *
+	 * @param criterias the canonical criterias
+	 * @return the optimized criteria
+	 */
+	public static OptimizedCriteria of(List<SearchCriteria> criterias) {
+		return new OptimizedCriteria(criterias, false);
+	}
+
+	/**
+	 * Creates the optimized criteria of a filter no row can match.
+	 *
+	 * @return the optimized criteria
+	 */
+	public static OptimizedCriteria unsatisfiable() {
+		return new OptimizedCriteria(Collections.emptyList(), true);
+	}
+}
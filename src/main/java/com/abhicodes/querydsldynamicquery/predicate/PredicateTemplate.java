@@ -0,0 +1,94 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+
+/**
+ * A predicate compiled once per filter signature, with bind parameters in
+ * place of the filter values.
+ */
+public class PredicateTemplate {
+
+	private final BooleanExpression expression;
+
+	private final List<CriterionTemplate> criteria;
+
+	/**
+	 * Instantiates a new predicate template, the criteria ANDed as a balanced tree
+	 * as in {@link CommonPredicateBuilder#build()}. Entries of the criteria list
+	 * may be null for criteria that compile to no predicate.
+	 *
+	 * @param criteria the criterion templates, in filter order
+	 */
+	public PredicateTemplate(List<CriterionTemplate> criteria) {
+		List<BooleanExpression> predicates = criteria.stream().filter(Objects::nonNull)
+				.map(CriterionTemplate::getExpression).collect(Collectors.toList());
+		this.expression = predicates.isEmpty() ? Expressions.asBoolean(true).isTrue()
+				: FilterExpression.balanced(Ops.AND, predicates);
+		this.criteria = criteria;
+	}
+
+	/**
+	 * Binds the values of the criteria to the template parameters. The criteria
+	 * must have the signature this template was compiled for.
+	 *
+	 * @param criterias the criterias
+	 * @return the bound predicate
+	 */
+	public BoundPredicate bind(List<SearchCriteria> criterias) {
+		Map<Param<?>, Object> bindings = new HashMap<>();
+		for (int i = 0; i < criteria.size(); i++) {
+			CriterionTemplate criterion = criteria.get(i);
+			if (null == criterion) {
+				continue;
+			}
+			Object[] values = criterion.getBinder().apply(criterias.get(i).getValue());
+			Param<?>[] params = criterion.getParams();
+			for (int j = 0; j < params.length; j++) {
+				bindings.put(params[j], values[j]);
+			}
+		}
+		return new BoundPredicate(expression, bindings);
+	}
+
+	/**
+	 * Gets the filter signature: keys, operators and value arity, without the
+	 * values themselves.
+	 *
+	 * @param criterias the criterias
+	 * @return the signature
+	 */
+	public static String signature(List<SearchCriteria> criterias) {
+		StringBuilder sb = new StringBuilder();
+		for (SearchCriteria criteria : criterias) {
+			sb.append(criteria.getKey()).append(criteria.getOperator()).append('#')
+					.append(arity(criteria.getValue())).append('|');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Gets the number of comma separated values.
+	 *
+	 * @param value the value
+	 * @return the arity
+	 */
+	public static int arity(String value) {
+		int arity = 1;
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) == ',') {
+				arity++;
+			}
+		}
+		return arity;
+	}
+}
@@ -0,0 +1,62 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.BooleanExpression;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The resolved leaf type, QueryDSL path and type handler of an entity
+ * property. Properties of the elements of a collection also carry the
+ * collection, their path being rooted at the element.
+ */
+@Getter
+@AllArgsConstructor
+public class PropertyMetadata {
+
+	private final Class<?> type;
+
+	private final Path<?> path;
+
+	/** The type handler, or null if the property cannot be filtered on. */
+	private final TypeHandler<?> handler;
+
+	/** The collection the property is reached through, or null. */
+	private final CollectionMetadata collection;
+
+	/**
+	 * Instantiates a new property metadata of a property outside collections.
+	 *
+	 * @param type    the type
+	 * @param path    the path
+	 * @param handler the type handler
+	 */
+	public PropertyMetadata(Class<?> type, Path<?> path, TypeHandler<?> handler) {
+		this(type, path, handler, null);
+	}
+
+	/**
+	 * Gets the type handler, throwing if the property cannot be filtered on.
+	 *
+	 * @param key the key
+	 * @return the type handler
+	 */
+	public TypeHandler<?> getHandler(String key) {
+		if (null == handler) {
+			throw new RuntimeException("Unsupported filter key " + key);
+		}
+		return handler;
+	}
+
+	/**
+	 * Wraps a predicate on the property path into the predicate on the entity,
+	 * an <code>EXISTS</code> subquery for properties of collection elements.
+	 *
+	 * @param predicate the predicate on the property path
+	 * @return the predicate on the entity
+	 */
+	public BooleanExpression wrap(BooleanExpression predicate) {
+		return null == collection ? predicate : collection.exists(predicate);
+	}
+}
@@ -0,0 +1,235 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.OneToMany;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.BeanPath;
+import com.querydsl.core.types.dsl.CollectionPathBase;
+import com.querydsl.core.types.dsl.EntityPathBase;
+
+import lombok.SneakyThrows;
+
+/**
+ * Immutable registry of (entity class, dotted path) to {@link PropertyMetadata},
+ * built once from the generated Q classes so that resolving a filter key is a
+ * hash lookup instead of a reflective field walk. The element properties of a
+ * bidirectional <code>@OneToMany</code> collection whose element entity is a
+ * root too are registered under the collection key, e.g.
+ * <code>comments.comments</code>, see {@link CollectionMetadata}.
+ */
+public class PropertyMetadataRegistry {
+
+	private static final int MAX_DEPTH = 3;
+
+	private final Map<Class<?>, Map<String, PropertyMetadata>> properties;
+
+	private final Set<String> fullTextIndexes;
+
+	private final Set<String> indexes;
+
+	private PropertyMetadataRegistry(Map<Class<?>, Map<String, PropertyMetadata>> properties,
+			Set<String> fullTextIndexes, Set<String> indexes) {
+		this.properties = properties;
+		this.fullTextIndexes = fullTextIndexes;
+		this.indexes = indexes;
+	}
+
+	/**
+	 * Builds the registry from the given Q class roots.
+	 *
+	 * @param roots the entity path roots
+	 * @return the property metadata registry
+	 */
+	public static PropertyMetadataRegistry of(EntityPathBase<?>... roots) {
+		Map<Class<?>, Map<String, PropertyMetadata>> properties = new HashMap<>();
+		Map<Class<?>, EntityPathBase<?>> rootsByType = new HashMap<>();
+		for (EntityPathBase<?> root : roots) {
+			Map<String, PropertyMetadata> entityProperties = new HashMap<>();
+			collect(root, "", 0, entityProperties);
+			properties.put(root.getType(), entityProperties);
+			rootsByType.put(root.getType(), root);
+		}
+		for (EntityPathBase<?> root : roots) {
+			collectCollections(root, rootsByType, properties);
+		}
+		for (Map.Entry<Class<?>, Map<String, PropertyMetadata>> entry : properties.entrySet()) {
+			entry.setValue(Collections.unmodifiableMap(entry.getValue()));
+		}
+		return new PropertyMetadataRegistry(Collections.unmodifiableMap(properties), Collections.emptySet(),
+				Collections.emptySet());
+	}
+
+	/**
+	 * Returns a registry that also knows of a full-text index on the given
+	 * properties of the entity.
+	 *
+	 * @param entity the entity
+	 * @param keys   the indexed properties, in index column order
+	 * @return the property metadata registry
+	 */
+	public PropertyMetadataRegistry withFullTextIndex(Class<?> entity, String... keys) {
+		Set<String> indexes = new HashSet<>(fullTextIndexes);
+		indexes.add(indexKey(entity, keys));
+		return new PropertyMetadataRegistry(properties, Collections.unmodifiableSet(indexes), this.indexes);
+	}
+
+	/**
+	 * Returns a registry that also knows the given properties of the entity are
+	 * the leading column of a B-tree index, so equality and range filters on them
+	 * can use it.
+	 *
+	 * @param entity the entity
+	 * @param keys   the indexed properties
+	 * @return the property metadata registry
+	 */
+	public PropertyMetadataRegistry withIndex(Class<?> entity, String... keys) {
+		Set<String> indexed = new HashSet<>(indexes);
+		for (String key : keys) {
+			indexed.add(indexKey(entity, key));
+		}
+		return new PropertyMetadataRegistry(properties, fullTextIndexes, Collections.unmodifiableSet(indexed));
+	}
+
+	/**
+	 * Checks whether the property leads a B-tree index.
+	 *
+	 * @param entity the entity
+	 * @param key    the property
+	 * @return true, if indexed
+	 */
+	public boolean isIndexed(Class<?> entity, String key) {
+		return indexes.contains(indexKey(entity, key));
+	}
+
+	/**
+	 * Checks whether a usable full-text index covers exactly the given properties.
+	 *
+	 * @param entity the entity
+	 * @param keys   the properties, in index column order
+	 * @return true, if indexed
+	 */
+	public boolean hasFullTextIndex(Class<?> entity, String... keys) {
+		return !fullTextIndexes.isEmpty() && fullTextIndexes.contains(indexKey(entity, keys));
+	}
+
+	private static String indexKey(Class<?> entity, String... keys) {
+		return entity.getName() + ':' + String.join(",", keys);
+	}
+
+	/**
+	 * Gets the property metadata.
+	 *
+	 * @param entity the entity
+	 * @param key    the dotted property path
+	 * @return the property metadata
+	 */
+	public PropertyMetadata get(Class<?> entity, String key) {
+		Map<String, PropertyMetadata> entityProperties = properties.get(entity);
+		PropertyMetadata metadata = null == entityProperties ? null : entityProperties.get(key);
+		if (null == metadata) {
+			throw new RuntimeException("Unsupported filter key " + key);
+		}
+		return metadata;
+	}
+
+	/**
+	 * Checks whether the entity has the property.
+	 *
+	 * @param entity the entity
+	 * @param key    the dotted property path
+	 * @return true, if present
+	 */
+	public boolean contains(Class<?> entity, String key) {
+		Map<String, PropertyMetadata> entityProperties = properties.get(entity);
+		return null != entityProperties && entityProperties.containsKey(key);
+	}
+
+	/**
+	 * Registers the element properties of the collections of the root, except
+	 * the back reference to the root and what lies beyond it.
+	 *
+	 * @param root        the root
+	 * @param rootsByType the roots by entity type
+	 * @param properties  the properties by entity type
+	 */
+	@SneakyThrows(IllegalAccessException.class)
+	private static void collectCollections(EntityPathBase<?> root, Map<Class<?>, EntityPathBase<?>> rootsByType,
+			Map<Class<?>, Map<String, PropertyMetadata>> properties) {
+		Map<String, PropertyMetadata> into = properties.get(root.getType());
+		for (Field field : root.getClass().getFields()) {
+			if (Modifier.isStatic(field.getModifiers()) || !(field.get(root) instanceof CollectionPathBase)) {
+				continue;
+			}
+			EntityPathBase<?> elementRoot = rootsByType
+					.get(((CollectionPathBase<?, ?, ?>) field.get(root)).getElementType());
+			String mappedBy = getMappedBy(root.getType(), field.getName());
+			if (null == elementRoot || null == mappedBy) {
+				continue;
+			}
+			Map<String, PropertyMetadata> elementProperties = properties.get(elementRoot.getType());
+			PropertyMetadata backReference = elementProperties.get(mappedBy);
+			if (null == backReference) {
+				continue;
+			}
+			CollectionMetadata collection = new CollectionMetadata(field.getName(), root, elementRoot,
+					backReference.getPath());
+			for (Map.Entry<String, PropertyMetadata> element : elementProperties.entrySet()) {
+				String key = element.getKey();
+				if (key.equals(mappedBy) || key.startsWith(mappedBy + ".")) {
+					continue;
+				}
+				PropertyMetadata metadata = element.getValue();
+				into.put(field.getName() + "." + key, new PropertyMetadata(metadata.getType(), metadata.getPath(),
+						metadata.getHandler(), collection));
+			}
+		}
+	}
+
+	private static String getMappedBy(Class<?> entity, String property) {
+		for (Class<?> type = entity; null != type; type = type.getSuperclass()) {
+			try {
+				OneToMany oneToMany = type.getDeclaredField(property).getAnnotation(OneToMany.class);
+				return null == oneToMany || oneToMany.mappedBy().isEmpty() ? null : oneToMany.mappedBy();
+			} catch (NoSuchFieldException e) {
+				// declared by a superclass
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Collects the public path fields of a Q class, descending into nested
+	 * entity and embeddable paths initialized by the Q class.
+	 *
+	 * @param parent the parent path
+	 * @param prefix the key prefix
+	 * @param depth  the depth
+	 * @param into   the target map
+	 */
+	@SneakyThrows(IllegalAccessException.class)
+	private static void collect(BeanPath<?> parent, String prefix, int depth, Map<String, PropertyMetadata> into) {
+		for (Field field : parent.getClass().getFields()) {
+			if (Modifier.isStatic(field.getModifiers()) || field.getName().startsWith("_")) {
+				continue;
+			}
+			Object value = field.get(parent);
+			if (!(value instanceof Path)) {
+				continue;
+			}
+			Path<?> path = (Path<?>) value;
+			String key = prefix + field.getName();
+			into.put(key, new PropertyMetadata(path.getType(), path, TypeHandlerRegistry.get(path.getType())));
+			if (value instanceof BeanPath && depth < MAX_DEPTH) {
+				collect((BeanPath<?>) value, key + ".", depth + 1, into);
+			}
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.util.EnumSet;
+import java.util.function.Function;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+
+/**
+ * String properties: a single equality value matches ignoring case, several
+ * values match exactly, and the LIKE operators take the whole value as one
+ * term. The full-text operator falls back to contains here; indexed
+ * properties are matched by {@link FullTextExpressions} instead. A full-text
+ * term must hold a word, as it does for an index. The two paths return
+ * different rows: the fallback needs the whole term as one substring, while
+ * the index needs every word as a word prefix, in any order.
+ */
+public class StringTypeHandler extends TypeHandler<String> {
+
+	/**
+	 * Instantiates a new string type handler.
+	 */
+	public StringTypeHandler() {
+		super(String.class, Function.identity(), EnumSet.of(FilterOperator.EQ, FilterOperator.STARTS_WITH,
+				FilterOperator.CONTAINS, FilterOperator.MATCH));
+	}
+
+	@Override
+	public Object[] bind(FilterOperator operator, String value) {
+		if (FilterOperator.MATCH == operator && FullTextExpressions.toBooleanMode(value).isEmpty()) {
+			throw new RuntimeException("No word in full-text term " + value);
+		}
+		return super.bind(operator, value);
+	}
+
+	@Override
+	public BooleanExpression create(Path<?> path, FilterOperator operator, Expression<?>[] args) {
+		switch (operator) {
+		case EQ:
+			return args.length == 1 ? Expressions.booleanOperation(Ops.EQ_IGNORE_CASE, path, args[0])
+					: super.create(path, operator, args);
+		case STARTS_WITH:
+			return Expressions.booleanOperation(Ops.STARTS_WITH_IC, path, args[0]);
+		case CONTAINS:
+		case MATCH:
+			return Expressions.booleanOperation(Ops.STRING_CONTAINS_IC, path, args[0]);
+		default:
+			return super.create(path, operator, args);
+		}
+	}
+}
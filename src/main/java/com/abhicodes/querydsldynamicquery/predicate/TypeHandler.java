@@ -0,0 +1,183 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+
+/**
+ * Builds the predicates of one property type: which operators it supports, how
+ * filter values are parsed into bound values and which expression they go
+ * into. The values are constants for literal predicates and parameters for
+ * predicate templates, so both share one handler.
+ *
+ * @param <V> the value type
+ */
+public class TypeHandler<V> {
+
+	private final Class<V> valueType;
+
+	private final Function<String, V> parser;
+
+	private final Set<FilterOperator> operators;
+
+	/**
+	 * Instantiates a new type handler.
+	 *
+	 * @param valueType the type of the bound values
+	 * @param parser    the value parser, throwing on malformed values
+	 * @param operators the supported operators
+	 */
+	public TypeHandler(Class<V> valueType, Function<String, V> parser, Set<FilterOperator> operators) {
+		this.valueType = valueType;
+		this.parser = parser;
+		this.operators = Collections.unmodifiableSet(operators);
+	}
+
+	/**
+	 * Gets the type of the bound values.
+	 *
+	 * @return the value type
+	 */
+	public Class<V> getValueType() {
+		return valueType;
+	}
+
+	/**
+	 * Checks whether the operator is supported with this many values.
+	 *
+	 * @param operator the operator
+	 * @param count    the number of values
+	 * @return true, if supported
+	 */
+	public boolean supports(FilterOperator operator, int count) {
+		return operators.contains(operator) && operator.accepts(count);
+	}
+
+	/**
+	 * Checks that the operator is supported with this many values, throwing if
+	 * not.
+	 *
+	 * @param key      the key
+	 * @param operator the operator
+	 * @param count    the number of values
+	 */
+	public void checkSupported(String key, FilterOperator operator, int count) {
+		if (!supports(operator, count)) {
+			throw new RuntimeException("Unsupported operator " + operator.getSymbol() + " with " + count
+					+ " value(s) for filter key " + key);
+		}
+	}
+
+	/**
+	 * Validates the filter and parses its value into the values to bind,
+	 * throwing if the operator is unsupported or a value is malformed.
+	 *
+	 * @param key      the key
+	 * @param operator the operator
+	 * @param value    the value
+	 * @return the bound values
+	 */
+	public Object[] bind(String key, FilterOperator operator, String value) {
+		checkSupported(key, operator, operator.split(value).length);
+		try {
+			return bind(operator, value);
+		} catch (RuntimeException e) {
+			throw new RuntimeException("Invalid value " + value + " for filter key " + key);
+		}
+	}
+
+	/**
+	 * Gets the number of values bound for a filter of this many values.
+	 *
+	 * @param operator the operator
+	 * @param count    the number of values
+	 * @return the number of bound values
+	 */
+	public int getBindCount(FilterOperator operator, int count) {
+		return count;
+	}
+
+	/**
+	 * Parses the filter value into the values to bind.
+	 *
+	 * @param operator the operator
+	 * @param value    the value
+	 * @return the bound values
+	 */
+	public Object[] bind(FilterOperator operator, String value) {
+		String[] values = operator.split(value);
+		Object[] bound = new Object[values.length];
+		for (int i = 0; i < values.length; i++) {
+			bound[i] = parse(values[i]);
+		}
+		return bound;
+	}
+
+	/**
+	 * Parses a single value.
+	 *
+	 * @param value the value
+	 * @return the parsed value
+	 */
+	public V parse(String value) {
+		return parser.apply(value);
+	}
+
+	/**
+	 * Formats a parsed value back into a filter value.
+	 *
+	 * @param value the value
+	 * @return the filter value
+	 */
+	public String format(V value) {
+		return value instanceof Enum ? ((Enum<?>) value).name() : String.valueOf(value);
+	}
+
+	/**
+	 * Parses a keyset cursor value, as written by {@code toString()} of a
+	 * property value.
+	 *
+	 * @param value the value
+	 * @return the parsed value
+	 */
+	public V parseSortKey(String value) {
+		return parse(value);
+	}
+
+	/**
+	 * Creates the predicate.
+	 *
+	 * @param path     the path
+	 * @param operator the operator
+	 * @param args     the bound value expressions
+	 * @return the predicate
+	 */
+	public BooleanExpression create(Path<?> path, FilterOperator operator, Expression<?>[] args) {
+		switch (operator) {
+		case EQ:
+			return args.length == 1 ? Expressions.booleanOperation(Ops.EQ, path, args[0])
+					: Expressions.booleanOperation(Ops.IN, path, Expressions.set(args));
+		case NE:
+			return args.length == 1 ? Expressions.booleanOperation(Ops.NE, path, args[0])
+					: Expressions.booleanOperation(Ops.NOT_IN, path, Expressions.set(args));
+		case GT:
+			return Expressions.booleanOperation(Ops.GT, path, args[0]);
+		case GOE:
+			return Expressions.booleanOperation(Ops.GOE, path, args[0]);
+		case LT:
+			return Expressions.booleanOperation(Ops.LT, path, args[0]);
+		case LOE:
+			return Expressions.booleanOperation(Ops.LOE, path, args[0]);
+		case BETWEEN:
+			return Expressions.booleanOperation(Ops.BETWEEN, path, args[0], args[1]);
+		default:
+			throw new RuntimeException("Unsupported operator " + operator.getSymbol());
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The type handlers by property type, built once. Enum types get a handler
+ * matching constant names ignoring case.
+ */
+public final class TypeHandlerRegistry {
+
+	private static final Set<FilterOperator> COMPARABLE = EnumSet.of(FilterOperator.EQ, FilterOperator.NE,
+			FilterOperator.GT, FilterOperator.GOE, FilterOperator.LT, FilterOperator.LOE, FilterOperator.BETWEEN);
+
+	private static final Set<FilterOperator> EQUALITY = EnumSet.of(FilterOperator.EQ, FilterOperator.NE);
+
+	private static final Map<Class<?>, TypeHandler<?>> HANDLERS;
+
+	static {
+		Map<Class<?>, TypeHandler<?>> handlers = new HashMap<>();
+		register(handlers, new TypeHandler<>(Integer.class, Integer::valueOf, COMPARABLE));
+		register(handlers, new TypeHandler<>(Long.class, Long::valueOf, COMPARABLE));
+		register(handlers, new TypeHandler<>(Double.class, Double::valueOf, COMPARABLE));
+		register(handlers, new TypeHandler<>(BigDecimal.class, BigDecimal::new, COMPARABLE));
+		register(handlers, new TypeHandler<>(LocalDate.class, LocalDate::parse, COMPARABLE));
+		register(handlers, new TypeHandler<>(Instant.class, Instant::parse, COMPARABLE));
+		register(handlers, new TypeHandler<>(UUID.class, UUID::fromString, EQUALITY));
+		register(handlers, new TypeHandler<>(Boolean.class, TypeHandlerRegistry::parseBoolean,
+				EnumSet.of(FilterOperator.EQ)));
+		register(handlers, new StringTypeHandler());
+		register(handlers, new LocalDateTimeTypeHandler());
+		HANDLERS = Collections.unmodifiableMap(handlers);
+	}
+
+	private TypeHandlerRegistry() {
+	}
+
+	/**
+	 * Gets the handler of the property type.
+	 *
+	 * @param type the property type
+	 * @return the type handler, or null if the type cannot be filtered on
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static TypeHandler<?> get(Class<?> type) {
+		TypeHandler<?> handler = HANDLERS.get(type);
+		if (null == handler && type.isEnum()) {
+			handler = new TypeHandler(type, v -> parseEnum((Class) type, (String) v), EQUALITY);
+		}
+		return handler;
+	}
+
+	private static void register(Map<Class<?>, TypeHandler<?>> handlers, TypeHandler<?> handler) {
+		handlers.put(handler.getValueType(), handler);
+	}
+
+	private static Boolean parseBoolean(String value) {
+		if ("true".equalsIgnoreCase(value)) {
+			return Boolean.TRUE;
+		}
+		if ("false".equalsIgnoreCase(value)) {
+			return Boolean.FALSE;
+		}
+		throw new IllegalArgumentException(value);
+	}
+
+	private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+		for (E constant : type.getEnumConstants()) {
+			if (constant.name().equalsIgnoreCase(value)) {
+				return constant;
+			}
+		}
+		throw new IllegalArgumentException(value);
+	}
+}
@@ -0,0 +1,13 @@
+package com.abhicodes.querydsldynamicquery.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.stereotype.Repository;
+
+import com.abhicodes.querydsldynamicquery.entity.PostComment;
+
+@Repository
+public interface PostCommentRepository
+		extends JpaRepository<PostComment, Long>, QuerydslPredicateExecutor<PostComment> {
+
+}
@@ -0,0 +1,112 @@
+package com.abhicodes.querydsldynamicquery.repository;
+
+import java.util.List;
+
+import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+
+/**
+ * The dimensions posts can be grouped by for facet counts. Author and post
+ * type are left joined under the {@link PostProjection} aliases, so posts
+ * without them form a null bucket.
+ */
+public enum PostFacet {
+
+	/** By post type. */
+	POST_TYPE("postType", List.of(PostProjection.POST_TYPE.type), false),
+
+	/** By author user name. */
+	AUTHOR("author", List.of(PostProjection.AUTHOR.userName), false),
+
+	/** By calendar month of creation, as <code>yyyy-MM</code>. */
+	MONTH("month", List.of(QPost.post.createdAt.year(), QPost.post.createdAt.month()), true);
+
+	private final String name;
+
+	private final List<Expression<?>> groupBy;
+
+	private final boolean chronological;
+
+	PostFacet(String name, List<Expression<?>> groupBy, boolean chronological) {
+		this.name = name;
+		this.groupBy = groupBy;
+		this.chronological = chronological;
+	}
+
+	/**
+	 * Gets the facet of the name.
+	 *
+	 * @param name the name
+	 * @return the post facet
+	 */
+	public static PostFacet of(String name) {
+		for (PostFacet facet : values()) {
+			if (facet.name.equals(name)) {
+				return facet;
+			}
+		}
+		throw new RuntimeException("Unsupported facet " + name);
+	}
+
+	/**
+	 * Gets the name.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the grouping expressions, selected first in every facet row.
+	 *
+	 * @return the group by expressions
+	 */
+	public List<Expression<?>> getGroupBy() {
+		return groupBy;
+	}
+
+	/**
+	 * Checks whether buckets are ordered by value, newest first so the limit
+	 * drops the oldest, rather than by descending count.
+	 *
+	 * @return true, if chronological
+	 */
+	public boolean isChronological() {
+		return chronological;
+	}
+
+	/**
+	 * Checks whether the author must be joined.
+	 *
+	 * @return true, if grouped by author
+	 */
+	public boolean needsAuthor() {
+		return AUTHOR == this;
+	}
+
+	/**
+	 * Checks whether the post type must be joined.
+	 *
+	 * @return true, if grouped by post type
+	 */
+	public boolean needsPostType() {
+		return POST_TYPE == this;
+	}
+
+	/**
+	 * Gets the bucket value of a facet row.
+	 *
+	 * @param tuple the row
+	 * @return the value, null for posts without one
+	 */
+	public Object getValue(Tuple tuple) {
+		if (MONTH != this) {
+			return tuple.get(0, Object.class);
+		}
+		Integer year = tuple.get(0, Integer.class);
+		Integer month = tuple.get(1, Integer.class);
+		return null == year || null == month ? null : String.format("%04d-%02d", year, month);
+	}
+}
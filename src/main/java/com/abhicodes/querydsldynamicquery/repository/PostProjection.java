@@ -0,0 +1,164 @@
+package com.abhicodes.querydsldynamicquery.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.abhicodes.querydsldynamicquery.entity.QPostType;
+import com.abhicodes.querydsldynamicquery.entity.QUsers;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+
+/**
+ * A sparse fieldset of a post listing: the whitelisted fields a client asked
+ * for, selected as a tuple of just their columns and returned as maps, so no
+ * entity is built or managed. Author and post type are left joined only when
+ * one of their fields is requested.
+ */
+public final class PostProjection {
+
+	/** The author, left joined under this alias when needed. */
+	public static final QUsers AUTHOR = new QUsers("author");
+
+	/** The post type, left joined under this alias when needed. */
+	public static final QPostType POST_TYPE = new QPostType("postType");
+
+	private static final Map<String, Expression<?>> FIELDS = new LinkedHashMap<>();
+
+	static {
+		QPost post = QPost.post;
+		FIELDS.put("id", post.id);
+		FIELDS.put("title", post.title);
+		FIELDS.put("postType", POST_TYPE.type);
+		FIELDS.put("author.fullName", AUTHOR.fullName);
+		FIELDS.put("author.userName", AUTHOR.userName);
+		FIELDS.put("author.email", AUTHOR.email);
+		FIELDS.put("createdAt", post.createdAt);
+		FIELDS.put("updatedAt", post.updatedAt);
+	}
+
+	private final List<String> fields;
+
+	private PostProjection(List<String> fields) {
+		this.fields = fields;
+	}
+
+	/**
+	 * Parses the requested fields. Each value may hold comma separated fields;
+	 * <code>author</code> stands for all author fields. Fields come out in
+	 * whitelist order, so equal fieldsets compare equal.
+	 *
+	 * @param values the requested fields
+	 * @return the post projection, or null if no field is requested
+	 */
+	public static PostProjection of(String[] values) {
+		if (null == values) {
+			return null;
+		}
+		Set<String> requested = new LinkedHashSet<>();
+		for (String value : values) {
+			for (String field : value.split(",")) {
+				field = field.trim();
+				if (field.isEmpty()) {
+					continue;
+				}
+				if ("author".equals(field)) {
+					requested.add("author.fullName");
+					requested.add("author.userName");
+					requested.add("author.email");
+				} else if (FIELDS.containsKey(field)) {
+					requested.add(field);
+				} else {
+					throw new RuntimeException("Unsupported field " + field);
+				}
+			}
+		}
+		if (requested.isEmpty()) {
+			return null;
+		}
+		List<String> fields = new ArrayList<>(requested.size());
+		for (String field : FIELDS.keySet()) {
+			if (requested.contains(field)) {
+				fields.add(field);
+			}
+		}
+		return new PostProjection(Collections.unmodifiableList(fields));
+	}
+
+	/**
+	 * Gets the fields, in whitelist order.
+	 *
+	 * @return the fields
+	 */
+	public List<String> getFields() {
+		return fields;
+	}
+
+	/**
+	 * Gets the selected expressions, in field order.
+	 *
+	 * @return the expressions
+	 */
+	public Expression<?>[] getExpressions() {
+		return fields.stream().map(FIELDS::get).toArray(Expression<?>[]::new);
+	}
+
+	/**
+	 * Checks whether the author must be joined.
+	 *
+	 * @return true, if an author field is requested
+	 */
+	public boolean needsAuthor() {
+		return fields.stream().anyMatch(f -> f.startsWith("author."));
+	}
+
+	/**
+	 * Checks whether the post type must be joined.
+	 *
+	 * @return true, if the post type is requested
+	 */
+	public boolean needsPostType() {
+		return fields.contains("postType");
+	}
+
+	/**
+	 * Maps a selected row to its fields, author fields nested as in the full
+	 * listing. A post without author has a null author.
+	 *
+	 * @param tuple the row
+	 * @return the fields by name
+	 */
+	public Map<String, Object> toMap(Tuple tuple) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		Map<String, Object> author = null;
+		boolean hasAuthor = false;
+		for (int i = 0; i < fields.size(); i++) {
+			String field = fields.get(i);
+			Object value = tuple.get(i, Object.class);
+			if (field.startsWith("author.")) {
+				if (null == author) {
+					author = new LinkedHashMap<>();
+					row.put("author", author);
+				}
+				author.put(field.substring("author.".length()), value);
+				hasAuthor |= null != value;
+			} else {
+				row.put(field, value);
+			}
+		}
+		if (null != author && !hasAuthor) {
+			row.put("author", null);
+		}
+		return row;
+	}
+
+	@Override
+	public String toString() {
+		return String.join(",", fields);
+	}
+}
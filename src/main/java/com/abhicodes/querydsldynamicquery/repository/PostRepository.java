@@ -1,12 +1,29 @@
 package com.abhicodes.querydsldynamicquery.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.stereotype.Repository;
 
 import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.querydsl.core.types.Predicate;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, Integer>, QuerydslPredicateExecutor<Post> {
+public interface PostRepository
+		extends JpaRepository<Post, Integer>, QuerydslPredicateExecutor<Post>, PostRepositoryCustom {
+
+	/**
+	 * Finds a page of posts with their author and post type fetched in the same
+	 * query, as the listing does.
+	 *
+	 * @param predicate the predicate
+	 * @param pageable  the pageable
+	 * @return the page
+	 */
+	@Override
+	@EntityGraph(attributePaths = { "author", "postType" })
+	Page<Post> findAll(Predicate predicate, Pageable pageable);
 
 }
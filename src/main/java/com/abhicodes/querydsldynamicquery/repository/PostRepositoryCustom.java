@@ -0,0 +1,81 @@
+package com.abhicodes.querydsldynamicquery.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.predicate.BoundPredicate;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.NumberExpression;
+
+public interface PostRepositoryCustom {
+
+	/**
+	 * Finds a page of posts with author and post type fetch joined, so mapping
+	 * the page to DTOs needs no further queries.
+	 *
+	 * @param predicate the predicate
+	 * @param pageable  the pageable, for sort and offset
+	 * @param limit     the maximum number of rows
+	 * @return the posts
+	 */
+	List<Post> findContent(BoundPredicate predicate, Pageable pageable, long limit);
+
+	/**
+	 * Finds a page of posts, with author and post type fetch joined only when
+	 * asked for. Without them the references stay uninitialized proxies whose
+	 * ids can still be read, for mapping from the reference data dictionary.
+	 *
+	 * @param predicate       the predicate
+	 * @param pageable        the pageable, for sort and offset
+	 * @param limit           the maximum number of rows
+	 * @param fetchReferences whether to fetch join author and post type
+	 * @return the posts
+	 */
+	List<Post> findContent(BoundPredicate predicate, Pageable pageable, long limit, boolean fetchReferences);
+
+	/**
+	 * Finds a page of posts as rows of just the projected columns. Author and
+	 * post type are left joined only when the projection needs them.
+	 *
+	 * @param predicate  the predicate
+	 * @param projection the projection
+	 * @param pageable   the pageable, for sort and offset
+	 * @param limit      the maximum number of rows
+	 * @return the rows
+	 */
+	List<Tuple> findProjection(BoundPredicate predicate, PostProjection projection, Pageable pageable, long limit);
+
+	long count(BoundPredicate predicate);
+
+	/**
+	 * Counts the matching posts per facet value in one GROUP BY query. Each row
+	 * holds the group by expressions of the facet, the count and, for each
+	 * statistic, its minimum, maximum and average.
+	 *
+	 * @param predicate the predicate
+	 * @param facet     the facet
+	 * @param stats     the numeric properties to aggregate
+	 * @param limit     the maximum number of buckets
+	 * @return the rows, by descending count or newest first
+	 */
+	List<Tuple> findFacet(BoundPredicate predicate, PostFacet facet, List<NumberExpression<?>> stats, long limit);
+
+	/**
+	 * Streams all matching posts, author and post type fetch joined, through a
+	 * forward-only cursor. The persistence context is cleared every
+	 * clearInterval rows so memory stays flat whatever the result size.
+	 *
+	 * @param predicate     the predicate
+	 * @param sort          the sort
+	 * @param fetchSize     the JDBC fetch size
+	 * @param clearInterval the number of rows between persistence context clears
+	 * @param consumer      the consumer
+	 * @return the number of rows
+	 */
+	long forEach(BoundPredicate predicate, Sort sort, int fetchSize, int clearInterval, Consumer<Post> consumer);
+
+}
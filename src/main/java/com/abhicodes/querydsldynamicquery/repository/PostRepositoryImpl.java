@@ -0,0 +1,156 @@
+package com.abhicodes.querydsldynamicquery.repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.Querydsl;
+
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.abhicodes.querydsldynamicquery.predicate.BoundPredicate;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQuery;
+
+public class PostRepositoryImpl implements PostRepositoryCustom {
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Override
+	public List<Post> findContent(BoundPredicate predicate, Pageable pageable, long limit) {
+		return findContent(predicate, pageable, limit, true);
+	}
+
+	@Override
+	public List<Post> findContent(BoundPredicate predicate, Pageable pageable, long limit, boolean fetchReferences) {
+		QPost post = QPost.post;
+		JPAQuery<Post> query = new JPAQuery<Post>(entityManager).select(post).from(post);
+		if (fetchReferences) {
+			query.leftJoin(post.author).fetchJoin().leftJoin(post.postType).fetchJoin();
+		}
+		predicate.bind(query.where(predicate.getExpression()));
+		JPQLQuery<Post> sortedQuery = querydsl().applySorting(pageable.getSort(), query);
+		return sortedQuery.offset(pageable.getOffset()).limit(limit).fetch();
+	}
+
+	@Override
+	public List<Tuple> findProjection(BoundPredicate predicate, PostProjection projection, Pageable pageable,
+			long limit) {
+		QPost post = QPost.post;
+		JPAQuery<Tuple> query = new JPAQuery<Tuple>(entityManager).select(projection.getExpressions()).from(post);
+		if (projection.needsAuthor()) {
+			query.leftJoin(post.author, PostProjection.AUTHOR);
+		}
+		if (projection.needsPostType()) {
+			query.leftJoin(post.postType, PostProjection.POST_TYPE);
+		}
+		predicate.bind(query.where(predicate.getExpression()));
+		JPQLQuery<Tuple> sortedQuery = querydsl().applySorting(pageable.getSort(), query);
+		return sortedQuery.offset(pageable.getOffset()).limit(limit).fetch();
+	}
+
+	@Override
+	public long forEach(BoundPredicate predicate, Sort sort, int fetchSize, int clearInterval,
+			Consumer<Post> consumer) {
+		QPost post = QPost.post;
+		JPAQuery<Post> query = predicate.bind(new JPAQuery<Post>(entityManager).select(post).from(post)
+				.leftJoin(post.author).fetchJoin().leftJoin(post.postType).fetchJoin()
+				.where(predicate.getExpression()));
+		int streamingFetchSize = entityManager.unwrap(Session.class)
+				.doReturningWork(connection -> getStreamingFetchSize(connection.getMetaData(), fetchSize));
+		query.setHint(QueryHints.HINT_FETCH_SIZE, streamingFetchSize).setHint(QueryHints.HINT_READONLY, true);
+		JPQLQuery<Post> sortedQuery = querydsl().applySorting(sort, query);
+		long rows = 0;
+		try (Stream<Post> stream = sortedQuery.stream()) {
+			Iterator<Post> iterator = stream.iterator();
+			while (iterator.hasNext()) {
+				consumer.accept(iterator.next());
+				if (++rows % clearInterval == 0) {
+					entityManager.clear();
+				}
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Gets the fetch size that makes the driver stream the rows. MySQL
+	 * Connector/J reads the whole result into memory whatever the fetch size,
+	 * unless the url sets <code>useCursorFetch=true</code>; without it only
+	 * {@link Integer#MIN_VALUE} streams, row by row.
+	 *
+	 * @param metaData  the metadata of the connection
+	 * @param fetchSize the fetch size
+	 * @return the fetch size to set
+	 * @throws SQLException if the metadata cannot be read
+	 */
+	static int getStreamingFetchSize(DatabaseMetaData metaData, int fetchSize) throws SQLException {
+		if ("MySQL".equals(metaData.getDatabaseProductName())
+				&& !metaData.getURL().toLowerCase().contains("usecursorfetch=true")) {
+			return Integer.MIN_VALUE;
+		}
+		return fetchSize;
+	}
+
+	@Override
+	public long count(BoundPredicate predicate) {
+		QPost post = QPost.post;
+		return predicate.bind(new JPAQuery<Long>(entityManager).select(post.count()).from(post)
+				.where(predicate.getExpression())).fetchOne();
+	}
+
+	@Override
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public List<Tuple> findFacet(BoundPredicate predicate, PostFacet facet, List<NumberExpression<?>> stats,
+			long limit) {
+		QPost post = QPost.post;
+		List<Expression<?>> select = new ArrayList<>(facet.getGroupBy());
+		NumberExpression<Long> count = post.count();
+		select.add(count);
+		for (NumberExpression<?> stat : stats) {
+			select.add(stat.min());
+			select.add(stat.max());
+			select.add(stat.avg());
+		}
+		JPAQuery<Tuple> query = new JPAQuery<Tuple>(entityManager).select(select.toArray(new Expression<?>[0]))
+				.from(post);
+		if (facet.needsAuthor()) {
+			query.leftJoin(post.author, PostProjection.AUTHOR);
+		}
+		if (facet.needsPostType()) {
+			query.leftJoin(post.postType, PostProjection.POST_TYPE);
+		}
+		predicate.bind(query.where(predicate.getExpression()));
+		query.groupBy(facet.getGroupBy().toArray(new Expression<?>[0]));
+		if (!facet.isChronological()) {
+			query.orderBy(count.desc());
+		}
+		Order order = facet.isChronological() ? Order.DESC : Order.ASC;
+		for (Expression<?> groupBy : facet.getGroupBy()) {
+			query.orderBy(new OrderSpecifier<>(order, (Expression<Comparable>) groupBy));
+		}
+		return query.limit(limit).fetch();
+	}
+
+	private Querydsl querydsl() {
+		return new Querydsl(entityManager, new PathBuilder<>(Post.class, QPost.post.getMetadata()));
+	}
+}
@@ -0,0 +1,12 @@
+package com.abhicodes.querydsldynamicquery.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.stereotype.Repository;
+
+import com.abhicodes.querydsldynamicquery.entity.Users;
+
+@Repository
+public interface UsersRepository extends JpaRepository<Users, Integer>, QuerydslPredicateExecutor<Users> {
+
+}
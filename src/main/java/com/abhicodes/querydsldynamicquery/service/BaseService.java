@@ -2,17 +2,17 @@ package com.abhicodes.querydsldynamicquery.service;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
-import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.component.FilterExpressionParser;
+import com.abhicodes.querydsldynamicquery.component.FilterParser;
 import com.abhicodes.querydsldynamicquery.predicate.CommonPredicateBuilder;
+import com.abhicodes.querydsldynamicquery.predicate.FilterExpression;
+import com.abhicodes.querydsldynamicquery.predicate.PropertyMetadataRegistry;
 import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
 import com.querydsl.core.types.dsl.BooleanExpression;
 
@@ -22,6 +22,15 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 @Service
 public class BaseService {
 
+	@Autowired
+	FilterParser filterParser;
+
+	@Autowired
+	FilterExpressionParser filterExpressionParser;
+
+	@Autowired
+	protected PropertyMetadataRegistry propertyMetadataRegistry;
+
 	/**
 	 * Format search criteria.
 	 *
@@ -31,38 +40,40 @@ public class BaseService {
 	public List<SearchCriteria> formatSearchCriteria(String[] filter) {
 		List<SearchCriteria> criterias = new ArrayList<>();
 		if (null != filter) {
-			Collection<SearchCriteria> collect = Arrays.asList(filter).parallelStream().map(this::validateFilterPattern)
-					.collect(Collectors.toList());
-			criterias.addAll(collect);
+			for (String f : filter) {
+				criterias.add(filterParser.parse(f));
+			}
 		}
 		return criterias;
 	}
 
 	/**
-	 * Gets the and boolean expression.
+	 * Format search criteria of the filters and the boolean filter expression,
+	 * ANDed. The expression is flattened as far as it is a conjunction of
+	 * filters, see {@link FilterExpression#toCriterias()}.
 	 *
-	 * @param criterias the criterias
-	 * @param t         the t
-	 * @return the and boolean expression
+	 * @param filter the filter
+	 * @param where  the boolean filter expression, or null
+	 * @return the list
 	 */
-	public BooleanExpression getAndBooleanExpression(List<SearchCriteria> criterias, Class<Post> t) {
-		return new CommonPredicateBuilder<>(t).and(criterias).build();
+	public List<SearchCriteria> formatSearchCriteria(String[] filter, String where) {
+		List<SearchCriteria> criterias = formatSearchCriteria(filter);
+		if (StringUtils.hasText(where)) {
+			criterias.addAll(filterExpressionParser.parse(where).toCriterias());
+		}
+		return criterias;
 	}
 
 	/**
-	 * Validate filter pattern.
+	 * Gets the and boolean expression.
 	 *
-	 * @param filter the filter
-	 * @return the search criteria
+	 * @param <T>       the entity type
+	 * @param criterias the criterias
+	 * @param t         the t
+	 * @return the and boolean expression
 	 */
-	private SearchCriteria validateFilterPattern(String filter) {
-		final Pattern pattern = Pattern.compile("([\\w.]+?)(:|<|>|<=|>=|%|-|\\(\\))([\\w\\s\\(\\),.:-]+?)\\|");
-		Matcher m = pattern.matcher(filter + "|");
-		if (m.find()) {
-			return SearchCriteria.builder().key(m.group(1)).operator(m.group(2)).value(m.group(3)).build();
-		} else {
-			throw new RuntimeException("Invalid Filter format");
-		}
+	public <T> BooleanExpression getAndBooleanExpression(List<SearchCriteria> criterias, Class<T> t) {
+		return new CommonPredicateBuilder<>(t, propertyMetadataRegistry).and(criterias).build();
 	}
 
 	@SuppressWarnings("unused")
@@ -0,0 +1,286 @@
+package com.abhicodes.querydsldynamicquery.serviceimpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.abhicodes.querydsldynamicquery.component.ListingCache;
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard.Decision;
+import com.abhicodes.querydsldynamicquery.config.VirtualThreadConfig;
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.predicate.OptimizedCriteria;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+import com.abhicodes.querydsldynamicquery.utils.PostUtils;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.abhicodes.querydsldynamicquery.vo.BatchQuery;
+
+/**
+ * Runs several post listings of one request concurrently on a bounded pool.
+ * Every filter is parsed and validated up front, each listing queries in its
+ * own read-only transaction, and all pages are mapped in one pass so their
+ * references are looked up together. When the pool and its queue are full the
+ * requesting thread runs the listing itself. In the virtual execution mode on a
+ * Java 21 runtime each listing runs on its own virtual thread instead, bounded
+ * by the maximum number of queries and the Hikari pool. All queries of a
+ * request share one deadline, which also bounds their JDBC query timeout.
+ */
+@Service
+public class PostBatchService implements DisposableBean {
+
+	@Autowired
+	PostService ps;
+
+	@Autowired
+	PostUtils pu;
+
+	@Autowired
+	ListingCache listingCache;
+
+	private final ExecutorService executor;
+
+	private final int maxQueries;
+
+	private final Duration timeout;
+
+	private final int defaultPageSize;
+
+	private final int maxPageSize;
+
+	/**
+	 * Instantiates a new post batch service.
+	 *
+	 * @param executionMode   the request execution mode, platform or virtual
+	 * @param poolSize        the number of listings run at once
+	 * @param queueCapacity   the number of listings waiting for the pool
+	 * @param maxQueries      the maximum number of listings of one request
+	 * @param timeout         how long a request waits for all its listings
+	 * @param defaultPageSize the page size of listings without one
+	 * @param maxPageSize     the largest page size
+	 */
+	public PostBatchService(@Value("${app.web.execution-mode:platform}") String executionMode,
+			@Value("${app.query.batch.pool-size:8}") int poolSize,
+			@Value("${app.query.batch.queue-capacity:64}") int queueCapacity,
+			@Value("${app.query.batch.max-queries:10}") int maxQueries,
+			@Value("${app.query.batch.timeout:30s}") Duration timeout,
+			@Value("${spring.data.web.pageable.default-page-size:20}") int defaultPageSize,
+			@Value("${spring.data.web.pageable.max-page-size:2000}") int maxPageSize) {
+		ExecutorService virtual = "virtual".equals(executionMode)
+				? VirtualThreadConfig.newVirtualThreadPerTaskExecutor()
+				: null;
+		this.executor = null != virtual ? virtual : newBoundedPool(poolSize, queueCapacity);
+		this.maxQueries = maxQueries;
+		this.timeout = timeout;
+		this.defaultPageSize = defaultPageSize;
+		this.maxPageSize = maxPageSize;
+	}
+
+	private static ExecutorService newBoundedPool(int poolSize, int queueCapacity) {
+		AtomicInteger threads = new AtomicInteger();
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), r -> {
+					Thread thread = new Thread(r, "batch-query-" + threads.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	/**
+	 * Gets the listings of the batch, by query name in request order. Listings
+	 * found in the listing cache are not queried.
+	 *
+	 * @param queries the queries
+	 * @return the slices by query name
+	 */
+	public Map<String, Slice<PostDTO>> getPostListings(List<BatchQuery> queries) {
+		validate(queries);
+		Map<String, Slice<PostDTO>> results = new LinkedHashMap<>();
+		List<PendingListing> pending = new ArrayList<>();
+		List<Future<?>> outstanding = new ArrayList<>();
+		long deadline = getDeadline();
+		for (BatchQuery query : queries) {
+			OptimizedCriteria optimized = pu.optimize(ps.getSearchCriteria(query.getFilter(), query.getWhere()));
+			PageRequest pageRequest = pu.getCustomizablePage(getPageRequest(query));
+			CountStrategy strategy = ps.getCountStrategy(CountStrategy.of(query.getCount()));
+			if (optimized.isUnsatisfiable()) {
+				results.put(query.getName(), ps.emptySlice(pageRequest, strategy));
+				continue;
+			}
+			List<SearchCriteria> criteria = optimized.getCriterias();
+			Decision decision = pu.guard(criteria);
+			Slice<PostDTO> cached = listingCache.getIfPresent(Post.class, criteria, pageRequest, strategy);
+			results.put(query.getName(), cached);
+			if (null == cached) {
+				CompletableFuture<Slice<Post>> page = submit(
+						() -> ps.findPostPage(criteria, pageRequest, strategy, decision, deadline));
+				outstanding.add(page);
+				pending.add(new PendingListing(query.getName(), criteria, pageRequest, strategy, page));
+			}
+		}
+		List<Post> posts = new ArrayList<>();
+		for (PendingListing listing : pending) {
+			posts.addAll(await(listing.page, deadline, listing.name, outstanding).getContent());
+		}
+		Function<Post, PostDTO> mapper = pu.getListingMapper(posts);
+		for (PendingListing listing : pending) {
+			Slice<PostDTO> slice = listing.page.join().map(mapper);
+			listingCache.put(Post.class, listing.criteria, listing.pageRequest, listing.strategy, slice);
+			results.put(listing.name, slice);
+		}
+		return results;
+	}
+
+	private void validate(List<BatchQuery> queries) {
+		if (null == queries || queries.isEmpty()) {
+			throw new RuntimeException("No batch queries");
+		}
+		if (queries.size() > maxQueries) {
+			throw new RuntimeException("At most " + maxQueries + " batch queries are allowed");
+		}
+		Set<String> names = new HashSet<>();
+		for (BatchQuery query : queries) {
+			if (!StringUtils.hasText(query.getName()) || !names.add(query.getName())) {
+				throw new RuntimeException("Batch query names must be present and unique");
+			}
+		}
+	}
+
+	/**
+	 * Gets the page request of the query, with one-indexed pages and the listing
+	 * defaults of the single listing endpoint.
+	 *
+	 * @param query the query
+	 * @return the page request
+	 */
+	private PageRequest getPageRequest(BatchQuery query) {
+		int page = null == query.getPage() ? 0 : Math.max(query.getPage() - 1, 0);
+		int size = null == query.getSize() || query.getSize() < 1 ? defaultPageSize
+				: Math.min(query.getSize(), maxPageSize);
+		Sort sort = Sort.by(Direction.DESC, PostUtils.DEFAULT_SORT);
+		if (null != query.getSort() && query.getSort().length > 0) {
+			List<Sort.Order> orders = new ArrayList<>();
+			for (String order : query.getSort()) {
+				String[] parts = order.split(",");
+				orders.add(parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim())
+						? Sort.Order.desc(parts[0].trim())
+						: Sort.Order.asc(parts[0].trim()));
+			}
+			sort = Sort.by(orders);
+		}
+		return PageRequest.of(page, size, sort);
+	}
+
+	/**
+	 * Runs a query of a request on the batch pool, or on the calling thread when
+	 * the pool and its queue are full, or on a virtual thread.
+	 *
+	 * @param <V>   the result type
+	 * @param query the query
+	 * @return the future result
+	 */
+	public <V> CompletableFuture<V> submit(Supplier<V> query) {
+		return CompletableFuture.supplyAsync(query, executor);
+	}
+
+	/**
+	 * Gets the deadline of the queries of a request starting now, in
+	 * {@link System#nanoTime()} units.
+	 *
+	 * @return the deadline
+	 */
+	public long getDeadline() {
+		return System.nanoTime() + timeout.toNanos();
+	}
+
+	/**
+	 * Waits for a query until the deadline. When it fails or the deadline passes,
+	 * all outstanding queries of the request are cancelled, so those still queued
+	 * never run; those already running are ended by their query timeout.
+	 *
+	 * @param <V>         the result type
+	 * @param result      the future result
+	 * @param deadline    the deadline, see {@link #getDeadline()}
+	 * @param name        the query name, for errors
+	 * @param outstanding the queries of the request
+	 * @return the result
+	 */
+	static <V> V await(CompletableFuture<V> result, long deadline, String name,
+			Collection<? extends Future<?>> outstanding) {
+		try {
+			return result.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			cancel(outstanding);
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while running batch query " + name);
+		} catch (TimeoutException e) {
+			cancel(outstanding);
+			throw new RuntimeException("Batch query " + name + " timed out");
+		} catch (ExecutionException e) {
+			cancel(outstanding);
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+					: new RuntimeException("Batch query " + name + " failed", e.getCause());
+		}
+	}
+
+	private static void cancel(Collection<? extends Future<?>> outstanding) {
+		outstanding.forEach(future -> future.cancel(true));
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * A listing being queried on the pool.
+	 */
+	private final class PendingListing {
+
+		private final String name;
+
+		private final List<SearchCriteria> criteria;
+
+		private final PageRequest pageRequest;
+
+		private final CountStrategy strategy;
+
+		private final CompletableFuture<Slice<Post>> page;
+
+		private PendingListing(String name, List<SearchCriteria> criteria, PageRequest pageRequest,
+				CountStrategy strategy, CompletableFuture<Slice<Post>> page) {
+			this.name = name;
+			this.criteria = criteria;
+			this.pageRequest = pageRequest;
+			this.strategy = strategy;
+			this.page = page;
+		}
+	}
+}
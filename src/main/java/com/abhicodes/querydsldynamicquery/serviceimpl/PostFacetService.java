@@ -0,0 +1,138 @@
+package com.abhicodes.querydsldynamicquery.serviceimpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.abhicodes.querydsldynamicquery.component.ListingCache;
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard.Decision;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.predicate.OptimizedCriteria;
+import com.abhicodes.querydsldynamicquery.predicate.PropertyMetadata;
+import com.abhicodes.querydsldynamicquery.predicate.PropertyMetadataRegistry;
+import com.abhicodes.querydsldynamicquery.repository.PostFacet;
+import com.abhicodes.querydsldynamicquery.utils.PostUtils;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.abhicodes.querydsldynamicquery.vo.FacetResult;
+
+/**
+ * Computes facet counts of the posts matching a filter, with the filter
+ * pipeline of the listings. Each facet is one GROUP BY query; facets missing
+ * from the listing cache run concurrently on the batch pool, each in its own
+ * read-only transaction, under the deadline of the batch listings.
+ */
+@Service
+public class PostFacetService {
+
+	@Autowired
+	PostService ps;
+
+	@Autowired
+	PostUtils pu;
+
+	@Autowired
+	PostBatchService pbs;
+
+	@Autowired
+	ListingCache listingCache;
+
+	@Autowired
+	PropertyMetadataRegistry propertyMetadataRegistry;
+
+	@Value("${app.query.facets.max-buckets:50}")
+	int maxBuckets;
+
+	/**
+	 * Gets the facets of the posts matching the filters and the boolean filter
+	 * expression, by facet name in request order.
+	 *
+	 * @param filter the filter
+	 * @param where  the boolean filter expression, or null
+	 * @param facets the facet names, comma separated or repeated
+	 * @param stats  the numeric properties to aggregate per bucket, or null
+	 * @return the buckets by facet name, each flagged when truncated
+	 */
+	public Map<String, FacetResult> getPostFacets(String[] filter, String where, String[] facets, String[] stats) {
+		Set<PostFacet> facetSet = new LinkedHashSet<>();
+		for (String name : split(facets)) {
+			facetSet.add(PostFacet.of(name));
+		}
+		if (facetSet.isEmpty()) {
+			throw new RuntimeException("No facets requested");
+		}
+		List<String> statKeys = split(stats);
+		statKeys.forEach(this::validateStat);
+		Collections.sort(statKeys);
+		OptimizedCriteria optimized = pu.optimize(ps.getSearchCriteria(filter, where));
+		Map<String, FacetResult> results = new LinkedHashMap<>();
+		if (optimized.isUnsatisfiable()) {
+			facetSet.forEach(facet -> results.put(facet.getName(), new FacetResult(Collections.emptyList(), false)));
+			return results;
+		}
+		List<SearchCriteria> criteria = optimized.getCriterias();
+		Decision decision = pu.guard(criteria);
+		Map<PostFacet, CompletableFuture<FacetResult>> pending = new LinkedHashMap<>();
+		long deadline = pbs.getDeadline();
+		for (PostFacet facet : facetSet) {
+			FacetResult cached = listingCache.getIfPresent(Post.class, criteria, variant(facet, statKeys));
+			results.put(facet.getName(), cached);
+			if (null == cached) {
+				pending.put(facet, pbs.submit(
+						() -> ps.findPostFacet(criteria, facet, statKeys, maxBuckets, decision, deadline)));
+			}
+		}
+		for (Map.Entry<PostFacet, CompletableFuture<FacetResult>> entry : pending.entrySet()) {
+			PostFacet facet = entry.getKey();
+			FacetResult result = PostBatchService.await(entry.getValue(), deadline, facet.getName(),
+					pending.values());
+			listingCache.put(Post.class, criteria, variant(facet, statKeys), result);
+			results.put(facet.getName(), result);
+		}
+		return results;
+	}
+
+	private void validateStat(String key) {
+		PropertyMetadata metadata = propertyMetadataRegistry.contains(Post.class, key)
+				? propertyMetadataRegistry.get(Post.class, key)
+				: null;
+		if (null == metadata || null != metadata.getCollection()
+				|| !Number.class.isAssignableFrom(metadata.getType())) {
+			throw new RuntimeException("Unsupported facet statistic " + key);
+		}
+	}
+
+	/**
+	 * Gets the listing cache variant of the facet.
+	 *
+	 * @param facet the facet
+	 * @param stats the sorted statistic keys, so their request order does not
+	 *              split the cache
+	 * @return the variant
+	 */
+	private static String variant(PostFacet facet, List<String> stats) {
+		return "facet:" + facet.getName() + ':' + String.join(",", stats);
+	}
+
+	private static List<String> split(String[] values) {
+		Set<String> split = new LinkedHashSet<>();
+		if (null != values) {
+			for (String value : values) {
+				for (String part : value.split(",")) {
+					if (!part.trim().isEmpty()) {
+						split.add(part.trim());
+					}
+				}
+			}
+		}
+		return new ArrayList<>(split);
+	}
+}
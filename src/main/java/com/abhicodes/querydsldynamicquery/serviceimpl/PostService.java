@@ -1,19 +1,58 @@
 package com.abhicodes.querydsldynamicquery.serviceimpl;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import com.abhicodes.querydsldynamicquery.component.CommonComponent;
+import com.abhicodes.querydsldynamicquery.component.CountCache;
+import com.abhicodes.querydsldynamicquery.component.ListingCache;
+import com.abhicodes.querydsldynamicquery.component.ListingTrace;
+import com.abhicodes.querydsldynamicquery.component.ListingTrace.Phase;
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard;
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard.Decision;
+import com.abhicodes.querydsldynamicquery.component.QueryMetrics;
+import com.abhicodes.querydsldynamicquery.component.ReferenceDataDictionary;
 import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.predicate.BoundPredicate;
+import com.abhicodes.querydsldynamicquery.predicate.KeysetPredicateBuilder;
+import com.abhicodes.querydsldynamicquery.predicate.OptimizedCriteria;
+import com.abhicodes.querydsldynamicquery.repository.PostFacet;
+import com.abhicodes.querydsldynamicquery.repository.PostProjection;
 import com.abhicodes.querydsldynamicquery.repository.PostRepository;
 import com.abhicodes.querydsldynamicquery.service.BaseService;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+import com.abhicodes.querydsldynamicquery.utils.ExportFormat;
+import com.abhicodes.querydsldynamicquery.utils.PostExportWriter;
 import com.abhicodes.querydsldynamicquery.utils.PostUtils;
 import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.abhicodes.querydsldynamicquery.vo.CursorSlice;
+import com.abhicodes.querydsldynamicquery.vo.FacetBucket;
+import com.abhicodes.querydsldynamicquery.vo.FacetResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.NumberExpression;
 
 @Service
 public class PostService extends BaseService {
@@ -24,11 +63,395 @@ public class PostService extends BaseService {
 	@Autowired
 	PostRepository pr;
 
-	public Page<PostDTO> getPostListing(String[] filter, Pageable pageable) {
-		List<SearchCriteria> criteria = formatSearchCriteria(filter);
-		BooleanExpression exp = pu.getPCQFilterExp(criteria);
-		PageRequest pageRequest = pu.getCustomizablePage(pageable);
-		return pr.findAll(exp, pageRequest).map(pcq -> pu.mapToDTO(pcq));
+	@Autowired
+	CommonComponent commonComponent;
+
+	@Autowired
+	CountCache countCache;
+
+	@Autowired
+	ListingCache listingCache;
+
+	@Autowired
+	ReferenceDataDictionary referenceDataDictionary;
+
+	@Autowired
+	QueryMetrics queryMetrics;
+
+	@Autowired
+	QueryCostGuard queryCostGuard;
+
+	@Value("${app.query.compiled:false}")
+	boolean compiledQuery;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Value("${app.query.count-strategy:exact}")
+	String defaultCountStrategy;
+
+	@Value("${app.export.fetch-size:1000}")
+	int exportFetchSize;
+
+	@Value("${app.export.clear-interval:500}")
+	int exportClearInterval;
+
+	/**
+	 * Gets a page of posts. With {@link CountStrategy#NONE} the result is a slice
+	 * without totals, otherwise a page. Results are served from the listing cache
+	 * when it is enabled. A filter no post can match is answered without a query.
+	 *
+	 * @param filter        the filter
+	 * @param pageable      the pageable
+	 * @param countStrategy the count strategy, or null for the configured default
+	 * @return the slice
+	 */
+	@Transactional(readOnly = true)
+	public Slice<PostDTO> getPostListing(String[] filter, Pageable pageable, CountStrategy countStrategy) {
+		return getPostListing(filter, null, pageable, countStrategy);
+	}
+
+	/**
+	 * Gets a page of posts matching the filters and the boolean filter
+	 * expression, as {@link #getPostListing(String[], Pageable, CountStrategy)}.
+	 *
+	 * @param filter        the filter
+	 * @param where         the boolean filter expression, or null
+	 * @param pageable      the pageable
+	 * @param countStrategy the count strategy, or null for the configured default
+	 * @return the slice
+	 */
+	@Transactional(readOnly = true)
+	public Slice<PostDTO> getPostListing(String[] filter, String where, Pageable pageable,
+			CountStrategy countStrategy) {
+		try (ListingTrace trace = queryMetrics.start(Post.class)) {
+			GuardedCriteria guarded = prepareCriteria(trace, filter, where);
+			PageRequest pageRequest = pu.getCustomizablePage(pageable);
+			trace.setSort(pageRequest.getSort());
+			CountStrategy strategy = getCountStrategy(countStrategy);
+			if (guarded.isUnsatisfiable()) {
+				return emptySlice(pageRequest, strategy);
+			}
+			List<SearchCriteria> criteria = guarded.getCriterias();
+			Decision decision = guarded.getDecision();
+			return listingCache.get(Post.class, criteria, pageRequest, strategy, () -> {
+				queryCostGuard.apply(decision);
+				Slice<Post> page = findPostPage(criteria, pageRequest, strategy);
+				return ListingTrace.time(Phase.MAP, () -> page.map(pu.getListingMapper(page.getContent())));
+			});
+		}
+	}
+
+	/**
+	 * Parses, validates and optimizes the filter of a listing, recording the
+	 * criteria on its trace, and runs the cost guard on the optimized criteria.
+	 *
+	 * @param trace  the listing trace
+	 * @param filter the filter
+	 * @param where  the boolean filter expression, or null
+	 * @return the optimized criteria with their decision
+	 */
+	private GuardedCriteria prepareCriteria(ListingTrace trace, String[] filter, String where) {
+		OptimizedCriteria optimized = ListingTrace.time(Phase.PARSE, () -> {
+			List<SearchCriteria> criteria = getSearchCriteria(filter, where);
+			trace.setCriterias(criteria);
+			return pu.optimize(criteria);
+		});
+		return new GuardedCriteria(optimized,
+				optimized.isUnsatisfiable() ? null : pu.guard(optimized.getCriterias()));
 	}
 
+	/**
+	 * Gets a page of post entities for optimized criteria, leaving the mapping to
+	 * the caller. Its queries run under a timeout of the time left to the
+	 * deadline.
+	 *
+	 * @param criteria      the optimized criteria
+	 * @param pageRequest   the page request, as customized for posts
+	 * @param countStrategy the count strategy
+	 * @param decision      the cost guard decision on the criteria
+	 * @param deadline      the deadline, in {@link System#nanoTime()} units
+	 * @return the slice
+	 */
+	@Transactional(readOnly = true)
+	public Slice<Post> findPostPage(List<SearchCriteria> criteria, PageRequest pageRequest,
+			CountStrategy countStrategy, Decision decision, long deadline) {
+		queryCostGuard.apply(decision, deadline);
+		return findPostPage(criteria, pageRequest, countStrategy);
+	}
+
+	private Slice<Post> findPostPage(List<SearchCriteria> criteria, PageRequest pageRequest,
+			CountStrategy countStrategy) {
+		BoundPredicate predicate = ListingTrace.time(Phase.BUILD, () -> getPredicate(criteria));
+		ListingTrace.describe(predicate);
+		return getPage(predicate, criteria, pageRequest, countStrategy);
+	}
+
+	/**
+	 * Gets the facet buckets of posts matching optimized criteria, see
+	 * {@link PostRepository#findFacet}, under a timeout of the time left to the
+	 * deadline.
+	 *
+	 * @param criteria the optimized criteria
+	 * @param facet    the facet
+	 * @param stats    the numeric properties to aggregate per bucket
+	 * @param limit    the maximum number of buckets
+	 * @param decision the cost guard decision on the criteria
+	 * @param deadline the deadline, in {@link System#nanoTime()} units
+	 * @return the buckets, truncated if there are more than the limit
+	 */
+	@Transactional(readOnly = true)
+	public FacetResult findPostFacet(List<SearchCriteria> criteria, PostFacet facet, List<String> stats,
+			long limit, Decision decision, long deadline) {
+		queryCostGuard.apply(decision, deadline);
+		List<NumberExpression<?>> statExps = stats.stream()
+				.map(key -> (NumberExpression<?>) propertyMetadataRegistry.get(Post.class, key).getPath())
+				.collect(Collectors.toList());
+		List<Tuple> rows = pr.findFacet(getPredicate(criteria), facet, statExps, limit + 1);
+		boolean truncated = rows.size() > limit;
+		if (truncated) {
+			rows = rows.subList(0, (int) limit);
+		}
+		int offset = facet.getGroupBy().size();
+		List<FacetBucket> buckets = new ArrayList<>(rows.size());
+		for (Tuple row : rows) {
+			Map<String, Number> min = new LinkedHashMap<>();
+			Map<String, Number> max = new LinkedHashMap<>();
+			Map<String, Double> average = new LinkedHashMap<>();
+			for (int i = 0; i < stats.size(); i++) {
+				min.put(stats.get(i), row.get(offset + 1 + 3 * i, Number.class));
+				max.put(stats.get(i), row.get(offset + 2 + 3 * i, Number.class));
+				average.put(stats.get(i), row.get(offset + 3 + 3 * i, Double.class));
+			}
+			buckets.add(FacetBucket.builder().value(facet.getValue(row)).count(row.get(offset, Long.class))
+					.min(stats.isEmpty() ? null : min).max(stats.isEmpty() ? null : max)
+					.average(stats.isEmpty() ? null : average).build());
+		}
+		return new FacetResult(buckets, truncated);
+	}
+
+	private BoundPredicate getPredicate(List<SearchCriteria> criteria) {
+		return compiledQuery ? pu.getPCQBoundFilterExp(criteria) : BoundPredicate.of(pu.getPCQFilterExp(criteria));
+	}
+
+	/**
+	 * Gets the empty result of a filter no post can match.
+	 *
+	 * @param pageRequest   the page request
+	 * @param countStrategy the count strategy
+	 * @return the empty slice, a page unless counting is skipped
+	 */
+	<R> Slice<R> emptySlice(PageRequest pageRequest, CountStrategy countStrategy) {
+		return CountStrategy.NONE == countStrategy ? new SliceImpl<>(Collections.emptyList(), pageRequest, false)
+				: new PageImpl<>(Collections.emptyList(), pageRequest, 0);
+	}
+
+	/**
+	 * Gets the validated search criteria of the filter, with post type references
+	 * resolved.
+	 *
+	 * @param filter the filter
+	 * @return the search criteria
+	 */
+	public List<SearchCriteria> getSearchCriteria(String[] filter) {
+		return getSearchCriteria(filter, null);
+	}
+
+	/**
+	 * Gets the validated search criteria of the filter and the boolean filter
+	 * expression, with post type references resolved.
+	 *
+	 * @param filter the filter
+	 * @param where  the boolean filter expression, or null
+	 * @return the search criteria
+	 */
+	public List<SearchCriteria> getSearchCriteria(String[] filter, String where) {
+		return pu.validate(pu.resolveReferences(formatSearchCriteria(filter, where)));
+	}
+
+	/**
+	 * Gets the count strategy to use.
+	 *
+	 * @param countStrategy the requested count strategy
+	 * @return the count strategy
+	 */
+	public CountStrategy getCountStrategy(CountStrategy countStrategy) {
+		return null == countStrategy ? CountStrategy.of(defaultCountStrategy) : countStrategy;
+	}
+
+	private Slice<Post> getPage(BoundPredicate predicate, List<SearchCriteria> criteria, PageRequest pageRequest,
+			CountStrategy countStrategy) {
+		boolean fetchReferences = !referenceDataDictionary.isEnabled();
+		return getPage(predicate, criteria, pageRequest, countStrategy,
+				limit -> pr.findContent(predicate, pageRequest, limit, fetchReferences));
+	}
+
+	private <R> Slice<R> getPage(BoundPredicate predicate, List<SearchCriteria> criteria, PageRequest pageRequest,
+			CountStrategy countStrategy, LongFunction<List<R>> content) {
+		int size = pageRequest.getPageSize();
+		CountStrategy strategy = getCountStrategy(countStrategy);
+		if (CountStrategy.NONE == strategy) {
+			List<R> rows = ListingTrace.time(Phase.SELECT, () -> content.apply(size + 1L));
+			boolean hasNext = rows.size() > size;
+			return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageRequest, hasNext);
+		}
+		List<R> rows = ListingTrace.time(Phase.SELECT, () -> content.apply(size));
+		LongSupplier count = () -> ListingTrace.time(Phase.COUNT, () -> pr.count(predicate));
+		if (CountStrategy.CACHED == strategy) {
+			return PageableExecutionUtils.getPage(rows, pageRequest,
+					() -> countCache.get(Post.class, criteria, count));
+		}
+		return PageableExecutionUtils.getPage(rows, pageRequest, count);
+	}
+
+	/**
+	 * Gets a page of posts with only the requested fields, see
+	 * {@link PostProjection}. Filtering, counting, the cost guard and the listing
+	 * cache work as for {@link #getPostListing(String[], String, Pageable, CountStrategy)},
+	 * but rows are selected as tuples of the projected columns and returned as
+	 * maps, without loading entities.
+	 *
+	 * @param filter        the filter
+	 * @param where         the boolean filter expression, or null
+	 * @param projection    the projection
+	 * @param pageable      the pageable
+	 * @param countStrategy the count strategy, or null for the configured default
+	 * @return the slice of rows
+	 */
+	@Transactional(readOnly = true)
+	public Slice<Map<String, Object>> getPostListing(String[] filter, String where, PostProjection projection,
+			Pageable pageable, CountStrategy countStrategy) {
+		try (ListingTrace trace = queryMetrics.start(Post.class)) {
+			GuardedCriteria guarded = prepareCriteria(trace, filter, where);
+			PageRequest pageRequest = pu.getCustomizablePage(pageable);
+			trace.setSort(pageRequest.getSort());
+			CountStrategy strategy = getCountStrategy(countStrategy);
+			if (guarded.isUnsatisfiable()) {
+				return emptySlice(pageRequest, strategy);
+			}
+			List<SearchCriteria> criteria = guarded.getCriterias();
+			Decision decision = guarded.getDecision();
+			return listingCache.get(Post.class, criteria, pageRequest, strategy + ":" + projection, () -> {
+				queryCostGuard.apply(decision);
+				BoundPredicate predicate = ListingTrace.time(Phase.BUILD, () -> getPredicate(criteria));
+				ListingTrace.describe(predicate);
+				Slice<Tuple> page = getPage(predicate, criteria, pageRequest, strategy,
+						limit -> pr.findProjection(predicate, projection, pageRequest, limit));
+				return ListingTrace.time(Phase.MAP, () -> page.map(projection::toMap));
+			});
+		}
+	}
+
+	/**
+	 * Gets a keyset page of posts after the cursor. No count query is run; one
+	 * extra row is fetched to tell whether there is a next page.
+	 *
+	 * @param filter   the filter
+	 * @param where    the boolean filter expression, or null
+	 * @param pageable the pageable
+	 * @param cursor   the cursor of the previous page, empty for the first page
+	 * @return the cursor slice
+	 */
+	@Transactional(readOnly = true)
+	public CursorSlice<PostDTO> getPostKeysetListing(String[] filter, String where, Pageable pageable, String cursor) {
+		try (ListingTrace trace = queryMetrics.start(Post.class)) {
+			GuardedCriteria guarded = prepareCriteria(trace, filter, where);
+			PageRequest pageRequest = pu.getCustomizablePage(pageable);
+			int size = pageRequest.getPageSize();
+			if (guarded.isUnsatisfiable()) {
+				return new CursorSlice<>(Collections.emptyList(), size, false, null);
+			}
+			List<SearchCriteria> criteria = guarded.getCriterias();
+			queryCostGuard.apply(guarded.getDecision());
+			Sort sort = commonComponent.getKeysetSort(pageRequest.getSort(), "id");
+			trace.setSort(sort);
+			KeysetPredicateBuilder<Post> keyset = new KeysetPredicateBuilder<>(Post.class, propertyMetadataRegistry);
+			BooleanExpression exp = ListingTrace.time(Phase.BUILD, () -> {
+				BooleanExpression filterExp = pu.getPCQFilterExp(criteria);
+				return StringUtils.hasText(cursor)
+						? filterExp.and(keyset.build(sort, commonComponent.decodeCursor(sort, cursor)))
+						: filterExp;
+			});
+			ListingTrace.describe(exp);
+			PageRequest keysetPage = PageRequest.of(0, size, sort);
+			boolean fetchReferences = !referenceDataDictionary.isEnabled();
+			List<Post> page = ListingTrace.time(Phase.SELECT,
+					() -> pr.findContent(BoundPredicate.of(exp), keysetPage, size + 1L, fetchReferences));
+			boolean hasNext = page.size() > size;
+			List<Post> posts = hasNext ? page.subList(0, size) : page;
+			String nextCursor = hasNext
+					? commonComponent.encodeCursor(sort, keyset.values(sort, posts.get(posts.size() - 1)))
+					: null;
+			List<PostDTO> content = ListingTrace.time(Phase.MAP,
+					() -> posts.stream().map(pu.getListingMapper(posts)).collect(Collectors.toList()));
+			return new CursorSlice<>(content, size, hasNext, nextCursor);
+		}
+	}
+
+	/**
+	 * Runs the cost guard on the criteria of a listing that is not guarded by
+	 * itself, as an export streaming its body after the response is committed.
+	 * The decision is applied by passing it to the listing.
+	 *
+	 * @param criteria the criteria
+	 * @return the decision
+	 */
+	public Decision guard(List<SearchCriteria> criteria) {
+		return pu.guard(pu.optimize(criteria).getCriterias());
+	}
+
+	/**
+	 * Exports all posts matching the criteria to the output stream in one
+	 * forward-only query, without paging or counting, under the cost guard
+	 * decision. Nothing is queried for a filter no post can match.
+	 *
+	 * @param criteria the criteria
+	 * @param pageable the pageable, for the sort only
+	 * @param format   the format
+	 * @param decision the cost guard decision on the criteria, see {@link #guard}
+	 * @param out      the output stream
+	 * @return the number of exported posts
+	 */
+	@Transactional(readOnly = true)
+	public long exportPosts(List<SearchCriteria> criteria, Pageable pageable, ExportFormat format,
+			Decision decision, OutputStream out) {
+		queryCostGuard.apply(decision);
+		OptimizedCriteria optimized = pu.optimize(criteria);
+		Sort sort = pu.getCustomizablePage(pageable).getSort();
+		try (PostExportWriter writer = new PostExportWriter(format, objectMapper, out)) {
+			if (optimized.isUnsatisfiable()) {
+				return 0;
+			}
+			BoundPredicate predicate = getPredicate(optimized.getCriterias());
+			return pr.forEach(predicate, sort, exportFetchSize, exportClearInterval,
+					post -> writer.write(pu.mapToDTO(post)));
+		}
+	}
+
+	/**
+	 * The optimized criteria of a listing and the cost guard decision on them.
+	 */
+	private static final class GuardedCriteria {
+
+		private final OptimizedCriteria optimized;
+
+		private final Decision decision;
+
+		private GuardedCriteria(OptimizedCriteria optimized, Decision decision) {
+			this.optimized = optimized;
+			this.decision = decision;
+		}
+
+		private boolean isUnsatisfiable() {
+			return optimized.isUnsatisfiable();
+		}
+
+		private List<SearchCriteria> getCriterias() {
+			return optimized.getCriterias();
+		}
+
+		private Decision getDecision() {
+			return decision;
+		}
+	}
 }
@@ -0,0 +1,178 @@
+package com.abhicodes.querydsldynamicquery.serviceimpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.abhicodes.querydsldynamicquery.component.CommonComponent;
+import com.abhicodes.querydsldynamicquery.component.FilterExpressionParser;
+import com.abhicodes.querydsldynamicquery.component.ListingTrace;
+import com.abhicodes.querydsldynamicquery.component.ListingTrace.Phase;
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard;
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard.Decision;
+import com.abhicodes.querydsldynamicquery.component.QueryMetrics;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.predicate.CriteriaOptimizer;
+import com.abhicodes.querydsldynamicquery.predicate.CriterionCost;
+import com.abhicodes.querydsldynamicquery.predicate.EntityDescriptor;
+import com.abhicodes.querydsldynamicquery.predicate.EntityDescriptorRegistry;
+import com.abhicodes.querydsldynamicquery.predicate.FilterExpression;
+import com.abhicodes.querydsldynamicquery.predicate.OptimizedCriteria;
+import com.abhicodes.querydsldynamicquery.service.BaseService;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+
+/**
+ * Searches any entity of the {@link EntityDescriptorRegistry} with the filter
+ * pipeline of the post listing: parsing, validation against the descriptor
+ * whitelists, optimization, the cost guard and a predicate run through the
+ * entity's {@link org.springframework.data.querydsl.QuerydslPredicateExecutor}.
+ * Everything about an entity is precomputed in its descriptor. Posts, once
+ * validated against their descriptor, are listed by {@link PostService} with its
+ * count strategies, compiled templates and listing cache; the other entities
+ * are always counted.
+ */
+@Service
+public class SearchService extends BaseService {
+
+	@Autowired
+	EntityDescriptorRegistry entityDescriptorRegistry;
+
+	@Autowired
+	FilterExpressionParser filterExpressionParser;
+
+	@Autowired
+	CommonComponent commonComponent;
+
+	@Autowired
+	QueryCostGuard queryCostGuard;
+
+	@Autowired
+	QueryMetrics queryMetrics;
+
+	@Autowired
+	PostService ps;
+
+	/**
+	 * Searches the entity by the filters and the boolean filter expression.
+	 *
+	 * @param entity        the entity name
+	 * @param filter        the filter
+	 * @param where         the boolean filter expression, or null
+	 * @param pageable      the pageable
+	 * @param countStrategy the count strategy, see {@link #getCountStrategy}
+	 * @return the slice of projected entities
+	 */
+	@Transactional(readOnly = true)
+	public Slice<?> search(String entity, String[] filter, String where, Pageable pageable,
+			CountStrategy countStrategy) {
+		EntityDescriptor<?> descriptor = entityDescriptorRegistry.get(entity);
+		if (Post.class != descriptor.getType()) {
+			return search(descriptor, filter, where, pageable);
+		}
+		descriptor.validate(pageable.getSort());
+		validate(descriptor, formatSearchCriteria(filter, where));
+		return ps.getPostListing(filter, where, pageable, countStrategy);
+	}
+
+	/**
+	 * Gets the count strategy of a search. Only posts support another strategy
+	 * than {@link CountStrategy#EXACT}.
+	 *
+	 * @param entity        the entity name
+	 * @param countStrategy the requested count strategy, or null for the default
+	 * @return the count strategy
+	 */
+	public CountStrategy getCountStrategy(String entity, CountStrategy countStrategy) {
+		return Post.class == entityDescriptorRegistry.get(entity).getType() ? ps.getCountStrategy(countStrategy)
+				: CountStrategy.EXACT;
+	}
+
+	private <T> Page<?> search(EntityDescriptor<T> descriptor, String[] filter, String where, Pageable pageable) {
+		try (ListingTrace trace = queryMetrics.start(descriptor.getType())) {
+			descriptor.validate(pageable.getSort());
+			PageRequest pageRequest = commonComponent.customizePagable(pageable, descriptor.getAliases());
+			trace.setSort(pageRequest.getSort());
+			OptimizedCriteria optimized = ListingTrace.time(Phase.PARSE, () -> {
+				List<SearchCriteria> criteria = formatSearchCriteria(filter, where);
+				trace.setCriterias(criteria);
+				return new CriteriaOptimizer(descriptor::getPropertyType).optimize(validate(descriptor, criteria));
+			});
+			if (optimized.isUnsatisfiable()) {
+				return Page.empty(pageRequest);
+			}
+			List<SearchCriteria> criteria = optimized.getCriterias();
+			queryCostGuard.apply(guard(descriptor, criteria));
+			BooleanExpression predicate = ListingTrace.time(Phase.BUILD, () -> getPredicate(descriptor, criteria));
+			ListingTrace.describe(predicate);
+			// an empty builder adds no where clause, unlike an always true predicate
+			Predicate condition = null == predicate ? new BooleanBuilder() : predicate;
+			Page<T> page = ListingTrace.time(Phase.SELECT,
+					() -> descriptor.getExecutor().findAll(condition, pageRequest));
+			return ListingTrace.time(Phase.MAP, () -> page.map(descriptor.getProjection()));
+		}
+	}
+
+	private List<SearchCriteria> validate(EntityDescriptor<?> descriptor, List<SearchCriteria> criterias) {
+		for (SearchCriteria criteria : criterias) {
+			if (FilterExpression.KEY.equals(criteria.getKey())) {
+				validate(descriptor, filterExpressionParser.parse(criteria.getValue()).getCriterias());
+			} else {
+				descriptor.validate(criteria);
+			}
+		}
+		return criterias;
+	}
+
+	/**
+	 * Runs the cost guard as for posts: inside a boolean expression an indexed
+	 * criteria only narrows the query when it is required.
+	 *
+	 * @param descriptor the entity descriptor
+	 * @param criterias  the optimized criterias
+	 * @return the decision
+	 */
+	private Decision guard(EntityDescriptor<?> descriptor, List<SearchCriteria> criterias) {
+		int minTermLength = queryCostGuard.getMinTermLength();
+		List<CriterionCost> costs = new ArrayList<>();
+		for (SearchCriteria criteria : criterias) {
+			if (FilterExpression.KEY.equals(criteria.getKey())) {
+				filterExpressionParser.parse(criteria.getValue()).forEachCriteria((c, required) -> {
+					CriterionCost cost = descriptor.classify(c, minTermLength);
+					costs.add(!required && CriterionCost.INDEXED == cost ? CriterionCost.SCAN : cost);
+				});
+			} else {
+				costs.add(descriptor.classify(criteria, minTermLength));
+			}
+		}
+		return queryCostGuard.check(descriptor.getType(), costs);
+	}
+
+	/**
+	 * Gets the predicate ANDing the criterias.
+	 *
+	 * @param descriptor the entity descriptor
+	 * @param criterias  the optimized criterias
+	 * @return the predicate, or null without criterias
+	 */
+	private BooleanExpression getPredicate(EntityDescriptor<?> descriptor, List<SearchCriteria> criterias) {
+		List<BooleanExpression> predicates = new ArrayList<>(criterias.size());
+		for (SearchCriteria criteria : criterias) {
+			predicates.add(FilterExpression.KEY.equals(criteria.getKey())
+					? filterExpressionParser.parse(criteria.getValue()).compile(descriptor::getPredicate)
+					: descriptor.getPredicate(criteria));
+		}
+		return predicates.isEmpty() ? null : FilterExpression.balanced(Ops.AND, predicates);
+	}
+}
@@ -0,0 +1,34 @@
+package com.abhicodes.querydsldynamicquery.utils;
+
+/**
+ * How the total number of results of a listing is determined.
+ */
+public enum CountStrategy {
+
+	/** Run a count query on every request. */
+	EXACT,
+
+	/** Run no count query; fetch one extra row to tell whether there is a next page. */
+	NONE,
+
+	/** Reuse the count of the same filter for a configured time to live. */
+	CACHED;
+
+	/**
+	 * Parses the strategy, ignoring case.
+	 *
+	 * @param value the value
+	 * @return the count strategy, or null if the value is empty
+	 */
+	public static CountStrategy of(String value) {
+		if (null == value || value.isBlank()) {
+			return null;
+		}
+		for (CountStrategy strategy : values()) {
+			if (strategy.name().equalsIgnoreCase(value.trim())) {
+				return strategy;
+			}
+		}
+		throw new RuntimeException("Unsupported count strategy " + value);
+	}
+}
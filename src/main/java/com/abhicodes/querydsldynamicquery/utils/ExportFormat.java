@@ -0,0 +1,37 @@
+package com.abhicodes.querydsldynamicquery.utils;
+
+import org.springframework.http.MediaType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Export file formats.
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+
+	NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+
+	CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+	private final MediaType mediaType;
+
+	private final String extension;
+
+	/**
+	 * Parses the format, ignoring case.
+	 *
+	 * @param value the value
+	 * @return the export format
+	 */
+	public static ExportFormat of(String value) {
+		for (ExportFormat format : values()) {
+			if (format.name().equalsIgnoreCase(value)) {
+				return format;
+			}
+		}
+		throw new RuntimeException("Unsupported export format " + value);
+	}
+}
@@ -0,0 +1,88 @@
+package com.abhicodes.querydsldynamicquery.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A small, synchronized, size bounded LRU cache.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LruCache<K, V> {
+
+	private final Map<K, V> map;
+
+	/**
+	 * Instantiates a new LRU cache.
+	 *
+	 * @param maxSize the maximum number of entries
+	 */
+	public LruCache(int maxSize) {
+		this.map = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Gets the cached value, computing it outside the lock when absent.
+	 *
+	 * @param key    the key
+	 * @param loader the loader
+	 * @return the value
+	 */
+	public V get(K key, Function<K, V> loader) {
+		synchronized (map) {
+			V cached = map.get(key);
+			if (null != cached) {
+				return cached;
+			}
+		}
+		V value = loader.apply(key);
+		if (null != value) {
+			synchronized (map) {
+				map.put(key, value);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Gets the cached value.
+	 *
+	 * @param key the key
+	 * @return the value, or null if absent
+	 */
+	public V getIfPresent(K key) {
+		synchronized (map) {
+			return map.get(key);
+		}
+	}
+
+	/**
+	 * Puts the value.
+	 *
+	 * @param key   the key
+	 * @param value the value
+	 */
+	public void put(K key, V value) {
+		synchronized (map) {
+			map.put(key, value);
+		}
+	}
+
+	/**
+	 * Clears the cache.
+	 */
+	public void clear() {
+		synchronized (map) {
+			map.clear();
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.abhicodes.querydsldynamicquery.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.domain.UsersDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes posts to an export stream, one JSON object per line or one CSV record
+ * per line.
+ */
+public class PostExportWriter implements AutoCloseable {
+
+	private static final String CSV_HEADER = "id,title,postType,userName,fullName,email,createdAt,updatedAt";
+
+	private final ExportFormat format;
+
+	private final ObjectMapper objectMapper;
+
+	private final BufferedWriter writer;
+
+	/**
+	 * Instantiates a new post export writer. Closing the writer flushes but does
+	 * not close the underlying stream.
+	 *
+	 * @param format       the format
+	 * @param objectMapper the object mapper
+	 * @param out          the output stream
+	 */
+	public PostExportWriter(ExportFormat format, ObjectMapper objectMapper, OutputStream out) {
+		this.format = format;
+		this.objectMapper = objectMapper;
+		this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		if (format == ExportFormat.CSV) {
+			writeLine(CSV_HEADER);
+		}
+	}
+
+	/**
+	 * Writes the post.
+	 *
+	 * @param post the post
+	 */
+	public void write(PostDTO post) {
+		try {
+			if (format == ExportFormat.CSV) {
+				UsersDTO author = post.getAuthor();
+				writeLine(String.join(",", csv(post.getId()), csv(post.getTitle()), csv(post.getPostType()),
+						csv(null == author ? null : author.getUserName()),
+						csv(null == author ? null : author.getFullName()),
+						csv(null == author ? null : author.getEmail()), csv(post.getCreatedAt()),
+						csv(post.getUpdatedAt())));
+			} else {
+				writeLine(objectMapper.writeValueAsString(post));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			writer.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void writeLine(String line) {
+		try {
+			writer.write(line);
+			writer.write('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static String csv(Object value) {
+		if (null == value) {
+			return "";
+		}
+		String text = value.toString();
+		if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+			return text;
+		}
+		return '"' + text.replace("\"", "\"\"") + '"';
+	}
+}
@@ -1,69 +1,304 @@
 package com.abhicodes.querydsldynamicquery.utils;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import com.abhicodes.querydsldynamicquery.component.CommonComponent;
+import com.abhicodes.querydsldynamicquery.component.FilterExpressionParser;
+import com.abhicodes.querydsldynamicquery.component.PredicateTemplateCache;
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard;
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard.Decision;
+import com.abhicodes.querydsldynamicquery.component.ReferenceDataDictionary;
 import com.abhicodes.querydsldynamicquery.domain.PostDTO;
 import com.abhicodes.querydsldynamicquery.domain.UsersDTO;
 import com.abhicodes.querydsldynamicquery.entity.Post;
-import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.mapper.PostMapper;
+import com.abhicodes.querydsldynamicquery.predicate.BoundPredicate;
 import com.abhicodes.querydsldynamicquery.predicate.CommonPredicateBuilder;
+import com.abhicodes.querydsldynamicquery.predicate.CommonPredicateTemplate;
+import com.abhicodes.querydsldynamicquery.predicate.CriteriaOptimizer;
+import com.abhicodes.querydsldynamicquery.predicate.CriterionCost;
+import com.abhicodes.querydsldynamicquery.predicate.CriterionTemplate;
+import com.abhicodes.querydsldynamicquery.predicate.EntityDescriptor;
+import com.abhicodes.querydsldynamicquery.predicate.EntityDescriptor.Term;
+import com.abhicodes.querydsldynamicquery.predicate.EntityDescriptorRegistry;
+import com.abhicodes.querydsldynamicquery.predicate.FilterExpression;
+import com.abhicodes.querydsldynamicquery.predicate.FilterOperator;
+import com.abhicodes.querydsldynamicquery.predicate.OptimizedCriteria;
+import com.abhicodes.querydsldynamicquery.predicate.PredicateTemplate;
+import com.abhicodes.querydsldynamicquery.predicate.PropertyMetadataRegistry;
+import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.dsl.BooleanExpression;
 
+/**
+ * The post listing pipeline. Key aliases and term keys, such as
+ * <code>author_term</code>, come from the posts {@link EntityDescriptor}.
+ */
 @Component
 public class PostUtils {
 
+	/** The property post listings are sorted by, descending, unless a sort is requested. */
+	public static final String DEFAULT_SORT = "updatedAt";
+
 	@Autowired
-	ModelMapper modelMapper;
+	PostMapper postMapper;
 
 	@Autowired
 	CommonComponent commonComponent;
 
+	@Autowired
+	PropertyMetadataRegistry propertyMetadataRegistry;
+
+	@Autowired
+	PredicateTemplateCache predicateTemplateCache;
+
+	@Autowired
+	ReferenceDataDictionary referenceDataDictionary;
+
+	@Autowired
+	QueryCostGuard queryCostGuard;
+
+	@Autowired
+	FilterExpressionParser filterExpressionParser;
+
+	@Autowired
+	EntityDescriptorRegistry entityDescriptorRegistry;
+
+	/**
+	 * Gets the filter expression, the criterias ANDed as a balanced tree. Boolean
+	 * expression criteria are compiled through {@link FilterExpression}.
+	 *
+	 * @param criterias the criterias
+	 * @return the boolean expression
+	 */
 	public BooleanExpression getPCQFilterExp(List<SearchCriteria> criterias) {
 
-		BooleanExpression exp = new CommonPredicateBuilder<>(Post.class).build();
-		QPost qpostPath = QPost.post;
+		List<SearchCriteria> commonCriterias = new ArrayList<>();
+		List<BooleanExpression> termExps = new ArrayList<>();
+		EntityDescriptor<Post> posts = getDescriptor();
+		for (SearchCriteria criteria : criterias) {
+			if (FilterExpression.KEY.equals(criteria.getKey())) {
+				termExps.add(filterExpressionParser.parse(criteria.getValue()).compile(this::getCriteriaExp));
+			} else if (null != posts.getTerm(criteria.getKey())) {
+				termExps.add(posts.getPredicate(criteria));
+			} else {
+				commonCriterias.add(criteria);
+			}
+		}
+		if (commonCriterias.isEmpty() && !termExps.isEmpty()) {
+			return FilterExpression.balanced(Ops.AND, termExps);
+		}
+		termExps.add(0, new CommonPredicateBuilder<>(Post.class, propertyMetadataRegistry).and(commonCriterias)
+				.replaceKeyMap(posts.getAliases()).build());
+		return FilterExpression.balanced(Ops.AND, termExps);
+	}
+
+	private BooleanExpression getCriteriaExp(SearchCriteria criteria) {
+		EntityDescriptor<Post> posts = getDescriptor();
+		return null != posts.getTerm(criteria.getKey()) ? posts.getPredicate(criteria)
+				: new CommonPredicateBuilder<>(Post.class, propertyMetadataRegistry).and(criteria)
+						.replaceKeyMap(posts.getAliases()).build();
+	}
+
+	/**
+	 * Validates the criterias against the types of their properties, so
+	 * unsupported operators and malformed values are rejected before anything is
+	 * queried.
+	 *
+	 * @param criterias the criterias
+	 * @return the criterias
+	 */
+	public List<SearchCriteria> validate(List<SearchCriteria> criterias) {
+		EntityDescriptor<Post> posts = getDescriptor();
+		for (SearchCriteria criteria : criterias) {
+			if (FilterExpression.KEY.equals(criteria.getKey())) {
+				validate(filterExpressionParser.parse(criteria.getValue()).getCriterias());
+				continue;
+			}
+			FilterOperator operator = FilterOperator.of(criteria.getOperator());
+			Term term = posts.getTerm(criteria.getKey());
+			if (null != term) {
+				term.validate(operator, criteria.getValue());
+				continue;
+			}
+			String key = posts.resolve(criteria.getKey());
+			propertyMetadataRegistry.get(Post.class, key).getHandler(key).bind(key, operator, criteria.getValue());
+		}
+		return criterias;
+	}
+
+	/**
+	 * Runs the cost guard on the criterias. A term is a contains match on each of
+	 * its columns unless their full-text index serves it. Inside a
+	 * boolean expression an indexed criteria only narrows the query when it is
+	 * required, otherwise it counts as a scan.
+	 *
+	 * @param criterias the criterias
+	 * @return the decision
+	 */
+	public Decision guard(List<SearchCriteria> criterias) {
+		List<SearchCriteria> required = new ArrayList<>();
+		List<SearchCriteria> optional = new ArrayList<>();
+		for (SearchCriteria criteria : criterias) {
+			if (FilterExpression.KEY.equals(criteria.getKey())) {
+				filterExpressionParser.parse(criteria.getValue())
+						.forEachCriteria((c, isRequired) -> (isRequired ? required : optional).add(c));
+			} else {
+				required.add(criteria);
+			}
+		}
+		List<CriterionCost> costs = classify(required);
+		for (CriterionCost cost : classify(optional)) {
+			costs.add(CriterionCost.INDEXED == cost ? CriterionCost.SCAN : cost);
+		}
+		return queryCostGuard.check(Post.class, costs);
+	}
+
+	private List<CriterionCost> classify(List<SearchCriteria> criterias) {
+		EntityDescriptor<Post> posts = getDescriptor();
+		List<SearchCriteria> commonCriterias = new ArrayList<>();
+		List<CriterionCost> costs = new ArrayList<>();
 		for (SearchCriteria criteria : criterias) {
+			if (null != posts.getTerm(criteria.getKey())) {
+				costs.add(posts.classify(criteria, queryCostGuard.getMinTermLength()));
+			} else {
+				commonCriterias.add(criteria);
+			}
+		}
+		costs.addAll(new CommonPredicateBuilder<>(Post.class, propertyMetadataRegistry).and(commonCriterias)
+				.replaceKeyMap(posts.getAliases()).classify(queryCostGuard.getMinTermLength()));
+		return costs;
+	}
+
+	/**
+	 * Optimizes the criterias into their canonical form, see
+	 * {@link CriteriaOptimizer}. Keys are typed through their aliases, so
+	 * <code>postType</code> filters merge as post type ids. Keys of collection
+	 * elements are left untyped: each of their criteria may match a different
+	 * element, so they must not be intersected.
+	 *
+	 * @param criterias the criterias
+	 * @return the optimized criteria
+	 */
+	public OptimizedCriteria optimize(List<SearchCriteria> criterias) {
+		return new CriteriaOptimizer(getDescriptor()::getPropertyType).optimize(criterias);
+	}
 
-			switch (criteria.getKey()) {
-			case "author_term":
-
-				BooleanExpression authorUserNameExp = qpostPath.author.userName.containsIgnoreCase(criteria.getValue());
-				BooleanExpression authorEmailExp = qpostPath.author.email.containsIgnoreCase(criteria.getValue());
-				BooleanExpression authorFullNameExp = qpostPath.author.fullName.containsIgnoreCase(criteria.getValue());
-				exp = exp.and(authorUserNameExp.or(authorEmailExp).or(authorFullNameExp));
-				break;
-			default:
-				exp = exp.and(new CommonPredicateBuilder<>(Post.class).and(criteria)
-						.replaceKeyMap(getPostFilterReplaceMap()).build());
+	/**
+	 * Gets the filter expression as a cached template with the criteria values
+	 * bound to its parameters. Filters with a boolean expression are not
+	 * templated, their signature is the whole expression.
+	 *
+	 * @param criterias the criterias
+	 * @return the bound predicate
+	 */
+	public BoundPredicate getPCQBoundFilterExp(List<SearchCriteria> criterias) {
+		if (criterias.stream().anyMatch(c -> FilterExpression.KEY.equals(c.getKey()))) {
+			return BoundPredicate.of(getPCQFilterExp(criterias));
+		}
+		return predicateTemplateCache.get(Post.class, criterias, this::compilePCQFilterTemplate).bind(criterias);
+	}
+
+	private PredicateTemplate compilePCQFilterTemplate(List<SearchCriteria> criterias) {
+		CommonPredicateTemplate<Post> commonTemplate = new CommonPredicateTemplate<>(Post.class,
+				propertyMetadataRegistry);
+		EntityDescriptor<Post> posts = getDescriptor();
+		List<CriterionTemplate> templates = new ArrayList<>();
+		for (SearchCriteria criteria : criterias) {
+			Term term = posts.getTerm(criteria.getKey());
+			if (null != term) {
+				templates.add(term.getTemplate(FilterOperator.of(criteria.getOperator()), propertyMetadataRegistry));
+			} else {
+				templates.add(commonTemplate.getTemplate(posts.resolve(criteria.getKey()), criteria.getOperator(),
+						PredicateTemplate.arity(criteria.getValue())));
 			}
 		}
-		return exp;
+		return new PredicateTemplate(templates);
 	}
 
 	public PageRequest getCustomizablePage(Pageable pageable) {
-		return commonComponent.customizePagable(pageable, getPostFilterReplaceMap());
+		return commonComponent.customizePagable(pageable, getDescriptor().getAliases());
 	}
 
-	private Map<String, String> getPostFilterReplaceMap() {
-		Map<String, String> replaceKeyMap = new HashMap<>();
-		replaceKeyMap.put("postType", "postType.id");
-		replaceKeyMap.put("authorName", "author.fullName");
-		return replaceKeyMap;
+	private EntityDescriptor<Post> getDescriptor() {
+		return entityDescriptorRegistry.get(Post.class);
 	}
 
 	public PostDTO mapToDTO(Post post) {
-		UsersDTO author = modelMapper.map(post.getAuthor(), UsersDTO.class);
-		return PostDTO.builder().author(author).createdAt(post.getCreatedAt()).id(post.getId()).title(post.getTitle())
-				.postType(post.getPostType().getType()).build();
+		return postMapper.toDTO(post);
+	}
+
+	/**
+	 * Resolves post type equality filters to post type ids through the reference
+	 * data dictionary, so the listing query needs no join on post types. Filters
+	 * that match no post type are kept as they are, filters inside boolean
+	 * expressions are resolved too.
+	 *
+	 * @param criterias the criterias
+	 * @return the resolved criterias
+	 */
+	public List<SearchCriteria> resolveReferences(List<SearchCriteria> criterias) {
+		if (!referenceDataDictionary.isEnabled()) {
+			return criterias;
+		}
+		List<SearchCriteria> resolved = new ArrayList<>(criterias.size());
+		for (SearchCriteria criteria : criterias) {
+			if (FilterExpression.KEY.equals(criteria.getKey())) {
+				resolved.add(SearchCriteria.builder().key(FilterExpression.KEY).operator(FilterExpression.OPERATOR)
+						.value(filterExpressionParser.parse(criteria.getValue()).map(this::resolveReference)
+								.toString())
+						.build());
+			} else {
+				resolved.add(resolveReference(criteria));
+			}
+		}
+		return resolved;
+	}
 
+	private SearchCriteria resolveReference(SearchCriteria criteria) {
+		if ("postType.type".equals(criteria.getKey()) && ":".equals(criteria.getOperator())) {
+			List<Integer> ids = referenceDataDictionary.getPostTypeIds(criteria.getValue().split(","));
+			if (!ids.isEmpty()) {
+				return SearchCriteria.builder().key("postType.id").operator(":")
+						.value(ids.stream().map(String::valueOf).collect(Collectors.joining(","))).build();
+			}
+		}
+		return criteria;
+	}
+
+	/**
+	 * Gets the DTO mapper for a page of posts. With the reference data dictionary
+	 * enabled, the authors of the page are loaded into it in one batch and author
+	 * and post type are mapped from memory.
+	 *
+	 * @param posts the posts of the page
+	 * @return the mapper
+	 */
+	public Function<Post, PostDTO> getListingMapper(List<Post> posts) {
+		if (!referenceDataDictionary.isEnabled()) {
+			return this::mapToDTO;
+		}
+		Map<Integer, UsersDTO> authors = referenceDataDictionary.getUsers(posts.stream()
+				.map(Post::getAuthor).filter(Objects::nonNull).map(Users::getId).collect(Collectors.toSet()));
+		return post -> {
+			PostDTO dto = postMapper.toListingDTO(post);
+			if (null != post.getAuthor()) {
+				dto.setAuthor(authors.get(post.getAuthor().getId()));
+			}
+			if (null != post.getPostType()) {
+				dto.setPostType(referenceDataDictionary.getPostType(post.getPostType().getId()));
+			}
+			return dto;
+		};
 	}
 }
@@ -0,0 +1,23 @@
+package com.abhicodes.querydsldynamicquery.vo;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One named listing of a batch request, with the same filter, paging and count
+ * parameters as a single listing request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchQuery {
+
+	private String name;
+	private String[] filter;
+	private String where;
+	private Integer page;
+	private Integer size;
+	private String[] sort;
+	private String count;
+}
@@ -0,0 +1,21 @@
+package com.abhicodes.querydsldynamicquery.vo;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A keyset page of results with the cursor of the next page.
+ *
+ * @param <T> the generic type
+ */
+@Getter
+@AllArgsConstructor
+public class CursorSlice<T> {
+
+	private final List<T> content;
+	private final int size;
+	private final boolean hasNext;
+	private final String nextCursor;
+}
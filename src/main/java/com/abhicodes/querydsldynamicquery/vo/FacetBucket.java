@@ -0,0 +1,25 @@
+package com.abhicodes.querydsldynamicquery.vo;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * One value of a facet: how many matching posts have it and, for each
+ * requested numeric property, its minimum, maximum and average over them.
+ */
+@Getter
+@Builder
+@JsonInclude(Include.NON_NULL)
+public class FacetBucket {
+
+	private Object value;
+	private Long count;
+	private Map<String, Number> min;
+	private Map<String, Number> max;
+	private Map<String, Double> average;
+}
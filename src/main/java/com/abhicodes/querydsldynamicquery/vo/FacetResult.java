@@ -0,0 +1,18 @@
+package com.abhicodes.querydsldynamicquery.vo;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The buckets of one facet, flagged as truncated when the facet has more values
+ * than the maximum number of buckets.
+ */
+@Getter
+@AllArgsConstructor
+public class FacetResult {
+
+	private final List<FacetBucket> buckets;
+	private final boolean truncated;
+}
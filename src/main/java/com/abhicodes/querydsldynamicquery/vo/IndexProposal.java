@@ -0,0 +1,33 @@
+package com.abhicodes.querydsldynamicquery.vo;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A composite index proposed by the index advisor, with the observed listings
+ * it would serve and, when checked, the plan of the slowest of them.
+ */
+@Getter
+@Builder
+@JsonInclude(Include.NON_NULL)
+public class IndexProposal {
+
+	private String table;
+	private List<String> columns;
+	private String ddl;
+	private Boolean existing;
+	private Long count;
+	private Double meanMillis;
+	private Double maxMillis;
+	private Double totalMillis;
+	private List<String> signatures;
+	private List<Map<String, Object>> explain;
+	private Boolean fullScanOrFilesort;
+	private String explainError;
+}
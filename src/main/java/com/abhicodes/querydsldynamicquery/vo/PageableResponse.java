@@ -14,10 +14,13 @@ import lombok.Getter;
 @JsonInclude(Include.NON_NULL)
 public class PageableResponse {
 
-	private int currentPage;
-	private int pageSize;
-	private int totalPages;
-	private long totalElements;
+	private Integer currentPage;
+	private Integer pageSize;
+	private Integer totalPages;
+	private Long totalElements;
+	private String countStrategy;
+	private Boolean hasNext;
+	private String nextCursor;
 	private Object results;
 	private Double average;
 }
@@ -0,0 +1,7 @@
+-- Full-text indexes behind the ~ operator on MySQL, checked at startup by FullTextIndexInitializer.
+-- Apply once, before starting the application, e.g. mysql -u <user> -p <schema> < V1__fulltext_indexes.sql
+-- Without them the operator falls back to LIKE on the whole term.
+
+CREATE FULLTEXT INDEX ft_posts_title ON abhi_posts (title);
+
+CREATE FULLTEXT INDEX ft_users_term ON abhi_users (user_name, email, full_name);
@@ -0,0 +1,143 @@
+package com.abhicodes.querydsldynamicquery;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.PostType;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.repository.PostRepository;
+
+/**
+ * The fixture of the database tests: empties the tables, persists posts with
+ * their references in one transaction and reads the Hibernate statistics.
+ */
+@Component
+public class TestData {
+
+	@Autowired
+	PostRepository pr;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	/**
+	 * Deletes all comments, posts, users and post types.
+	 */
+	public void clear() {
+		transactionTemplate.executeWithoutResult(status -> deleteAll());
+	}
+
+	/**
+	 * Deletes all data and loads the fixture in one transaction.
+	 *
+	 * @param fixture the fixture
+	 */
+	public void reset(Runnable fixture) {
+		transactionTemplate.executeWithoutResult(status -> {
+			deleteAll();
+			fixture.run();
+		});
+	}
+
+	/**
+	 * Deletes all data and loads the fixture in one transaction.
+	 *
+	 * @param <T>     the result type
+	 * @param fixture the fixture
+	 * @return the result of the fixture
+	 */
+	public <T> T reset(Supplier<T> fixture) {
+		return transactionTemplate.execute(status -> {
+			deleteAll();
+			return fixture.get();
+		});
+	}
+
+	private void deleteAll() {
+		entityManager.createQuery("delete from PostComment").executeUpdate();
+		pr.deleteAllInBatch();
+		entityManager.createQuery("delete from Users").executeUpdate();
+		entityManager.createQuery("delete from PostType").executeUpdate();
+	}
+
+	/**
+	 * Persists a post type, inside a fixture.
+	 *
+	 * @param type the type
+	 * @return the post type
+	 */
+	public PostType postType(String type) {
+		PostType postType = new PostType();
+		postType.setType(type);
+		entityManager.persist(postType);
+		return postType;
+	}
+
+	/**
+	 * Persists an author without full name, inside a fixture.
+	 *
+	 * @param userName the user name
+	 * @return the author
+	 */
+	public Users author(String userName) {
+		return author(userName, null);
+	}
+
+	/**
+	 * Persists an author with an email of the user name, inside a fixture.
+	 *
+	 * @param userName the user name
+	 * @param fullName the full name
+	 * @return the author
+	 */
+	public Users author(String userName, String fullName) {
+		Users users = new Users();
+		users.setUserName(userName);
+		users.setFullName(fullName);
+		users.setEmail(userName + "@example.com");
+		entityManager.persist(users);
+		return users;
+	}
+
+	/**
+	 * Creates a post, not yet persisted, created and updated at the same time.
+	 *
+	 * @param title the title
+	 * @param at    the creation and update time
+	 * @return the post
+	 */
+	public static Post post(String title, LocalDateTime at) {
+		Post post = new Post();
+		post.setTitle(title);
+		post.setCreatedAt(at);
+		post.setUpdatedAt(at);
+		return post;
+	}
+
+	/**
+	 * Gets the Hibernate statistics, cleared.
+	 *
+	 * @return the statistics
+	 */
+	public Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+}
@@ -0,0 +1,48 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+class CountCacheTests {
+
+	private final AtomicLong counts = new AtomicLong();
+
+	@Test
+	void countsOnceForFiltersInAnyOrder() {
+		CountCache cache = new CountCache(16, Duration.ofMinutes(1));
+
+		assertEquals(1, cache.get(Post.class, List.of(criteria("id", ">", "1"), criteria("title", "%", "a")),
+				counts::incrementAndGet));
+		assertEquals(1, cache.get(Post.class, List.of(criteria("title", "%", "a"), criteria("id", ">", "1")),
+				counts::incrementAndGet));
+		assertEquals(2, cache.get(Users.class, List.of(criteria("id", ">", "1"), criteria("title", "%", "a")),
+				counts::incrementAndGet));
+		assertEquals(3, cache.get(Post.class, List.of(criteria("id", ">", "2"), criteria("title", "%", "a")),
+				counts::incrementAndGet));
+	}
+
+	@Test
+	void countsAgainOnceExpired() throws InterruptedException {
+		CountCache cache = new CountCache(16, Duration.ofMillis(50));
+		List<SearchCriteria> criterias = List.of(criteria("id", ">", "1"));
+
+		assertEquals(1, cache.get(Post.class, criterias, counts::incrementAndGet));
+		assertEquals(1, cache.get(Post.class, criterias, counts::incrementAndGet));
+		Thread.sleep(100);
+		assertEquals(2, cache.get(Post.class, criterias, counts::incrementAndGet));
+		assertEquals(2, cache.get(Post.class, criterias, counts::incrementAndGet));
+	}
+
+	private static SearchCriteria criteria(String key, String operator, String value) {
+		return SearchCriteria.builder().key(key).operator(operator).value(value).build();
+	}
+}
@@ -0,0 +1,63 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhicodes.querydsldynamicquery.predicate.FilterExpression;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+
+class FilterExpressionParserTests {
+
+	private final FilterExpressionParser parser = new FilterExpressionParser(new FilterParser(16), 16, 3, 8);
+
+	@Test
+	void parsesPrecedenceAndCanonicalOrder() {
+		FilterExpression expression = parser
+				.parse("postType:2 OR NOT title%a b AND (id>5 OR createdAt()2022-01-01,2022-02-01)");
+
+		assertEquals("(NOT title%a b AND (createdAt()2022-01-01,2022-02-01 OR id>5)) OR postType:2",
+				expression.toString());
+		assertEquals(expression, parser.parse(expression.toString()));
+		assertSame(parser.parse("id:1 AND id:2"), parser.parse("id:1 AND id:2"));
+	}
+
+	@Test
+	void flattensTopLevelConjunctionIntoCriterias() {
+		List<SearchCriteria> criterias = parser.parse("id>1 AND (postType:1 OR postType:2) AND title%a")
+				.toCriterias();
+
+		assertEquals(List.of("id>1", "title%a", "where?postType:1 OR postType:2"), criterias.stream()
+				.map(c -> c.getKey() + c.getOperator() + c.getValue()).sorted().collect(Collectors.toList()));
+	}
+
+	@Test
+	void compilesBalancedTree() {
+		BooleanExpression exp = parser.parse("id:1 OR id:2 OR id:3 OR id:4")
+				.compile(c -> Expressions.stringPath(c.getKey()).eq(c.getValue()));
+
+		assertEquals("id = 1 || id = 2 || id = 3 || id = 4", exp.toString());
+		List<Expression<?>> halves = ((Operation<?>) exp).getArgs();
+		assertEquals("id = 1 || id = 2", halves.get(0).toString());
+		assertEquals("id = 3 || id = 4", halves.get(1).toString());
+	}
+
+	@Test
+	void rejectsMalformedAndOversizedExpressions() {
+		assertThrows(RuntimeException.class, () -> parser.parse("(id:1 OR id:2"));
+		assertThrows(RuntimeException.class, () -> parser.parse("id:1 OR"));
+		assertThrows(RuntimeException.class, () -> parser.parse("id:1) AND id:2"));
+		assertThrows(RuntimeException.class, () -> parser.parse("NOT (NOT (NOT (NOT id:1)))"));
+		assertThrows(RuntimeException.class,
+				() -> parser.parse("id:1 OR id:2 OR id:3 OR id:4 OR id:5 OR id:6 OR id:7 OR id:8"));
+	}
+}
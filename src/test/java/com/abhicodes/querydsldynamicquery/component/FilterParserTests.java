@@ -0,0 +1,39 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+class FilterParserTests {
+
+	@Test
+	void parsesLongestOperator() {
+		SearchCriteria criteria = FilterParser.tokenize("id<=10");
+		assertEquals("id", criteria.getKey());
+		assertEquals("<=", criteria.getOperator());
+		assertEquals("10", criteria.getValue());
+
+		assertEquals(">=", FilterParser.tokenize("id>=10").getOperator());
+		assertEquals("()", FilterParser.tokenize("createdAt()2022-01-01,2022-02-01").getOperator());
+		assertEquals("~", FilterParser.tokenize("title~query builder").getOperator());
+		assertEquals("author.fullName", FilterParser.tokenize("author.fullName%abhi").getKey());
+	}
+
+	@Test
+	void rejectsInvalidFilters() {
+		assertThrows(RuntimeException.class, () -> FilterParser.tokenize("id"));
+		assertThrows(RuntimeException.class, () -> FilterParser.tokenize("id:"));
+		assertThrows(RuntimeException.class, () -> FilterParser.tokenize(":10"));
+		assertThrows(RuntimeException.class, () -> FilterParser.tokenize("id:1;drop"));
+	}
+
+	@Test
+	void cachesParsedFilters() {
+		FilterParser parser = new FilterParser(2);
+		assertSame(parser.parse("id:1"), parser.parse("id:1"));
+	}
+}
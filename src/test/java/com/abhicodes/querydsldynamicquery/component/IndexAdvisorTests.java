@@ -0,0 +1,111 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.PostType;
+import com.abhicodes.querydsldynamicquery.repository.PostRepository;
+import com.abhicodes.querydsldynamicquery.serviceimpl.PostService;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+import com.abhicodes.querydsldynamicquery.vo.IndexProposal;
+
+@SpringBootTest(properties = { "app.query.index-advisor.enabled=true", "app.query.index-advisor.explain=true" })
+@ActiveProfiles("test")
+class IndexAdvisorTests {
+
+	private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by(Direction.DESC, "updatedAt"));
+
+	@Autowired
+	IndexAdvisor indexAdvisor;
+
+	@Autowired
+	PostService ps;
+
+	@Autowired
+	PostRepository pr;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	private Integer postTypeId;
+
+	@BeforeEach
+	void setUp() {
+		transactionTemplate.executeWithoutResult(status -> {
+			pr.deleteAllInBatch();
+			entityManager.createQuery("delete from PostType").executeUpdate();
+			PostType postType = new PostType();
+			postType.setType("news");
+			entityManager.persist(postType);
+			postTypeId = postType.getId();
+			LocalDateTime now = LocalDateTime.now();
+			for (int i = 0; i < 30; i++) {
+				Post post = new Post();
+				post.setTitle("post " + i);
+				post.setPostType(postType);
+				post.setCreatedAt(now.minusHours(i));
+				post.setUpdatedAt(now.minusHours(i));
+				entityManager.persist(post);
+			}
+		});
+		indexAdvisor.reset();
+	}
+
+	@Test
+	void proposesEqualityThenSortThenPrimaryKey() {
+		for (int i = 0; i < 3; i++) {
+			ps.getPostListing(new String[] { "postType:" + postTypeId }, null, PAGE, CountStrategy.EXACT);
+		}
+		ps.getPostListing(null, "postType:" + postTypeId + " AND createdAt>2020-01-01", PAGE,
+				CountStrategy.EXACT);
+		ps.getPostListing(new String[] { "author_term:abhi" }, null, PAGE, CountStrategy.EXACT);
+
+		List<IndexProposal> proposals = indexAdvisor.getProposals();
+
+		IndexProposal proposal = proposals.stream()
+				.filter(p -> List.of("post_type_id", "updated_at", "id").equals(p.getColumns())).findFirst()
+				.orElseThrow();
+		assertEquals("abhi_posts", proposal.getTable());
+		assertEquals("create index ix_abhi_posts_post_type_id_updated_at_id on abhi_posts (post_type_id, updated_at, id)",
+				proposal.getDdl());
+		assertEquals(3, proposal.getCount());
+		assertFalse(proposal.getExisting());
+		assertNull(proposal.getExplainError());
+		assertFalse(proposal.getExplain().isEmpty());
+		// the range criterion follows the sort, the author term adds no column of the posts table
+		assertTrue(proposals.stream()
+				.anyMatch(p -> List.of("post_type_id", "updated_at", "created_at", "id").equals(p.getColumns())));
+		assertTrue(proposals.stream().anyMatch(p -> List.of("updated_at", "id").equals(p.getColumns())));
+	}
+
+	@Test
+	void judgesMySqlPlans() {
+		assertTrue(IndexAdvisor.isFullScanOrFilesort(
+				List.of(Map.of("table", "post0_", "type", "ref", "Extra", "Using where; Using filesort"))));
+		assertFalse(IndexAdvisor
+				.isFullScanOrFilesort(List.of(Map.of("table", "post0_", "type", "range", "Extra", "Using where"))));
+		assertNull(IndexAdvisor.isFullScanOrFilesort(List.of(Map.of("PLAN", "SELECT ..."))));
+	}
+}
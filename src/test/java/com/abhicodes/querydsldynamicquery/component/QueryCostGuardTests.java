@@ -0,0 +1,57 @@
+package com.abhicodes.querydsldynamicquery.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard.Decision;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.abhicodes.querydsldynamicquery.predicate.CommonPredicateBuilder;
+import com.abhicodes.querydsldynamicquery.predicate.CriterionCost;
+import com.abhicodes.querydsldynamicquery.predicate.PropertyMetadataRegistry;
+
+class QueryCostGuardTests {
+
+	private final PropertyMetadataRegistry registry = PropertyMetadataRegistry.of(QPost.post)
+			.withIndex(Post.class, "id", "postType.id").withFullTextIndex(Post.class, "title");
+
+	private final FilterParser parser = new FilterParser(0);
+
+	@Test
+	void classifiesCriteriaByIndexAndPattern() {
+		assertEquals(List.of(CriterionCost.INDEXED, CriterionCost.INDEXED, CriterionCost.SCAN, CriterionCost.SCAN,
+				CriterionCost.EXPENSIVE, CriterionCost.EXPENSIVE, CriterionCost.INDEXED, CriterionCost.SCAN),
+				classify("id>10", "postType.id:1,2", "id!=3", "title:abc", "title-abc", "title%ab", "title~abc",
+						"title%abc"));
+	}
+
+	@Test
+	void appliesThePolicyToExpensiveFilters() {
+		List<CriterionCost> cofiltered = classify("title-abc", "id>10");
+		List<CriterionCost> alone = classify("title-abc", "title:abc");
+
+		assertEquals(Decision.ALLOW, guard("reject").decide(classify("id>10", "title%abc")));
+		assertEquals(Decision.ALLOW, guard("off").decide(alone));
+		assertEquals(Decision.TIMEOUT, guard("timeout").decide(alone));
+		assertEquals(Decision.COFILTERED, guard("require-indexed").decide(cofiltered));
+		assertEquals(Decision.REJECT, guard("require-indexed").decide(alone));
+		assertEquals(Decision.REJECT, guard("reject").decide(cofiltered));
+		assertThrows(RuntimeException.class, () -> guard("sometimes"));
+	}
+
+	private List<CriterionCost> classify(String... filter) {
+		return new CommonPredicateBuilder<>(Post.class, registry)
+				.and(Stream.of(filter).map(parser::parse).collect(Collectors.toList())).classify(3);
+	}
+
+	private static QueryCostGuard guard(String policy) {
+		return new QueryCostGuard(policy, 3, Duration.ofSeconds(5));
+	}
+}
@@ -0,0 +1,86 @@
+package com.abhicodes.querydsldynamicquery.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.abhicodes.querydsldynamicquery.TestData;
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.serviceimpl.PostService;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+
+@SpringBootTest(properties = { "app.datasource.replica.enabled=true",
+		"app.datasource.replica.pool.jdbc-url=jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+		"app.datasource.replica.pool.username=sa", "app.datasource.replica.lag-query=select max(seconds) from replica_lag",
+		"app.datasource.replica.check-interval=1h" })
+@ActiveProfiles("test")
+class ReplicaRoutingDataSourceTests {
+
+	private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by(Direction.DESC, "updatedAt"));
+
+	@Autowired
+	PostService ps;
+
+	@Autowired
+	TestData testData;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	ReplicaRoutingDataSource replicaRoutingDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	DataSource replicaDataSource;
+
+	private JdbcTemplate replica;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset(() -> entityManager.persist(TestData.post("primary post", LocalDateTime.now())));
+		replica = new JdbcTemplate(replicaDataSource);
+		replica.update("delete from abhi_posts");
+		replica.update("delete from replica_lag");
+		replica.update("insert into abhi_posts (created_at, updated_at, title) values (?, ?, ?)", LocalDateTime.now(),
+				LocalDateTime.now(), "replica post");
+	}
+
+	@Test
+	void readOnlyListingIsServedByTheReplica() {
+		replica.update("insert into replica_lag (seconds) values (0)");
+		assertTrue(replicaRoutingDataSource.checkReplica());
+
+		Slice<PostDTO> page = ps.getPostListing(new String[0], PAGE, CountStrategy.EXACT);
+
+		assertEquals(1, page.getNumberOfElements());
+		assertEquals("replica post", page.getContent().get(0).getTitle());
+	}
+
+	@Test
+	void laggingReplicaFallsBackToThePrimary() {
+		replica.update("insert into replica_lag (seconds) values (60)");
+		assertFalse(replicaRoutingDataSource.checkReplica());
+
+		Slice<PostDTO> page = ps.getPostListing(new String[0], PAGE, CountStrategy.EXACT);
+
+		assertEquals("primary post", page.getContent().get(0).getTitle());
+	}
+}
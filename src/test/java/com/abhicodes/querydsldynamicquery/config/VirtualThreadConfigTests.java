@@ -0,0 +1,66 @@
+package com.abhicodes.querydsldynamicquery.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "app.web.execution-mode=virtual")
+@ActiveProfiles("test")
+class VirtualThreadConfigTests {
+
+	private static final boolean VIRTUAL_THREADS = hasVirtualThreads();
+
+	@Autowired
+	ServletWebServerApplicationContext context;
+
+	@Autowired
+	RequestMappingHandlerAdapter requestMappingHandlerAdapter;
+
+	@Test
+	void runsRequestsOnVirtualThreadsOrKeepsTheTomcatPool() throws Exception {
+		Executor executor = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector().getProtocolHandler()
+				.getExecutor();
+		assertNotNull(executor);
+		assertEquals(VIRTUAL_THREADS, isVirtual(executor));
+	}
+
+	@Test
+	void runsAsyncWorkOnVirtualThreadsOrKeepsTheDefaultExecutor() throws Exception {
+		Executor executor = (Executor) ReflectionTestUtils.getField(requestMappingHandlerAdapter, "taskExecutor");
+		assertNotNull(executor);
+		assertEquals(VIRTUAL_THREADS, isVirtual(executor));
+	}
+
+	private static boolean hasVirtualThreads() {
+		ExecutorService executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor();
+		if (null == executor) {
+			return false;
+		}
+		executor.shutdown();
+		return true;
+	}
+
+	private static boolean isVirtual(Executor executor) throws Exception {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+			} catch (ReflectiveOperationException e) {
+				return false;
+			}
+		}, executor).get(5, TimeUnit.SECONDS);
+	}
+}
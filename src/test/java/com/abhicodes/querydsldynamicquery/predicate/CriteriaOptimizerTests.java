@@ -0,0 +1,100 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhicodes.querydsldynamicquery.component.FilterParser;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.abhicodes.querydsldynamicquery.utils.ExportFormat;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+class CriteriaOptimizerTests {
+
+	private final FilterParser parser = new FilterParser(16);
+
+	private final PropertyMetadataRegistry registry = PropertyMetadataRegistry.of(QPost.post);
+
+	private final CriteriaOptimizer optimizer = new CriteriaOptimizer(
+			key -> registry.contains(Post.class, key) ? registry.get(Post.class, key).getType() : null);
+
+	@Test
+	void collapsesRangesIntoBetween() {
+		assertEquals(Arrays.asList("id()11,19"), optimize("id>10", "id<20", "id>=5"));
+		assertEquals(Arrays.asList("createdAt()2022-01-02,2022-01-30"),
+				optimize("createdAt<2022-01-31", "createdAt>2022-01-01"));
+		assertEquals(Arrays.asList("id:7"), optimize("id>=7", "id<=7"));
+	}
+
+	@Test
+	void intersectsEqualityFilters() {
+		assertEquals(Arrays.asList("id:2,3"), optimize("id:3,1,2", "id:4,2,3", "id!=1"));
+		assertEquals(Arrays.asList("id:3"), optimize("id:1,3", "id>2"));
+	}
+
+	@Test
+	void ordersAndDeduplicatesCriteria() {
+		assertEquals(Arrays.asList("author_term:abhi", "id>=3", "title%post"),
+				optimize("title%post", "id>2", "author_term:abhi", "title%post"));
+	}
+
+	@Test
+	void detectsContradictions() {
+		assertTrue(optimizer.optimize(criterias("id>10", "id<5")).isUnsatisfiable());
+		assertTrue(optimizer.optimize(criterias("id:1", "id:2")).isUnsatisfiable());
+		assertTrue(optimizer.optimize(criterias("id:1,2", "id!=1,2")).isUnsatisfiable());
+		assertTrue(optimizer.optimize(criterias("title:a", "title:b")).isUnsatisfiable());
+		assertFalse(optimizer.optimize(criterias("title:a", "title:A")).isUnsatisfiable());
+	}
+
+	@Test
+	void mergesEveryHandledType() {
+		CriteriaOptimizer typed = new CriteriaOptimizer(Map.of("price", BigDecimal.class, "at", Instant.class,
+				"ref", UUID.class, "format", ExportFormat.class, "active", Boolean.class)::get);
+		String ref = "123e4567-e89b-12d3-a456-426614174000";
+
+		assertEquals(Arrays.asList("price()1.5,9.99"), optimize(typed, "price>=1.5", "price<=9.99", "price>=0"));
+		assertEquals(Arrays.asList("at>2022-01-01T00:00:00Z"),
+				optimize(typed, "at>2021-01-01T00:00:00Z", "at>2022-01-01T00:00:00Z"));
+		assertEquals(Arrays.asList("ref:" + ref), optimize(typed, "ref:" + ref, "ref:" + ref.toUpperCase()));
+		assertEquals(Arrays.asList("format:CSV"), optimize(typed, "format:csv,ndjson", "format!=ndjson"));
+		assertTrue(typed.optimize(criterias("price>10", "price<1")).isUnsatisfiable());
+		assertTrue(typed.optimize(criterias("format:csv", "format:ndjson")).isUnsatisfiable());
+		assertTrue(typed.optimize(criterias("active:true", "active:FALSE")).isUnsatisfiable());
+	}
+
+	@Test
+	void mergesDateTimeFiltersByDay() {
+		assertEquals(Arrays.asList("createdAt:2022-01-05"),
+				optimize("createdAt:2022-01-05", "createdAt>2022-01-01", "createdAt<=2022-01-05"));
+		assertTrue(optimizer.optimize(criterias("createdAt:2022-01-05", "createdAt>2022-01-05")).isUnsatisfiable());
+		assertEquals(Arrays.asList("createdAt:2022-01-05,2022-01-06", "createdAt>2022-01-01"),
+				optimize("createdAt>2022-01-01", "createdAt:2022-01-05,2022-01-06"));
+	}
+
+	private List<String> optimize(String... filters) {
+		return optimize(optimizer, filters);
+	}
+
+	private List<String> optimize(CriteriaOptimizer optimizer, String... filters) {
+		OptimizedCriteria optimized = optimizer.optimize(criterias(filters));
+		assertFalse(optimized.isUnsatisfiable());
+		return optimized.getCriterias().stream().map(c -> c.getKey() + c.getOperator() + c.getValue())
+				.collect(Collectors.toList());
+	}
+
+	private List<SearchCriteria> criterias(String... filters) {
+		return Arrays.stream(filters).map(parser::parse).collect(Collectors.toList());
+	}
+}
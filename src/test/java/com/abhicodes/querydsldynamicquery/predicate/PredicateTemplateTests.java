@@ -0,0 +1,103 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhicodes.querydsldynamicquery.component.PredicateTemplateCache;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+
+class PredicateTemplateTests {
+
+	private final PropertyMetadataRegistry registry = PropertyMetadataRegistry.of(QPost.post);
+
+	private final PredicateTemplateCache cache = new PredicateTemplateCache(16);
+
+	private final AtomicInteger compilations = new AtomicInteger();
+
+	@Test
+	void sharesOneTemplateBetweenValuesOfTheSameSignature() {
+		List<SearchCriteria> first = List.of(criteria("id", ">", "1"), criteria("title", "%", "query"));
+		List<SearchCriteria> second = List.of(criteria("id", ">", "7"), criteria("title", "%", "build"));
+
+		PredicateTemplate template = template(first);
+		assertSame(template, template(second));
+		assertEquals(1, compilations.get());
+		assertEquals(List.of(1, "query"), values(template.bind(first)));
+		assertEquals(List.of(7, "build"), values(template.bind(second)));
+	}
+
+	@Test
+	void compilesOneTemplatePerInListArity() {
+		PredicateTemplate two = template(List.of(criteria("id", ":", "1,2")));
+		PredicateTemplate three = template(List.of(criteria("id", ":", "1,2,3")));
+
+		assertNotSame(two, three);
+		assertEquals(2, compilations.get());
+		assertEquals(2, two.bind(List.of(criteria("id", ":", "4,5"))).getBindings().size());
+		assertEquals(3, three.bind(List.of(criteria("id", ":", "4,5,6"))).getBindings().size());
+		assertSame(two, template(List.of(criteria("id", ":", "8,9"))));
+	}
+
+	@Test
+	void escapesLikeWildcardsWithTheQuerydslEscapeCharacter() {
+		String title = "50%_off!";
+		List<SearchCriteria> criterias = List.of(criteria("title", "-", title));
+		BoundPredicate bound = template(criterias).bind(criterias);
+
+		String escaped = "50!%!_off!!";
+		assertEquals(List.of(escaped), values(bound));
+		assertEquals(title, escaped.replaceAll("!(.)", "$1"));
+		JPQLSerializer serializer = new JPQLSerializer(JPQLTemplates.DEFAULT);
+		serializer.handle(bound.getExpression());
+		assertEquals("lower(post.title) like lower(concat(concat(?1,?2),?3)) escape '!'", serializer.toString());
+	}
+
+	@Test
+	void andsTheCriteriaAsABalancedTreeWithoutSeed() {
+		List<SearchCriteria> criterias = List.of(criteria("id", ">", "1"), criteria("id", "<", "9"),
+				criteria("title", ":", "a"), criteria("id", "!=", "5"));
+		BoundPredicate bound = template(criterias).bind(criterias);
+
+		JPQLSerializer serializer = new JPQLSerializer(JPQLTemplates.DEFAULT);
+		serializer.handle(bound.getExpression());
+		assertEquals("post.id > ?1 and post.id < ?2 and (lower(post.title) = lower(?3) and post.id <> ?4)",
+				serializer.toString());
+	}
+
+	private PredicateTemplate template(List<SearchCriteria> criterias) {
+		return cache.get(Post.class, criterias, c -> {
+			compilations.incrementAndGet();
+			CommonPredicateTemplate<Post> commonTemplate = new CommonPredicateTemplate<>(Post.class, registry);
+			List<CriterionTemplate> templates = new ArrayList<>();
+			for (SearchCriteria criteria : c) {
+				templates.add(commonTemplate.getTemplate(criteria.getKey(), criteria.getOperator(),
+						PredicateTemplate.arity(criteria.getValue())));
+			}
+			return new PredicateTemplate(templates);
+		});
+	}
+
+	private static List<Object> values(BoundPredicate bound) {
+		JPQLSerializer serializer = new JPQLSerializer(JPQLTemplates.DEFAULT);
+		serializer.handle(bound.getExpression());
+		return serializer.getConstants().stream().filter(Param.class::isInstance).map(bound.getBindings()::get)
+				.collect(Collectors.toList());
+	}
+
+	private static SearchCriteria criteria(String key, String operator, String value) {
+		return SearchCriteria.builder().key(key).operator(operator).value(value).build();
+	}
+}
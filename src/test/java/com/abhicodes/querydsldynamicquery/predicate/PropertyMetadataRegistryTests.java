@@ -0,0 +1,61 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.abhicodes.querydsldynamicquery.entity.QPostComment;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+
+class PropertyMetadataRegistryTests {
+
+	private final PropertyMetadataRegistry registry = PropertyMetadataRegistry.of(QPost.post);
+
+	@Test
+	void resolvesInheritedAndNestedProperties() {
+		assertEquals(LocalDateTime.class, registry.get(Post.class, "createdAt").getType());
+		assertSame(QPost.post.updatedAt, registry.get(Post.class, "updatedAt").getPath());
+		assertEquals(Integer.class, registry.get(Post.class, "postType.id").getType());
+		assertSame(QPost.post.author.fullName, registry.get(Post.class, "author.fullName").getPath());
+		assertEquals(List.class, registry.get(Post.class, "comments").getType());
+	}
+
+	@Test
+	void registersCollectionElementsAsExistsSubqueries() {
+		PropertyMetadataRegistry withComments = PropertyMetadataRegistry.of(QPost.post, QPostComment.postComment);
+		PropertyMetadata metadata = withComments.get(Post.class, "comments.comments");
+
+		assertSame(QPostComment.postComment.comments, metadata.getPath());
+		JPQLSerializer serializer = new JPQLSerializer(JPQLTemplates.DEFAULT);
+		serializer.handle(metadata.wrap(QPostComment.postComment.comments.eq("a")));
+		assertEquals("exists (select 1\nfrom PostComment postComment\n"
+				+ "where postComment.post = post and postComment.comments = ?1)", serializer.toString());
+		assertFalse(withComments.contains(Post.class, "comments.post.title"));
+		assertFalse(registry.contains(Post.class, "comments.comments"));
+	}
+
+	@Test
+	void tracksFullTextIndexesWithoutChangingTheOriginal() {
+		PropertyMetadataRegistry indexed = registry.withFullTextIndex(Post.class, "title");
+
+		assertTrue(indexed.hasFullTextIndex(Post.class, "title"));
+		assertFalse(indexed.hasFullTextIndex(Post.class, "author.fullName"));
+		assertFalse(registry.hasFullTextIndex(Post.class, "title"));
+		assertEquals("+query* +build*", FullTextExpressions.toBooleanMode("query, build"));
+	}
+
+	@Test
+	void rejectsUnknownProperties() {
+		assertThrows(RuntimeException.class, () -> registry.get(Post.class, "unknown"));
+	}
+}
@@ -0,0 +1,83 @@
+package com.abhicodes.querydsldynamicquery.predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.QPost;
+import com.abhicodes.querydsldynamicquery.utils.ExportFormat;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.Expressions;
+
+class TypeHandlerRegistryTests {
+
+	private final CommonPredicate<Post> predicate = new CommonPredicate<>(Post.class,
+			PropertyMetadataRegistry.of(QPost.post));
+
+	@Test
+	void buildsTypedPredicates() {
+		assertEquals("id != 5", create(Long.class, "!=", "5"));
+		assertEquals("id between 1 and 10", create(Integer.class, "()", "1,10"));
+		assertEquals("id in (1.5, 2.5)", create(BigDecimal.class, ":", "1.5,2.5"));
+		assertEquals("id = CSV", create(ExportFormat.class, ":", "csv"));
+		UUID uuid = UUID.randomUUID();
+		assertEquals("id != " + uuid, create(UUID.class, "!=", uuid.toString()));
+	}
+
+	@Test
+	void matchesDateTimeEqualityOnWholeDays() {
+		assertEquals("post.createdAt between 2022-01-01T00:00 and 2022-01-01T23:59:59.999999999 || "
+				+ "post.createdAt between 2022-01-03T00:00 and 2022-01-03T23:59:59.999999999",
+				predicate.getPredicate("createdAt", ":", "2022-01-01,2022-01-03").toString());
+		assertEquals(1, TypeHandlerRegistry.get(LocalDateTime.class).bind(FilterOperator.GT, "2022-01-01").length);
+	}
+
+	@Test
+	void parsesSortKeysAsTheyPrint() {
+		for (Object value : List.of(new BigDecimal("12.50"), Instant.parse("2022-01-01T10:15:30.5Z"), UUID.randomUUID(),
+				ExportFormat.CSV, LocalDateTime.of(2022, 1, 1, 10, 15, 30), LocalDate.of(2022, 1, 1), 5L, true)) {
+			assertEquals(value, TypeHandlerRegistry.get(value.getClass()).parseSortKey(value.toString()));
+		}
+	}
+
+	@Test
+	void keepsCommasInLikeValues() {
+		assertEquals("containsIc(post.title,query, build)",
+				predicate.getPredicate("title", "-", "query, build").toString());
+	}
+
+	@Test
+	void rejectsUnsupportedCombinations() {
+		assertThrows(RuntimeException.class, () -> predicate.getPredicate("title", ">", "a"));
+		assertThrows(RuntimeException.class, () -> predicate.getPredicate("id", "%", "1"));
+		assertThrows(RuntimeException.class, () -> predicate.getPredicate("id", ":", "one"));
+		assertThrows(RuntimeException.class, () -> predicate.getPredicate("id", "()", "1,2,3"));
+		assertThrows(RuntimeException.class, () -> predicate.getPredicate("createdAt", "!=", "2022-01-01"));
+		assertThrows(RuntimeException.class, () -> predicate.getPredicate("comments", ":", "1"));
+		assertThrows(RuntimeException.class, () -> predicate.getPredicate("title", "~", "!!"));
+		assertNull(TypeHandlerRegistry.get(Object.class));
+	}
+
+	private static String create(Class<?> type, String symbol, String value) {
+		TypeHandler<?> handler = TypeHandlerRegistry.get(type);
+		FilterOperator operator = FilterOperator.of(symbol);
+		Object[] values = handler.bind("id", operator, value);
+		Expression<?>[] args = new Expression<?>[values.length];
+		for (int i = 0; i < values.length; i++) {
+			args[i] = Expressions.constant(values[i]);
+		}
+		Path<?> path = Expressions.path(type, "id");
+		return handler.create(path, operator, args).toString();
+	}
+}
@@ -0,0 +1,34 @@
+package com.abhicodes.querydsldynamicquery.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+
+class PostRepositoryImplTests {
+
+	@Test
+	void streamsMySQLRowByRowWithoutCursorFetch() throws SQLException {
+		assertEquals(Integer.MIN_VALUE,
+				PostRepositoryImpl.getStreamingFetchSize(metaData("MySQL", "jdbc:mysql://localhost/abhi"), 1000));
+	}
+
+	@Test
+	void keepsTheFetchSizeWithCursorFetchOrAnotherDatabase() throws SQLException {
+		assertEquals(1000, PostRepositoryImpl.getStreamingFetchSize(
+				metaData("MySQL", "jdbc:mysql://localhost/abhi?useCursorFetch=true"), 1000));
+		assertEquals(1000,
+				PostRepositoryImpl.getStreamingFetchSize(metaData("H2", "jdbc:h2:mem:querydsl;MODE=MySQL"), 1000));
+	}
+
+	private static DatabaseMetaData metaData(String product, String url) throws SQLException {
+		DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+		when(metaData.getDatabaseProductName()).thenReturn(product);
+		when(metaData.getURL()).thenReturn(url);
+		return metaData;
+	}
+}
@@ -0,0 +1,100 @@
+package com.abhicodes.querydsldynamicquery.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.abhicodes.querydsldynamicquery.TestData;
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.PostType;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.vo.BatchQuery;
+
+@SpringBootTest(properties = "app.query.reference-dictionary.enabled=true")
+@ActiveProfiles("test")
+class PostBatchServiceTests {
+
+	@Autowired
+	PostBatchService pbs;
+
+	@Autowired
+	TestData testData;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset(() -> {
+			PostType news = testData.postType("news");
+			PostType blog = testData.postType("blog");
+			Users author = testData.author("abhi");
+			for (int i = 0; i < 5; i++) {
+				Post post = TestData.post("post " + i, LocalDateTime.now().minusHours(i));
+				post.setPostType(i % 2 == 0 ? news : blog);
+				post.setAuthor(author);
+				entityManager.persist(post);
+			}
+		});
+	}
+
+	@Test
+	void runsListingsConcurrentlyAndLooksUpReferencesOnce() {
+		Statistics statistics = testData.statistics();
+
+		Map<String, Slice<PostDTO>> results = pbs.getPostListings(Arrays.asList(
+				query("news", "none", "postType.type:news"), query("blog", "exact", "postType.type:blog"),
+				query("none", "none", "id<1", "id>1")));
+
+		assertEquals(List.of("news", "blog", "none"), List.copyOf(results.keySet()));
+		assertEquals(3, results.get("news").getNumberOfElements());
+		assertEquals(2, ((Page<PostDTO>) results.get("blog")).getTotalElements());
+		assertEquals(0, results.get("none").getNumberOfElements());
+		results.get("blog").forEach(post -> assertEquals("abhi", post.getAuthor().getUserName()));
+		// post types, two listings and one author lookup for both pages; the short page needs no count
+		assertEquals(4, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void cancelsTheOutstandingQueriesOfARequestAtTheDeadline() {
+		CompletableFuture<String> first = new CompletableFuture<>();
+		CompletableFuture<String> second = new CompletableFuture<>();
+
+		assertThrows(RuntimeException.class,
+				() -> PostBatchService.await(first, System.nanoTime(), "first", List.of(first, second)));
+		assertTrue(first.isCancelled());
+		assertTrue(second.isCancelled());
+	}
+
+	@Test
+	void rejectsDuplicateNames() {
+		assertThrows(RuntimeException.class,
+				() -> pbs.getPostListings(Arrays.asList(query("a", null, "id>1"), query("a", null, "id<1"))));
+	}
+
+	private static BatchQuery query(String name, String count, String... filter) {
+		BatchQuery query = new BatchQuery();
+		query.setName(name);
+		query.setCount(count);
+		query.setFilter(filter);
+		return query;
+	}
+}
@@ -0,0 +1,130 @@
+package com.abhicodes.querydsldynamicquery.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.abhicodes.querydsldynamicquery.TestData;
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.PostComment;
+import com.abhicodes.querydsldynamicquery.repository.PostRepository;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+import com.abhicodes.querydsldynamicquery.utils.PostUtils;
+import com.abhicodes.querydsldynamicquery.utils.SearchCriteria;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PostCommentFilterTests {
+
+	private static final int POSTS = 20;
+
+	private static final int COMMENTS_PER_POST = 25;
+
+	private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by(Direction.DESC, "updatedAt"));
+
+	@Autowired
+	PostService ps;
+
+	@Autowired
+	PostUtils pu;
+
+	@Autowired
+	PostRepository pr;
+
+	@Autowired
+	TestData testData;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset(() -> {
+			LocalDateTime now = LocalDateTime.now();
+			for (int i = 0; i < POSTS; i++) {
+				Post post = TestData.post("post " + i, now.minusHours(i));
+				for (int j = 0; j < COMMENTS_PER_POST; j++) {
+					// every fourth post has several spam comments
+					post.addComment(comment(i % 4 == 0 && j % 10 == 0 ? "spam" : "comment " + i + "-" + j));
+				}
+				entityManager.persist(post);
+			}
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		testData.clear();
+	}
+
+	@Test
+	void collectionFilterMatchesEachPostOnce() {
+		Statistics statistics = testData.statistics();
+
+		Page<PostDTO> page = (Page<PostDTO>) ps.getPostListing(new String[] { "comments.comments:spam" }, PAGE,
+				CountStrategy.EXACT);
+
+		assertEquals(5, page.getNumberOfElements());
+		assertEquals(5, page.getTotalElements());
+		page.forEach(post -> assertTrue(Integer.parseInt(post.getTitle().substring(5)) % 4 == 0));
+		// a short first page needs no count query
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void collectionFilterPagesOverPostsNotComments() {
+		Page<PostDTO> page = (Page<PostDTO>) ps.getPostListing(new String[] { "comments.comments%comment" },
+				PageRequest.of(1, 7, Sort.by(Direction.DESC, "updatedAt")), CountStrategy.EXACT);
+
+		assertEquals(7, page.getNumberOfElements());
+		assertEquals(POSTS, page.getTotalElements());
+		assertEquals("post 7", page.getContent().get(0).getTitle());
+	}
+
+	@Test
+	void criteriaOnOneCollectionMayMatchDifferentElements() {
+		Slice<PostDTO> page = ps.getPostListing(
+				new String[] { "comments.comments:spam", "comments.comments:comment 4-1" }, PAGE,
+				CountStrategy.NONE);
+
+		assertEquals(1, page.getNumberOfElements());
+		assertEquals("post 4", page.getContent().get(0).getTitle());
+	}
+
+	@Test
+	void negatedCollectionFilterMatchesPostsWithoutSuchComment() {
+		assertEquals(15, ps.getPostListing(null, "NOT comments.comments:spam", PageRequest.of(0, 50),
+				CountStrategy.NONE).getNumberOfElements());
+	}
+
+	@Test
+	void compiledTemplateBindsValuesInsideTheSubquery() {
+		List<SearchCriteria> criteria = ps.getSearchCriteria(new String[] { "comments.comments:spam" });
+
+		assertEquals(5, pr.count(pu.getPCQBoundFilterExp(criteria)));
+	}
+
+	private PostComment comment(String text) {
+		PostComment comment = new PostComment();
+		comment.setComments(text);
+		return comment;
+	}
+}
@@ -0,0 +1,127 @@
+package com.abhicodes.querydsldynamicquery.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.abhicodes.querydsldynamicquery.TestData;
+import com.abhicodes.querydsldynamicquery.component.ListingCache;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.PostType;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.vo.FacetBucket;
+import com.abhicodes.querydsldynamicquery.vo.FacetResult;
+
+@SpringBootTest(properties = { "app.query.result-cache.enabled=true", "app.query.facets.max-buckets=3" })
+@ActiveProfiles("test")
+class PostFacetServiceTests {
+
+	@Autowired
+	PostFacetService pfs;
+
+	@Autowired
+	ListingCache listingCache;
+
+	@Autowired
+	TestData testData;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset(() -> {
+			PostType[] types = { testData.postType("news"), testData.postType("blog") };
+			Users[] authors = { testData.author("abhi"), testData.author("andy"), testData.author("john") };
+			LocalDateTime start = LocalDateTime.of(2022, 1, 1, 12, 0);
+			for (int i = 0; i < 40; i++) {
+				Post post = TestData.post("post " + i, start.plusDays(3L * i));
+				post.setPostType(types[i % types.length]);
+				post.setAuthor(authors[i % authors.length]);
+				entityManager.persist(post);
+			}
+		});
+		listingCache.invalidateAll();
+	}
+
+	@Test
+	void countsEveryFacetOfTheFilter() {
+		Map<String, FacetResult> facets = pfs.getPostFacets(null, null, new String[] { "postType,author", "month" },
+				new String[] { "id" });
+
+		assertEquals(List.of("postType", "author", "month"), List.copyOf(facets.keySet()));
+		assertEquals(Map.of("news", 20L, "blog", 20L), counts(facets.get("postType")));
+		assertFalse(facets.get("postType").isTruncated());
+		assertEquals("abhi", facets.get("author").getBuckets().get(0).getValue());
+		assertEquals(List.of(14L, 13L, 13L),
+				facets.get("author").getBuckets().stream().map(FacetBucket::getCount).collect(Collectors.toList()));
+		assertFalse(facets.get("author").isTruncated());
+		FacetBucket april = facets.get("month").getBuckets().get(0);
+		assertTrue(april.getMin().get("id").intValue() < april.getMax().get("id").intValue());
+		assertEquals((april.getMin().get("id").intValue() + april.getMax().get("id").intValue()) / 2.0,
+				april.getAverage().get("id"));
+	}
+
+	@Test
+	void keepsTheNewestMonthsOfATruncatedFacet() {
+		FacetResult months = pfs.getPostFacets(null, null, new String[] { "month" }, null).get("month");
+
+		assertEquals(List.of("2022-04", "2022-03", "2022-02"),
+				months.getBuckets().stream().map(FacetBucket::getValue).collect(Collectors.toList()));
+		assertEquals(List.of(10L, 10L, 9L),
+				months.getBuckets().stream().map(FacetBucket::getCount).collect(Collectors.toList()));
+		assertTrue(months.isTruncated());
+	}
+
+	@Test
+	void cachesStatisticsWhateverTheirRequestOrder() {
+		FacetResult facet = pfs.getPostFacets(null, null, new String[] { "postType" }, new String[] { "id,author.id" })
+				.get("postType");
+
+		Statistics statistics = testData.statistics();
+		assertSame(facet, pfs.getPostFacets(null, null, new String[] { "postType" },
+				new String[] { "author.id", "id" }).get("postType"));
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void facetsUseTheFilterAndAreCached() {
+		String[] filter = { "postType.type:news" };
+		Map<String, FacetResult> facets = pfs.getPostFacets(filter, "NOT author.userName:john",
+				new String[] { "postType", "author" }, null);
+		assertEquals(Map.of("news", 13L), counts(facets.get("postType")));
+		assertEquals(Map.of("abhi", 7L, "andy", 6L), counts(facets.get("author")));
+
+		Statistics statistics = testData.statistics();
+		assertEquals(facets.get("author"), pfs.getPostFacets(filter, "NOT author.userName:john",
+				new String[] { "author" }, null).get("author"));
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void rejectsUnknownFacetsAndNonNumericStatistics() {
+		assertThrows(RuntimeException.class, () -> pfs.getPostFacets(null, null, new String[] { "title" }, null));
+		assertThrows(RuntimeException.class,
+				() -> pfs.getPostFacets(null, null, new String[] { "month" }, new String[] { "title" }));
+	}
+
+	private static Map<Object, Long> counts(FacetResult facet) {
+		return facet.getBuckets().stream().collect(Collectors.toMap(FacetBucket::getValue, FacetBucket::getCount));
+	}
+}
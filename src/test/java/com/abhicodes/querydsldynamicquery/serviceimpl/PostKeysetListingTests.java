@@ -0,0 +1,190 @@
+package com.abhicodes.querydsldynamicquery.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abhicodes.querydsldynamicquery.TestData;
+import com.abhicodes.querydsldynamicquery.component.CommonComponent;
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.predicate.BoundPredicate;
+import com.abhicodes.querydsldynamicquery.predicate.KeysetPredicateBuilder;
+import com.abhicodes.querydsldynamicquery.predicate.PropertyMetadataRegistry;
+import com.abhicodes.querydsldynamicquery.repository.PostRepository;
+import com.abhicodes.querydsldynamicquery.utils.PostUtils;
+import com.abhicodes.querydsldynamicquery.vo.CursorSlice;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PostKeysetListingTests {
+
+	@Autowired
+	PostService ps;
+
+	@Autowired
+	PostRepository pr;
+
+	@Autowired
+	PostUtils pu;
+
+	@Autowired
+	CommonComponent commonComponent;
+
+	@Autowired
+	PropertyMetadataRegistry propertyMetadataRegistry;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	TestData testData;
+
+	@Autowired
+	EntityManager entityManager;
+
+	/** Post ids by creation order: updated at 0h, 1h, 2h, 2h, 4h, 4h and 6h, the last without author. */
+	private List<Integer> ids;
+
+	@BeforeEach
+	void setUp() {
+		ids = testData.reset(() -> {
+			Users anna = testData.author("anna", "Anna");
+			Users bob = testData.author("bob", "Bob");
+			Users ghost = testData.author("ghost");
+			Users[] authors = { anna, bob, ghost, anna, ghost, bob, null };
+			int[] hours = { 0, 1, 2, 2, 4, 4, 6 };
+			LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+			List<Integer> persisted = new ArrayList<>();
+			for (int i = 0; i < hours.length; i++) {
+				Post post = TestData.post("post " + i, start.plusHours(hours[i]));
+				post.setAuthor(authors[i]);
+				entityManager.persist(post);
+				persisted.add(post.getId());
+			}
+			return persisted;
+		});
+	}
+
+	@Test
+	void traversesAllPagesWithoutDuplicatesOrGaps() {
+		assertEquals(ids(6, 5, 4, 3, 2, 1, 0), traverse(Sort.by(Direction.DESC, "updatedAt"), 2));
+	}
+
+	@Test
+	void breaksEqualSortKeysByTheId() {
+		assertEquals(ids(0, 1, 2, 3, 4, 5, 6), traverse(Sort.by(Direction.ASC, "updatedAt"), 1));
+		assertEquals(ids(6, 5, 4, 3, 2, 1, 0), traverse(Sort.by(Direction.DESC, "updatedAt"), 1));
+	}
+
+	@Test
+	void seeksOverNullValuesSortedLast() {
+		List<PostDTO> posts = list(Sort.by(Direction.ASC, "authorName"), 1);
+
+		assertEquals(ids(0, 3, 1, 5, 2, 4, 6), posts.stream().map(PostDTO::getId).collect(Collectors.toList()));
+		assertEquals("ghost", posts.get(5).getAuthor().getUserName());
+		assertNull(posts.get(6).getAuthor());
+		assertEquals(ids(5, 1, 3, 0, 6, 4, 2), traverse(Sort.by(Direction.DESC, "authorName"), 2));
+	}
+
+	@Test
+	void seeksOverNullValuesSortedFirst() {
+		Sort sort = Sort.by(Order.desc("author.fullName").nullsFirst(), Order.desc("id").nullsFirst());
+		KeysetPredicateBuilder<Post> keyset = new KeysetPredicateBuilder<>(Post.class, propertyMetadataRegistry);
+		List<Integer> traversed = new ArrayList<>();
+		transactionTemplate.executeWithoutResult(status -> {
+			BooleanExpression seek = Expressions.asBoolean(true).isTrue();
+			List<Post> page;
+			while (!(page = pr.findContent(BoundPredicate.of(seek), PageRequest.of(0, 1, sort), 1)).isEmpty()) {
+				traversed.add(page.get(0).getId());
+				seek = keyset.build(sort, keyset.values(sort, page.get(0)));
+			}
+		});
+
+		assertEquals(ids(6, 4, 2, 5, 1, 3, 0), traversed);
+	}
+
+	@Test
+	void readsNestedSortKeysWithoutCreatingMissingObjects() {
+		Post post = TestData.post("without author", LocalDateTime.now());
+		KeysetPredicateBuilder<Post> keyset = new KeysetPredicateBuilder<>(Post.class, propertyMetadataRegistry);
+
+		assertEquals(List.of("without author"), keyset.values(Sort.by("title"), post));
+		assertEquals(Arrays.asList((String) null), keyset.values(Sort.by("author.fullName"), post));
+		assertNull(post.getAuthor());
+	}
+
+	@Test
+	void rejectsACursorOfAnotherSort() {
+		String cursor = ps.getPostKeysetListing(null, null, PageRequest.of(0, 2, Sort.by("updatedAt")), "")
+				.getNextCursor();
+
+		assertNotNull(cursor);
+		assertThrows(RuntimeException.class,
+				() -> ps.getPostKeysetListing(null, null, PageRequest.of(0, 2, Sort.by("createdAt")), cursor));
+	}
+
+	@Test
+	void rejectsTamperedAndInvalidCursors() {
+		PageRequest pageRequest = PageRequest.of(0, 2, Sort.by("updatedAt"));
+		String cursor = ps.getPostKeysetListing(null, null, pageRequest, "").getNextCursor();
+		String token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		Sort sort = commonComponent.getKeysetSort(pu.getCustomizablePage(pageRequest).getSort(), "id");
+
+		assertEquals(cursor, commonComponent.encodeCursor(sort, commonComponent.decodeCursor(sort, cursor)));
+		for (String invalid : List.of("not a cursor!", encode("not json"), encode("{}"),
+				encode(token.replace("\"v\":[", "\"v\":[\"x\",")),
+				commonComponent.encodeCursor(sort, List.of("yesterday", "1")))) {
+			assertThrows(RuntimeException.class, () -> ps.getPostKeysetListing(null, null, pageRequest, invalid),
+					invalid);
+		}
+	}
+
+	private List<Integer> traverse(Sort sort, int size) {
+		return list(sort, size).stream().map(PostDTO::getId).collect(Collectors.toList());
+	}
+
+	private List<PostDTO> list(Sort sort, int size) {
+		List<PostDTO> posts = new ArrayList<>();
+		String cursor = "";
+		do {
+			CursorSlice<PostDTO> slice = ps.getPostKeysetListing(null, null, PageRequest.of(0, size, sort), cursor);
+			posts.addAll(slice.getContent());
+			cursor = slice.getNextCursor();
+		} while (null != cursor);
+		return posts;
+	}
+
+	private List<Integer> ids(int... indexes) {
+		return Arrays.stream(indexes).mapToObj(ids::get).collect(Collectors.toList());
+	}
+
+	private static String encode(String token) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+	}
+}
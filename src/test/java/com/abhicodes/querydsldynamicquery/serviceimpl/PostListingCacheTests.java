@@ -0,0 +1,84 @@
+package com.abhicodes.querydsldynamicquery.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abhicodes.querydsldynamicquery.TestData;
+import com.abhicodes.querydsldynamicquery.component.ListingCache;
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.PostType;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+
+@SpringBootTest(properties = "app.query.result-cache.enabled=true")
+@ActiveProfiles("test")
+class PostListingCacheTests {
+
+	private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by(Direction.DESC, "updatedAt"));
+
+	@Autowired
+	PostService ps;
+
+	@Autowired
+	ListingCache listingCache;
+
+	@Autowired
+	TestData testData;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	private Integer postTypeId;
+
+	@BeforeEach
+	void setUp() {
+		postTypeId = testData.reset(() -> {
+			PostType postType = testData.postType("news");
+			for (int i = 0; i < 3; i++) {
+				entityManager.persist(post(postType, i));
+			}
+			return postType.getId();
+		});
+		listingCache.invalidateAll();
+	}
+
+	@Test
+	void repeatedListingIsServedFromCacheUntilAPostChanges() {
+		String[] filter = { "postType:" + postTypeId };
+		Slice<PostDTO> first = ps.getPostListing(filter, PAGE, CountStrategy.EXACT);
+
+		Statistics statistics = testData.statistics();
+		assertSame(first, ps.getPostListing(filter, PAGE, CountStrategy.EXACT));
+		assertEquals(0, statistics.getPrepareStatementCount());
+
+		transactionTemplate.executeWithoutResult(
+				status -> entityManager.persist(post(entityManager.find(PostType.class, postTypeId), 3)));
+
+		assertEquals(4, ps.getPostListing(filter, PAGE, CountStrategy.EXACT).getNumberOfElements());
+	}
+
+	private static Post post(PostType postType, int i) {
+		Post post = TestData.post("post " + i, LocalDateTime.now().minusHours(i));
+		post.setPostType(postType);
+		return post;
+	}
+}
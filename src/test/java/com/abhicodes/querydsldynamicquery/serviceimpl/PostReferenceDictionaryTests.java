@@ -0,0 +1,92 @@
+package com.abhicodes.querydsldynamicquery.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abhicodes.querydsldynamicquery.TestData;
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.PostType;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+
+@SpringBootTest(properties = "app.query.reference-dictionary.enabled=true")
+@ActiveProfiles("test")
+class PostReferenceDictionaryTests {
+
+	private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by(Direction.DESC, "updatedAt"));
+
+	@Autowired
+	PostService ps;
+
+	@Autowired
+	TestData testData;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	private Integer blogId;
+
+	@BeforeEach
+	void setUp() {
+		blogId = testData.reset(() -> {
+			PostType news = testData.postType("news");
+			PostType blog = testData.postType("blog");
+			Users author = testData.author("abhi", "Abhi");
+			for (int i = 0; i < 6; i++) {
+				Post post = TestData.post("post " + i, LocalDateTime.now().minusHours(i));
+				post.setPostType(i % 2 == 0 ? news : blog);
+				post.setAuthor(author);
+				entityManager.persist(post);
+			}
+			return blog.getId();
+		});
+	}
+
+	@Test
+	void listingMapsReferencesFromMemoryWithoutJoins() {
+		String[] filter = { "postType.type:news" };
+		ps.getPostListing(filter, PAGE, CountStrategy.NONE);
+
+		Statistics statistics = testData.statistics();
+		Slice<PostDTO> page = ps.getPostListing(filter, PAGE, CountStrategy.NONE);
+
+		assertEquals(3, page.getNumberOfElements());
+		page.forEach(post -> {
+			assertEquals("news", post.getPostType());
+			assertEquals("abhi", post.getAuthor().getUserName());
+		});
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void postTypeChangesRefreshTheDictionary() {
+		assertEquals(0, ps.getPostListing(new String[] { "postType.type:article" }, PAGE, CountStrategy.NONE)
+				.getNumberOfElements());
+
+		transactionTemplate.executeWithoutResult(
+				status -> entityManager.find(PostType.class, blogId).setType("article"));
+
+		Slice<PostDTO> page = ps.getPostListing(new String[] { "postType.type:article" }, PAGE, CountStrategy.NONE);
+		assertEquals(3, page.getNumberOfElements());
+		assertEquals("article", page.getContent().get(0).getPostType());
+	}
+}
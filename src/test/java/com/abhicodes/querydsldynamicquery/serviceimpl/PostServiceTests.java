@@ -0,0 +1,232 @@
+package com.abhicodes.querydsldynamicquery.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abhicodes.querydsldynamicquery.TestData;
+import com.abhicodes.querydsldynamicquery.component.CountCache;
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard;
+import com.abhicodes.querydsldynamicquery.component.QueryCostGuard.Decision;
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.PostType;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.repository.PostProjection;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+import com.abhicodes.querydsldynamicquery.utils.ExportFormat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PostServiceTests {
+
+	@Autowired
+	PostService ps;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	TestData testData;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Autowired
+	QueryCostGuard queryCostGuard;
+
+	@Autowired
+	CountCache countCache;
+
+	@BeforeEach
+	void setUp() {
+		testData.reset(() -> {
+			PostType[] types = { testData.postType("news"), testData.postType("blog") };
+			Users[] authors = { testData.author("abhi", "ABHI"), testData.author("andy", "ANDY"),
+					testData.author("john", "JOHN") };
+			LocalDateTime now = LocalDateTime.now();
+			for (int i = 0; i < 40; i++) {
+				Post post = TestData.post("post " + i, now.minusHours(i));
+				post.setPostType(types[i % types.length]);
+				post.setAuthor(authors[i % authors.length]);
+				entityManager.persist(post);
+			}
+		});
+	}
+
+	@Test
+	void listingPageUsesOneSelectAndOneCount() {
+		Statistics statistics = testData.statistics();
+
+		Slice<PostDTO> page = ps.getPostListing(new String[] { "title%post" },
+				PageRequest.of(1, 10, Sort.by(Direction.DESC, "updatedAt")), CountStrategy.EXACT);
+
+		assertEquals(10, page.getNumberOfElements());
+		page.forEach(post -> {
+			assertNotNull(post.getAuthor().getUserName());
+			assertNotNull(post.getPostType());
+		});
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void cachedCountSkipsTheCountQueryForTheSameFilterInAnyOrder() {
+		countCache.invalidateAll();
+		PageRequest pageRequest = PageRequest.of(1, 10, Sort.by(Direction.DESC, "updatedAt"));
+		Statistics statistics = testData.statistics();
+
+		Page<PostDTO> counted = (Page<PostDTO>) ps.getPostListing(new String[] { "title%post", "id<1000" }, pageRequest,
+				CountStrategy.CACHED);
+		assertEquals(2, statistics.getPrepareStatementCount());
+		statistics.clear();
+		Page<PostDTO> cached = (Page<PostDTO>) ps.getPostListing(new String[] { "id<1000", "title%post" }, pageRequest,
+				CountStrategy.CACHED);
+
+		assertEquals(40, counted.getTotalElements());
+		assertEquals(40, cached.getTotalElements());
+		assertEquals(10, cached.getNumberOfElements());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void listingRecordsPhaseTimersAndStatementCount() {
+		ps.getPostListing(new String[] { "title%post", "id>0" },
+				PageRequest.of(1, 10, Sort.by(Direction.DESC, "updatedAt")), CountStrategy.EXACT);
+
+		for (String phase : new String[] { "parse", "build", "select", "count", "map" }) {
+			assertEquals(1, meterRegistry.get("listing.phase").tag("signature", "id>&title%").tag("phase", phase)
+					.timer().count());
+		}
+		DistributionSummary statements = meterRegistry.get("listing.statements").tag("signature", "id>&title%")
+				.summary();
+		assertEquals(1, statements.count());
+		assertEquals(2, statements.totalAmount());
+	}
+
+	@Test
+	void expensiveFilterRunsUnderQueryTimeout() {
+		Counter timeouts = meterRegistry.counter("listing.cost_guard", "entity", "Post", "decision", "timeout");
+		double before = timeouts.count();
+
+		assertEquals(10, ps.getPostListing(new String[] { "title-post" },
+				PageRequest.of(0, 10, Sort.by(Direction.DESC, "updatedAt")), CountStrategy.NONE)
+				.getNumberOfElements());
+
+		assertEquals(before + 1, timeouts.count());
+		Object timeout = transactionTemplate.execute(status -> {
+			queryCostGuard.apply(Decision.TIMEOUT);
+			return entityManager.createQuery("select p from Post p").getHints().get(QueryHints.SPEC_HINT_TIMEOUT);
+		});
+		assertEquals(5000L, ((Number) timeout).longValue());
+	}
+
+	@Test
+	void contradictoryFilterReturnsEmptyPageWithoutQuerying() {
+		Statistics statistics = testData.statistics();
+
+		Slice<PostDTO> page = ps.getPostListing(new String[] { "id>10", "id<5" },
+				PageRequest.of(0, 10, Sort.by(Direction.DESC, "updatedAt")), CountStrategy.EXACT);
+
+		assertEquals(0, page.getNumberOfElements());
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void fullTextOperatorFallsBackToLikeWithoutIndex() {
+		PageRequest pageable = PageRequest.of(0, 50, Sort.by(Direction.DESC, "updatedAt"));
+
+		assertEquals(11, ps.getPostListing(new String[] { "title~post 1" }, pageable, CountStrategy.NONE)
+				.getNumberOfElements());
+		assertEquals(14, ps.getPostListing(new String[] { "author_term~abhi" }, pageable, CountStrategy.NONE)
+				.getNumberOfElements());
+	}
+
+	@Test
+	void booleanExpressionFilterMatchesEitherBranch() {
+		String where = "(postType.type:news AND title%post 1) OR (author.userName:john AND NOT title%post 3)";
+
+		Slice<PostDTO> page = ps.getPostListing(new String[] { "id>0" }, where,
+				PageRequest.of(0, 50, Sort.by(Direction.DESC, "updatedAt")), CountStrategy.EXACT);
+
+		assertEquals(14, page.getNumberOfElements());
+		page.forEach(post -> assertTrue("news".equals(post.getPostType())
+				&& post.getTitle().startsWith("post 1")
+				|| "john".equals(post.getAuthor().getUserName()) && !post.getTitle().startsWith("post 3")));
+	}
+
+	@Test
+	void sparseFieldsetSelectsColumnsWithoutEntities() {
+		Statistics statistics = testData.statistics();
+
+		Slice<Map<String, Object>> page = ps.getPostListing(new String[] { "title%post" }, null,
+				PostProjection.of(new String[] { "title,id" }),
+				PageRequest.of(0, 10, Sort.by(Direction.DESC, "updatedAt")), CountStrategy.EXACT);
+
+		assertEquals(10, page.getNumberOfElements());
+		assertEquals(List.of("id", "title"), List.copyOf(page.getContent().get(0).keySet()));
+		assertEquals("post 0", page.getContent().get(0).get("title"));
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertEquals(2, statistics.getPrepareStatementCount());
+		for (String query : statistics.getQueries()) {
+			assertFalse(query.contains(" join "), query);
+		}
+	}
+
+	@Test
+	void sparseFieldsetJoinsReferencesOnlyWhenRequested() {
+		Slice<Map<String, Object>> page = ps.getPostListing(null, null,
+				PostProjection.of(new String[] { "postType", "author" }), PageRequest.of(0, 5), CountStrategy.NONE);
+
+		Map<String, Object> row = page.getContent().get(0);
+		assertEquals(List.of("postType", "author"), List.copyOf(row.keySet()));
+		assertNotNull(row.get("postType"));
+		assertEquals(Set.of("fullName", "userName", "email"), ((Map<?, ?>) row.get("author")).keySet());
+		assertThrows(RuntimeException.class, () -> PostProjection.of(new String[] { "id,author.password" }));
+	}
+
+	@Test
+	void exportStreamsEveryMatchingPost() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long rows = ps.exportPosts(ps.formatSearchCriteria(new String[] { "author_term:abhi" }),
+				PageRequest.of(0, 10, Sort.by(Direction.DESC, "updatedAt")), ExportFormat.NDJSON, Decision.TIMEOUT,
+				out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(14, rows);
+		assertEquals(14, lines.length);
+		assertTrue(lines[0].startsWith("{\"id\":"));
+	}
+}
@@ -0,0 +1,166 @@
+package com.abhicodes.querydsldynamicquery.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.abhicodes.querydsldynamicquery.TestData;
+import com.abhicodes.querydsldynamicquery.domain.PostCommentDTO;
+import com.abhicodes.querydsldynamicquery.domain.PostDTO;
+import com.abhicodes.querydsldynamicquery.domain.UsersDTO;
+import com.abhicodes.querydsldynamicquery.entity.Post;
+import com.abhicodes.querydsldynamicquery.entity.PostComment;
+import com.abhicodes.querydsldynamicquery.entity.PostType;
+import com.abhicodes.querydsldynamicquery.entity.Users;
+import com.abhicodes.querydsldynamicquery.utils.CountStrategy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchServiceTests {
+
+	@Autowired
+	SearchService ss;
+
+	@Autowired
+	PostService ps;
+
+	@Autowired
+	TestData testData;
+
+	@Autowired
+	EntityManager entityManager;
+
+	private final List<Integer> postIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		postIds.clear();
+		testData.reset(() -> {
+			PostType[] types = { testData.postType("news"), testData.postType("blog") };
+			Users[] authors = { testData.author("abhi", "Abhi Kumar"), testData.author("andy", "Andy Smith"),
+					testData.author("john", "John Doe") };
+			LocalDateTime now = LocalDateTime.now();
+			for (int i = 0; i < 20; i++) {
+				Post post = TestData.post("post " + i, now.minusHours(i));
+				post.setPostType(types[i % types.length]);
+				post.setAuthor(authors[i % authors.length]);
+				for (int j = 0; j < 2; j++) {
+					PostComment comment = new PostComment();
+					comment.setComments("comment " + i + "-" + j);
+					post.addComment(comment);
+				}
+				entityManager.persist(post);
+				postIds.add(post.getId());
+			}
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		testData.clear();
+	}
+
+	@Test
+	void postsMatchTheHandWrittenListingInTwoStatements() {
+		String[] filter = { "postType.type:news" };
+		String where = "NOT author.userName:john";
+		PageRequest pageable = PageRequest.of(0, 5, Sort.by(Direction.DESC, "updatedAt"));
+		entityManager.getEntityManagerFactory().getCache().evictAll();
+		Statistics statistics = testData.statistics();
+
+		Page<?> page = (Page<?>) ss.search("posts", filter, where, pageable, CountStrategy.EXACT);
+
+		assertEquals(2, statistics.getPrepareStatementCount());
+		assertEquals(7, page.getTotalElements());
+		assertEquals(titles(ps.getPostListing(filter, where, pageable, CountStrategy.EXACT).getContent()),
+				titles(page.getContent()));
+		PostDTO first = (PostDTO) page.getContent().get(0);
+		assertEquals("news", first.getPostType());
+		assertNotNull(first.getAuthor().getUserName());
+
+		statistics.clear();
+		assertEquals(titles(page.getContent()),
+				titles(ss.search("posts", filter, where, pageable, CountStrategy.NONE).getContent()));
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void usersAreSearchedByTermAndExpression() {
+		PageRequest pageable = PageRequest.of(0, 10, Sort.by(Direction.ASC, "userName"));
+
+		assertEquals(List.of("andy"),
+				userNames(ss.search("users", new String[] { "term:smith" }, null, pageable, null)));
+		assertEquals(List.of("abhi", "john"),
+				userNames(ss.search("users", null, "userName:abhi OR fullName%john", pageable, null)));
+	}
+
+	@Test
+	void searchesWithoutFilterWithoutWhereClause() {
+		Statistics statistics = testData.statistics();
+
+		Page<?> page = (Page<?>) ss.search("users", null, null,
+				PageRequest.of(0, 2, Sort.by(Direction.ASC, "userName")), CountStrategy.EXACT);
+
+		assertEquals(3, page.getTotalElements());
+		assertEquals(List.of("abhi", "andy"), userNames(page));
+		assertEquals(2, statistics.getQueries().length);
+		for (String query : statistics.getQueries()) {
+			assertFalse(query.contains("where"), query);
+		}
+	}
+
+	@Test
+	void commentsAreSearchedByPost() {
+		Slice<?> page = ss.search("comments", new String[] { "post:" + postIds.get(3) }, null,
+				PageRequest.of(0, 10, Sort.by(Direction.ASC, "id")), null);
+
+		assertEquals(List.of("comment 3-0", "comment 3-1"), page.getContent().stream()
+				.map(c -> ((PostCommentDTO) c).getComments()).collect(Collectors.toList()));
+		assertEquals(postIds.get(3), ((PostCommentDTO) page.getContent().get(0)).getPostId());
+	}
+
+	@Test
+	void rejectsWhatTheEntityDoesNotWhitelist() {
+		PageRequest unsorted = PageRequest.of(0, 10);
+		assertThrows(RuntimeException.class, () -> ss.search("posttypes", null, null, unsorted, null));
+		assertThrows(RuntimeException.class,
+				() -> ss.search("posts", new String[] { "createdBy:abhi" }, null, unsorted, null));
+		assertThrows(RuntimeException.class,
+				() -> ss.search("users", null, "id:1 OR createdBy:abhi", unsorted, null));
+		assertThrows(RuntimeException.class,
+				() -> ss.search("users", new String[] { "term>abhi" }, null, unsorted, null));
+		assertThrows(RuntimeException.class,
+				() -> ss.search("users", new String[] { "term~--" }, null, unsorted, null));
+		assertThrows(RuntimeException.class,
+				() -> ss.search("users", null, null, PageRequest.of(0, 10, Sort.by("email")), null));
+	}
+
+	private static List<String> titles(List<?> posts) {
+		return posts.stream().map(p -> ((PostDTO) p).getTitle()).collect(Collectors.toList());
+	}
+
+	private static List<String> userNames(Slice<?> page) {
+		return page.getContent().stream().map(u -> ((UsersDTO) u).getUserName()).collect(Collectors.toList());
+	}
+}
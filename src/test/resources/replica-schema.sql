@@ -0,0 +1,4 @@
+create table if not exists abhi_post_types (id integer generated by default as identity primary key, type varchar(255));
+create table if not exists abhi_users (id integer generated by default as identity primary key, email varchar(255), full_name varchar(255), is_active boolean, user_name varchar(255));
+create table if not exists abhi_posts (id integer generated by default as identity primary key, created_at timestamp not null, created_by varchar(255), updated_at timestamp, updated_by varchar(255), title varchar(255), author_id integer, post_type_id integer);
+create table if not exists replica_lag (seconds integer);